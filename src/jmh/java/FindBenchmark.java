@@ -0,0 +1,53 @@
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link TaskList#findTasks(String)} against a plain linear "contains" scan
+ * at 10k, 100k and 1M tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FindBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"ook", "project meeting", "groceries", "zzz"})
+    public String keyword;
+
+    private List<Task> tasks;
+    private TaskList taskList;
+
+    @Setup
+    public void setUp() {
+        tasks = TaskFileGenerator.generate(size, size);
+        taskList = new TaskList(tasks);
+        taskList.findTasks(keyword);
+    }
+
+    @Benchmark
+    public TaskList find() {
+        return taskList.findTasks(keyword);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        String searchKeyword = keyword.toLowerCase();
+        int matches = 0;
+        for (Task task : tasks) {
+            if (task.getDescription().toLowerCase().contains(searchKeyword)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,39 @@
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures rendering a whole list with {@link UI#showTaskList(TaskList)} into a null sink,
+ * so that only formatting and buffering are timed, not the console.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ListRenderBenchmark {
+    @Param({"1000", "100000"})
+    public int size;
+
+    private TaskList tasks;
+    private UI ui;
+
+    @Setup
+    public void setUp() {
+        tasks = new TaskList(TaskFileGenerator.generate(size, size));
+        ui = new UI(InputStream.nullInputStream(), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void showTaskList() {
+        ui.showTaskList(tasks);
+        ui.flush();
+    }
+}
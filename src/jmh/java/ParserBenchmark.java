@@ -0,0 +1,35 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link Parser#parse(String)} for each command kind.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+    @Param({
+        "bye",
+        "list",
+        "mark 12",
+        "unmark 12",
+        "delete 12",
+        "find book",
+        "todo read book",
+        "deadline return book /by June 6th",
+        "event project meeting /from Aug 6th 2pm /to 4pm"
+    })
+    public String input;
+
+    @Benchmark
+    public Command parse() throws MontyException {
+        return Parser.parse(input);
+    }
+}
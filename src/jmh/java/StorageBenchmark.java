@@ -0,0 +1,65 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures {@link Storage#loadTasks()} and {@link Storage#saveTasks(List)} on generated data files
+ * of several sizes, in both storage formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"TEXT", "BINARY"})
+    public StorageFormat format;
+
+    private Path directory;
+    private Storage loadStorage;
+    private Storage saveStorage;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("monty-storage-bench");
+        tasks = TaskFileGenerator.generate(size, size);
+        loadStorage = new Storage(directory.resolve("load.txt").toString(), format);
+        loadStorage.saveTasks(tasks);
+        saveStorage = new Storage(directory.resolve("save.txt").toString(), format);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Task> load() {
+        return loadStorage.loadTasks();
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        saveStorage.saveTasks(tasks);
+    }
+}
@@ -0,0 +1,79 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates task lists of a realistic shape for the benchmarks: mostly todos, some deadlines and events,
+ * about a third of them done, with short descriptions and dates drawn from the kind of text users type.
+ * A fixed seed makes every run see the same data.
+ */
+public class TaskFileGenerator {
+    private static final String[] WORDS = {
+        "read", "book", "return", "project", "meeting", "submit", "assignment", "buy", "groceries",
+        "call", "mum", "team", "standup", "review", "pull", "request", "dentist", "gym", "lecture",
+        "tutorial", "report", "draft", "email", "prof", "lab", "quiz", "CS2103T", "week", "notes", "plan"
+    };
+    private static final String[] DATES = {
+        "2024-03-14", "Friday 5pm", "Mon 2359", "June 6th", "tomorrow", "Aug 6th 2pm", "end of week", "2024-12-31"
+    };
+    private static final String[] TIMES = {"9am", "10am", "2pm", "4pm", "6pm"};
+
+    private TaskFileGenerator() {
+    }
+
+    /**
+     * Generates tasks: 60% todos, 25% deadlines and 15% events, each done with probability 0.3.
+     * 
+     * @param count the number of tasks to generate
+     * @param seed the random seed
+     * @return the generated tasks
+     */
+    public static List<Task> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String description = describe(random);
+            int kind = random.nextInt(100);
+            Task task;
+            if (kind < 60) {
+                task = new ToDo(description);
+            } else if (kind < 85) {
+                task = new Deadline(description, pick(random, DATES));
+            } else {
+                String day = pick(random, DATES);
+                task = new Event(description, day + " " + pick(random, TIMES), pick(random, TIMES));
+            }
+            if (random.nextInt(10) < 3) {
+                task.markDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Generates a description of two to six words.
+     * 
+     * @param random the random source
+     * @return the description
+     */
+    private static String describe(Random random) {
+        StringBuilder description = new StringBuilder(pick(random, WORDS));
+        int wordCount = 2 + random.nextInt(5);
+        for (int i = 1; i < wordCount; i++) {
+            description.append(' ').append(pick(random, WORDS));
+        }
+        return description.toString();
+    }
+
+    /**
+     * Picks a random element.
+     * 
+     * @param random the random source
+     * @param values the values to pick from
+     * @return the picked value
+     */
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,96 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Runs a stream of commands non-interactively, e.g. to bulk-import tasks.
+ * Commands go through {@link Parser#parse(String)} and {@link Command#run(TaskList, UI, Storage)} as usual,
+ * but their responses are discarded and tasks are persisted once at the end, or every N commands,
+ * instead of after each mutation. A throughput and latency summary is printed when the run ends.
+ */
+public class BatchRunner {
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final TaskList tasks;
+    private final Storage storage;
+    private final UI ui;
+    private final int saveInterval;
+    private final LatencySamples latencies;
+
+    private int errorCount;
+
+    /**
+     * Constructs a BatchRunner over the given tasks.
+     * 
+     * @param tasks the task list to run commands against
+     * @param storage the storage component passed to each command
+     * @param saveInterval save after this many commands, or 0 to save only at the end
+     */
+    public BatchRunner(TaskList tasks, Storage storage, int saveInterval) {
+        this.tasks = tasks;
+        this.storage = storage;
+        this.ui = new UI(System.in, OutputStream.nullOutputStream());
+        this.saveInterval = saveInterval;
+        this.latencies = new LatencySamples();
+    }
+
+    /**
+     * Runs every command from the reader until it is exhausted or an exit command is run, then saves.
+     * Blank lines are skipped. Failing commands are counted, and the first few are reported on stderr
+     * with their line numbers.
+     * 
+     * @param reader the source of commands, one per line
+     * @throws IOException if the commands cannot be read
+     */
+    public void run(BufferedReader reader) throws IOException {
+        tasks.setAutoSave(false);
+        long start = System.nanoTime();
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            boolean isExit = false;
+            long commandStart = System.nanoTime();
+            try {
+                Command command = Parser.parse(line);
+                command.run(tasks, ui, storage);
+                isExit = command.isExit();
+            } catch (MontyException | IllegalArgumentException e) {
+                errorCount++;
+                if (errorCount <= MAX_REPORTED_ERRORS) {
+                    System.err.println("Line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+            latencies.record(System.nanoTime() - commandStart);
+
+            if (saveInterval > 0 && latencies.getCount() % saveInterval == 0) {
+                tasks.save();
+            }
+            if (isExit) {
+                break;
+            }
+        }
+        tasks.flush();
+        long elapsed = System.nanoTime() - start;
+        System.out.println(formatSummary(elapsed));
+    }
+
+    /**
+     * Formats the throughput and latency percentiles of the run, followed by the string pool summary.
+     * 
+     * @param elapsedNanos the wall-clock time of the whole run, including saves
+     * @return the summary text
+     */
+    private String formatSummary(long elapsedNanos) {
+        int commandCount = latencies.getCount();
+        double seconds = elapsedNanos / 1e9;
+        double commandsPerSecond = seconds > 0 ? commandCount / seconds : 0;
+        return String.format("Ran %d commands (%d failed) in %.3f s: %.0f commands/s%n"
+                        + "Latency %s%n%s",
+                commandCount, errorCount, seconds, commandsPerSecond, latencies.formatPercentiles(), StringPool.SHARED);
+    }
+}
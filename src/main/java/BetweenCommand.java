@@ -0,0 +1,39 @@
+import java.time.LocalDateTime;
+
+/**
+ * Command to list the deadlines due and the events starting within a time range.
+ */
+public class BetweenCommand extends Command {
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final String fromText;
+    private final String toText;
+
+    /**
+     * Constructs a BetweenCommand for the given time range.
+     * 
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, inclusive
+     * @param fromText the start of the range as entered by the user, for display
+     * @param toText the end of the range as entered by the user, for display
+     */
+    public BetweenCommand(LocalDateTime from, LocalDateTime to, String fromText, String toText) {
+        this.from = from;
+        this.to = to;
+        this.fromText = fromText;
+        this.toText = toText;
+    }
+
+    /**
+     * Executes the between command by looking up the tasks within the range and displaying them.
+     * 
+     * @param tasks the task list to search through
+     * @param ui the user interface for displaying the results
+     * @param storage the storage component (not used in this command)
+     * @throws MontyException if the lookup fails
+     */
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws MontyException {
+        ui.showTasksBetween(tasks.findTasksBetween(from, to), fromText, toText);
+    }
+}
@@ -0,0 +1,268 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes the binary data file format.
+ * Layout: the magic bytes "MNTY", a version byte and the record count as an int, followed by one record per task.
+ * Each record is a flags byte holding the task type in its upper bits and the done flag in its lowest bit,
+ * then the description and any deadline or event times as length-prefixed UTF-8 strings,
+ * with lengths written as unsigned variable-length integers.
+ */
+public class BinaryTaskCodec {
+    private static final int MAGIC = 0x4D4E5459;
+    private static final byte VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int TYPE_TODO = 0;
+    private static final int TYPE_DEADLINE = 1;
+    private static final int TYPE_EVENT = 2;
+    private static final int DONE_BIT = 1;
+
+    private BinaryTaskCodec() {
+    }
+
+    /**
+     * Writes tasks to a file in the binary format, replacing its contents.
+     * 
+     * @param tasks the tasks to write
+     * @param path the file to write to
+     * @throws IOException if there is an error writing to the file
+     */
+    public static void write(List<Task> tasks, Path path) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(path)) {
+            write(tasks, stream);
+        }
+    }
+
+    /**
+     * Writes tasks in the binary format to a stream. The stream is flushed but not closed.
+     * 
+     * @param tasks the tasks to write
+     * @param stream the stream to write to
+     * @throws IOException if there is an error writing to the stream
+     */
+    public static void write(List<Task> tasks, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(tasks.size());
+        for (Task task : tasks) {
+            if (task instanceof Deadline deadline) {
+                out.writeByte(flags(TYPE_DEADLINE, task));
+                writeString(out, task.getDescription());
+                writeString(out, deadline.getBy());
+            } else if (task instanceof Event event) {
+                out.writeByte(flags(TYPE_EVENT, task));
+                writeString(out, task.getDescription());
+                writeString(out, event.getFrom());
+                writeString(out, event.getTo());
+            } else {
+                out.writeByte(flags(TYPE_TODO, task));
+                writeString(out, task.getDescription());
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads tasks from a file in the binary format.
+     * A truncated or corrupted record ends the load, keeping the tasks read before it
+     * and recording the lost records in the report. The record count and string lengths are checked against
+     * the bytes left in the file before anything is allocated for them, so a corrupt header or length
+     * is reported like any other bad record rather than exhausting memory.
+     * 
+     * @param path the file to read from
+     * @param tasks the list to add the loaded tasks to
+     * @param report the report to record lost records in
+     * @throws IOException if the file cannot be read or does not start with a supported header
+     */
+    public static void read(Path path, List<Task> tasks, LoadReport report) throws IOException {
+        RemainingInputStream source = new RemainingInputStream(
+                new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE), Files.size(path));
+        try (DataInputStream in = new DataInputStream(source)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a binary task file: " + path);
+            }
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary task file version " + version + ": " + path);
+            }
+
+            int count = in.readInt();
+            if (tasks instanceof ArrayList<Task> arrayList) {
+                // Every record takes at least its flags byte and one length byte
+                arrayList.ensureCapacity(arrayList.size() + (int) Math.min(count, source.getRemaining() / 2));
+            }
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < count; i++) {
+                try {
+                    int flags = in.readUnsignedByte();
+                    boolean isDone = (flags & DONE_BIT) != 0;
+                    Task task = switch (flags >>> 1) {
+                        case TYPE_TODO -> new ToDo(readString(in, source, scratch));
+                        case TYPE_DEADLINE -> new Deadline(readString(in, source, scratch), readString(in, source, scratch));
+                        case TYPE_EVENT -> new Event(readString(in, source, scratch), readString(in, source, scratch),
+                                readString(in, source, scratch));
+                        default -> throw new IllegalArgumentException("Unknown task type code: " + (flags >>> 1));
+                    };
+                    if (isDone) {
+                        task.markDone();
+                    }
+                    tasks.add(task);
+                } catch (EOFException | IllegalArgumentException e) {
+                    // Records are not self-delimiting, so nothing after a bad record can be trusted
+                    report.recordSkippedRecords(count - i, "records " + (i + 1) + " to " + count + ": " + e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs a task type code and the task's done flag into a record flags byte.
+     * 
+     * @param typeCode the task type code
+     * @param task the task being written
+     * @return the flags byte
+     */
+    private static int flags(int typeCode, Task task) {
+        return (typeCode << 1) | (task.isDone() ? DONE_BIT : 0);
+    }
+
+    /**
+     * Writes a string as its UTF-8 byte length followed by the bytes.
+     * 
+     * @param out the stream to write to
+     * @param value the string to write
+     * @throws IOException if there is an error writing to the stream
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        while ((length & ~0x7F) != 0) {
+            out.writeByte((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.writeByte(length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}, taking it from the string pool.
+     * 
+     * @param in the stream to read from
+     * @param source the stream under {@code in}, which knows how many bytes are left
+     * @param scratch a buffer to decode from, used when the string fits in it
+     * @return the string read
+     * @throws IOException if the stream ends early, or the length is malformed or longer than the rest of the file
+     */
+    private static String readString(DataInputStream in, RemainingInputStream source, byte[] scratch)
+            throws IOException {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (shift > 28) {
+                throw new IllegalArgumentException("Malformed string length");
+            }
+            int b = in.readUnsignedByte();
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("Malformed string length");
+        }
+        if (length > source.getRemaining()) {
+            throw new EOFException("String length " + length + " runs past the end of the file");
+        }
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        in.readFully(bytes, 0, length);
+        return StringPool.SHARED.intern(new String(bytes, 0, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * An input stream that counts down the bytes left in the file as they are read.
+     */
+    private static class RemainingInputStream extends FilterInputStream {
+        private long remaining;
+
+        /**
+         * Constructs a RemainingInputStream.
+         * 
+         * @param in the stream to read from
+         * @param length the number of bytes the stream holds
+         */
+        RemainingInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        /**
+         * Returns how many bytes are left to read.
+         * 
+         * @return the number of unread bytes
+         */
+        long getRemaining() {
+            return remaining;
+        }
+
+        /**
+         * Reads one byte.
+         * 
+         * @return the byte, or -1 at the end of the stream
+         * @throws IOException if there is an error reading the stream
+         */
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        /**
+         * Reads up to the given number of bytes into an array.
+         * 
+         * @param b the array to read into
+         * @param off the position in the array to start at
+         * @param len the most bytes to read
+         * @return the number of bytes read, or -1 at the end of the stream
+         * @throws IOException if there is an error reading the stream
+         */
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count > 0) {
+                remaining -= count;
+            }
+            return count;
+        }
+
+        /**
+         * Skips up to the given number of bytes.
+         * 
+         * @param n the most bytes to skip
+         * @return the number of bytes skipped
+         * @throws IOException if there is an error reading the stream
+         */
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            remaining -= skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parses a newline-aligned chunk of a mapped data file on a fork-join pool.
+ * Corrupted lines are skipped and remembered by their line number within the chunk, so that the caller
+ * can report them in file order once all chunks have been joined.
+ * The position of each parsed task's done flag is kept alongside, so that the flags of exactly the records
+ * that were loaded can later be patched in place.
+ */
+public class ChunkParseTask extends RecursiveTask<List<Task>> {
+    private static final long serialVersionUID = 1L;
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int end;
+    private final List<Integer> skippedLineNumbers;
+    private final List<String> skippedLines;
+    private int[] doneFlagPositions;
+    private int lineCount;
+
+    /**
+     * Constructs a ChunkParseTask over a range of whole lines.
+     * Only absolute reads are made on the buffer, so one buffer can be shared by all chunks.
+     * 
+     * @param buffer the mapped buffer holding the chunk
+     * @param start the position of the first byte of the chunk, at the start of a line
+     * @param end the position just past the last byte of the chunk, after a line separator or at the end of the data
+     */
+    public ChunkParseTask(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        this.skippedLineNumbers = new ArrayList<>();
+        this.skippedLines = new ArrayList<>();
+        this.doneFlagPositions = new int[0];
+    }
+
+    /**
+     * Returns the number of lines in this chunk. Only meaningful once the task has completed.
+     * 
+     * @return the number of lines, including blank and corrupted ones
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Returns the 1-based numbers, within this chunk, of the corrupted lines that were skipped.
+     * Only meaningful once the task has completed.
+     * 
+     * @return the skipped line numbers in line order
+     */
+    public List<Integer> getSkippedLineNumbers() {
+        return skippedLineNumbers;
+    }
+
+    /**
+     * Returns the content of the corrupted lines that were skipped, matching {@link #getSkippedLineNumbers()}.
+     * Only meaningful once the task has completed.
+     * 
+     * @return the skipped lines in line order
+     */
+    public List<String> getSkippedLines() {
+        return skippedLines;
+    }
+
+    /**
+     * Returns the buffer position of the done flag of each parsed task, matching the tasks returned by
+     * {@link #compute()}. Only meaningful once the task has completed.
+     * 
+     * @return the done flag positions in task order, with -1 where the flag is not a single digit
+     */
+    public int[] getDoneFlagPositions() {
+        return doneFlagPositions;
+    }
+
+    /**
+     * Parses every line in the chunk.
+     * 
+     * @return the parsed tasks in line order
+     */
+    @Override
+    protected List<Task> compute() {
+        TaskFileParser parser = new TaskFileParser();
+        List<Task> tasks = new ArrayList<>();
+        int lineStart = start;
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == '\n') {
+                parseLine(parser, lineStart, i, tasks);
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < end) {
+            parseLine(parser, lineStart, end, tasks);
+        }
+        doneFlagPositions = Arrays.copyOf(doneFlagPositions, tasks.size());
+        return tasks;
+    }
+
+    /**
+     * Parses one line along with the position of its done flag, recording it as skipped instead if it is corrupted.
+     * 
+     * @param parser the parser to use
+     * @param lineStart the position of the first byte of the line
+     * @param lineEnd the position of the line separator, or the end of the chunk
+     * @param tasks the list to add the parsed task to
+     */
+    private void parseLine(TaskFileParser parser, int lineStart, int lineEnd, List<Task> tasks) {
+        lineCount++;
+        try {
+            Task task = parser.parse(buffer, lineStart, lineEnd);
+            if (task != null) {
+                if (tasks.size() == doneFlagPositions.length) {
+                    doneFlagPositions = Arrays.copyOf(doneFlagPositions, Math.max(tasks.size() * 2, 16));
+                }
+                doneFlagPositions[tasks.size()] = parser.findDoneFlag(buffer, lineStart, lineEnd);
+                tasks.add(task);
+            }
+        } catch (Exception e) {
+            // Skip corrupted lines, continue loading other tasks
+            skippedLineNumbers.add(lineCount);
+            skippedLines.add(parser.decode(buffer, lineStart, lineEnd).trim());
+        }
+    }
+}
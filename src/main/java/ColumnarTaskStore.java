@@ -0,0 +1,444 @@
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A list of tasks kept in primitive columns instead of one object per task.
+ * Done flags live in a BitSet, type codes in a byte array, and the text fields of all tasks
+ * in one shared UTF-8 byte arena addressed by offsets. A Task object is only built when an element is read,
+ * and it is a copy: changing it does not change the list, so use {@link #setDone(int, boolean)}
+ * or {@link #set(int, Task)} to write a change back.
+ * Text left behind by deleted or replaced tasks is reclaimed once it makes up half of the arena.
+ */
+public class ColumnarTaskStore extends AbstractList<Task> implements RandomAccess {
+    private static final byte TYPE_TODO = 0;
+    private static final byte TYPE_DEADLINE = 1;
+    private static final byte TYPE_EVENT = 2;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_COMPACTION_BYTES = 64 * 1024;
+
+    // Each task has four arena offsets: the start of its description and the ends of its three text fields
+    private static final int BOUNDS_PER_TASK = 4;
+
+    private final BitSet doneFlags;
+    private byte[] types;
+    private int[] bounds;
+    private byte[] arena;
+    private int arenaLength;
+    private int garbageLength;
+    private int size;
+
+    /**
+     * Constructs an empty ColumnarTaskStore.
+     */
+    public ColumnarTaskStore() {
+        this.doneFlags = new BitSet();
+        this.types = new byte[INITIAL_CAPACITY];
+        this.bounds = new int[INITIAL_CAPACITY * BOUNDS_PER_TASK];
+        this.arena = new byte[INITIAL_CAPACITY * 32];
+    }
+
+    /**
+     * Constructs a ColumnarTaskStore holding copies of the given tasks, in order.
+     * 
+     * @param tasks the tasks to store
+     */
+    public ColumnarTaskStore(List<Task> tasks) {
+        this();
+        ensureCapacity(tasks.size());
+        for (Task task : tasks) {
+            add(task);
+        }
+        arena = Arrays.copyOf(arena, Math.max(arenaLength, INITIAL_CAPACITY));
+    }
+
+    /**
+     * Returns an independent copy of the store, copying the columns and the arena instead of building Task objects.
+     * 
+     * @return the copy
+     */
+    public ColumnarTaskStore copy() {
+        ColumnarTaskStore copy = new ColumnarTaskStore();
+        copy.doneFlags.or(doneFlags);
+        copy.types = Arrays.copyOf(types, Math.max(size, INITIAL_CAPACITY));
+        copy.bounds = Arrays.copyOf(bounds, Math.max(size, INITIAL_CAPACITY) * BOUNDS_PER_TASK);
+        copy.arena = Arrays.copyOf(arena, Math.max(arenaLength, INITIAL_CAPACITY));
+        copy.arenaLength = arenaLength;
+        copy.garbageLength = garbageLength;
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Returns the number of tasks in the store.
+     * 
+     * @return the number of tasks
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Builds a Task object for the task at the given index.
+     * 
+     * @param index the 0-based index of the task
+     * @return a new Task holding the stored fields
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        int base = index * BOUNDS_PER_TASK;
+        String description = text(bounds[base], bounds[base + 1]);
+        Task task = switch (types[index]) {
+            case TYPE_DEADLINE -> new Deadline(description, text(bounds[base + 1], bounds[base + 2]));
+            case TYPE_EVENT -> new Event(description, text(bounds[base + 1], bounds[base + 2]),
+                    text(bounds[base + 2], bounds[base + 3]));
+            default -> new ToDo(description);
+        };
+        if (doneFlags.get(index)) {
+            task.markDone();
+        }
+        return task;
+    }
+
+    /**
+     * Replaces the task at the given index.
+     * 
+     * @param index the 0-based index of the task
+     * @param task the new task
+     * @return the task previously at the index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        int base = index * BOUNDS_PER_TASK;
+        garbageLength += bounds[base + 3] - bounds[base];
+        writeTask(index, task);
+        compactIfNeeded();
+        return previous;
+    }
+
+    /**
+     * Inserts a task at the given index, shifting later tasks up by one.
+     * 
+     * @param index the 0-based index to insert at
+     * @param task the task to insert
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        if (index < size) {
+            System.arraycopy(types, index, types, index + 1, size - index);
+            System.arraycopy(bounds, index * BOUNDS_PER_TASK, bounds, (index + 1) * BOUNDS_PER_TASK,
+                    (size - index) * BOUNDS_PER_TASK);
+            for (int i = size; i > index; i--) {
+                doneFlags.set(i, doneFlags.get(i - 1));
+            }
+        }
+        size++;
+        writeTask(index, task);
+        modCount++;
+    }
+
+    /**
+     * Inserts tasks at the given index in one shift of the columns, shifting later tasks up.
+     * 
+     * @param index the 0-based index to insert the first task at
+     * @param tasks the tasks to insert, in order
+     * @return true if any task was inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends Task> tasks) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int addedCount = tasks.size();
+        if (addedCount == 0) {
+            return false;
+        }
+        ensureCapacity(size + addedCount);
+        System.arraycopy(types, index, types, index + addedCount, size - index);
+        System.arraycopy(bounds, index * BOUNDS_PER_TASK, bounds, (index + addedCount) * BOUNDS_PER_TASK,
+                (size - index) * BOUNDS_PER_TASK);
+        for (int i = size - 1; i >= index; i--) {
+            doneFlags.set(i + addedCount, doneFlags.get(i));
+        }
+        size += addedCount;
+        int slot = index;
+        for (Task task : tasks) {
+            writeTask(slot++, task);
+        }
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes the task at the given index, shifting later tasks down by one.
+     * 
+     * @param index the 0-based index of the task to remove
+     * @return the removed task
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    /**
+     * Removes the tasks in a range in one shift of the columns.
+     * 
+     * @param fromIndex the index of the first task to remove
+     * @param toIndex the index after the last task to remove
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        int removedCount = toIndex - fromIndex;
+        if (removedCount <= 0) {
+            return;
+        }
+        for (int i = fromIndex; i < toIndex; i++) {
+            garbageLength += bounds[i * BOUNDS_PER_TASK + 3] - bounds[i * BOUNDS_PER_TASK];
+        }
+        System.arraycopy(types, toIndex, types, fromIndex, size - toIndex);
+        System.arraycopy(bounds, toIndex * BOUNDS_PER_TASK, bounds, fromIndex * BOUNDS_PER_TASK,
+                (size - toIndex) * BOUNDS_PER_TASK);
+        for (int i = fromIndex; i < size - removedCount; i++) {
+            doneFlags.set(i, doneFlags.get(i + removedCount));
+        }
+        doneFlags.clear(size - removedCount, size);
+        size -= removedCount;
+        modCount++;
+        compactIfNeeded();
+    }
+
+    /**
+     * Removes the tasks at several positions in one compacting pass over the columns,
+     * building only the removed tasks.
+     * 
+     * @param indices the 0-based positions of the tasks to remove, which must all exist
+     * @return the removed tasks, in their original order
+     */
+    public List<Task> removeAt(IndexRanges indices) {
+        int[] removedIndices = indices.toArray();
+        List<Task> removed = new ArrayList<>(removedIndices.length);
+        for (int index : removedIndices) {
+            removed.add(get(index));
+            garbageLength += bounds[index * BOUNDS_PER_TASK + 3] - bounds[index * BOUNDS_PER_TASK];
+        }
+        int newSize = indices.compact(size, (from, to) -> {
+            types[to] = types[from];
+            System.arraycopy(bounds, from * BOUNDS_PER_TASK, bounds, to * BOUNDS_PER_TASK, BOUNDS_PER_TASK);
+            doneFlags.set(to, doneFlags.get(from));
+        });
+        doneFlags.clear(newSize, size);
+        size = newSize;
+        modCount++;
+        compactIfNeeded();
+        return removed;
+    }
+
+    /**
+     * Removes every task and empties the arena.
+     */
+    @Override
+    public void clear() {
+        doneFlags.clear();
+        size = 0;
+        arenaLength = 0;
+        garbageLength = 0;
+        modCount++;
+    }
+
+    /**
+     * Checks whether the task at the given index is done, without building a Task.
+     * 
+     * @param index the 0-based index of the task
+     * @return true if the task is done, false otherwise
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean isDone(int index) {
+        checkIndex(index);
+        return doneFlags.get(index);
+    }
+
+    /**
+     * Returns the type of the task at the given index, without building a Task.
+     * 
+     * @param index the 0-based index of the task
+     * @return the task type identifier ("T", "D" or "E")
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public String getTaskType(int index) {
+        checkIndex(index);
+        return switch (types[index]) {
+            case TYPE_DEADLINE -> "D";
+            case TYPE_EVENT -> "E";
+            default -> "T";
+        };
+    }
+
+    /**
+     * Sets the done flag of the task at the given index.
+     * 
+     * @param index the 0-based index of the task
+     * @param isDone true to mark the task as done, false to mark it as not done
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void setDone(int index, boolean isDone) {
+        checkIndex(index);
+        doneFlags.set(index, isDone);
+    }
+
+    /**
+     * Writes the fields of a task into a slot, appending its text to the arena.
+     * 
+     * @param index the 0-based index of the slot
+     * @param task the task to write
+     */
+    private void writeTask(int index, Task task) {
+        int base = index * BOUNDS_PER_TASK;
+        types[index] = typeCode(task.getTaskType());
+        doneFlags.set(index, task.isDone());
+        bounds[base] = arenaLength;
+        appendText(task.getDescription());
+        bounds[base + 1] = arenaLength;
+        if (task instanceof Deadline deadline) {
+            appendText(deadline.getBy());
+        } else if (task instanceof Event event) {
+            appendText(event.getFrom());
+        }
+        bounds[base + 2] = arenaLength;
+        if (task instanceof Event event) {
+            appendText(event.getTo());
+        }
+        bounds[base + 3] = arenaLength;
+    }
+
+    /**
+     * Appends text to the end of the arena as UTF-8, growing the arena if needed.
+     * ASCII text, the common case, is copied without an intermediate byte array.
+     * 
+     * @param text the text to append
+     */
+    private void appendText(String text) {
+        int length = text.length();
+        ensureArenaCapacity(length);
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                byte[] encoded = text.getBytes(StandardCharsets.UTF_8);
+                ensureArenaCapacity(encoded.length);
+                System.arraycopy(encoded, 0, arena, arenaLength, encoded.length);
+                arenaLength += encoded.length;
+                return;
+            }
+            arena[arenaLength + i] = (byte) c;
+        }
+        arenaLength += length;
+    }
+
+    /**
+     * Grows the arena so that it has room for the given number of bytes after its current end.
+     * 
+     * @param length the number of bytes to make room for
+     */
+    private void ensureArenaCapacity(int length) {
+        if (arenaLength + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaLength + length));
+        }
+    }
+
+    /**
+     * Returns a string for an arena range.
+     * 
+     * @param start the start of the range
+     * @param end the end of the range
+     * @return the text in the range
+     */
+    private String text(int start, int end) {
+        return new String(arena, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rewrites the arena without the text of removed or replaced tasks once that text
+     * makes up half of it, keeping the cost of reclaiming space proportional to the space reclaimed.
+     */
+    private void compactIfNeeded() {
+        if (garbageLength < MIN_COMPACTION_BYTES || garbageLength * 2 < arenaLength) {
+            return;
+        }
+        byte[] compacted = new byte[Math.max(arenaLength - garbageLength, INITIAL_CAPACITY)];
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            int base = i * BOUNDS_PER_TASK;
+            int start = bounds[base];
+            int shift = start - length;
+            int taskLength = bounds[base + 3] - start;
+            System.arraycopy(arena, start, compacted, length, taskLength);
+            for (int j = 0; j < BOUNDS_PER_TASK; j++) {
+                bounds[base + j] -= shift;
+            }
+            length += taskLength;
+        }
+        arena = compacted;
+        arenaLength = length;
+        garbageLength = 0;
+    }
+
+    /**
+     * Grows the type and offset columns to hold at least the given number of tasks.
+     * 
+     * @param capacity the number of tasks to make room for
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+        int newCapacity = Math.max(types.length * 2, capacity);
+        types = Arrays.copyOf(types, newCapacity);
+        bounds = Arrays.copyOf(bounds, newCapacity * BOUNDS_PER_TASK);
+    }
+
+    /**
+     * Checks that an index refers to a stored task.
+     * 
+     * @param index the index to check
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Returns the column code for a task type identifier.
+     * 
+     * @param taskType the task type identifier ("T", "D" or "E")
+     * @return the type code
+     * @throws IllegalArgumentException if the type is unknown
+     */
+    private static byte typeCode(String taskType) {
+        return switch (taskType) {
+            case "T" -> TYPE_TODO;
+            case "D" -> TYPE_DEADLINE;
+            case "E" -> TYPE_EVENT;
+            default -> throw new IllegalArgumentException("Unknown task type: " + taskType);
+        };
+    }
+}
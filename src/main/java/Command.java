@@ -13,6 +13,25 @@ public abstract class Command {
      */
     public abstract void execute(TaskList tasks, UI ui, Storage storage) throws MontyException;
 
+    /**
+     * Executes this command and records how long it took, and whether it failed, in {@link Metrics#SHARED}.
+     * 
+     * @param tasks the task list to operate on
+     * @param ui the user interface for displaying messages
+     * @param storage the storage component for persistence
+     * @throws MontyException if the command execution fails
+     */
+    public final void run(TaskList tasks, UI ui, Storage storage) throws MontyException {
+        long start = System.nanoTime();
+        boolean isFailed = true;
+        try {
+            execute(tasks, ui, storage);
+            isFailed = false;
+        } finally {
+            Metrics.SHARED.recordExecute(this, System.nanoTime() - start, isFailed);
+        }
+    }
+
     /**
      * Returns whether this command should cause the application to exit.
      * 
@@ -21,4 +40,13 @@ public abstract class Command {
     public boolean isExit() {
         return false;
     }
+
+    /**
+     * Returns the named task list the session should switch to before this command runs.
+     * 
+     * @return the list name, or null to stay on the current list
+     */
+    public String getListToUse() {
+        return null;
+    }
 }
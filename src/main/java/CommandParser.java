@@ -0,0 +1,19 @@
+/**
+ * Parses the arguments of one command keyword into a Command.
+ * Registered with {@link Parser#registerCommand(String, boolean, CommandParser)}.
+ */
+@FunctionalInterface
+public interface CommandParser {
+    /**
+     * Parses a command whose keyword has already been recognised.
+     * The arguments are the region of the command from the given position to its end,
+     * and are passed as a position rather than a substring so that parsers can avoid copying them.
+     * 
+     * @param command the full trimmed command
+     * @param argumentsStart the position just after the keyword and the space following it,
+     *                       or the length of the command if it has no arguments
+     * @return the parsed command
+     * @throws MontyException if the arguments are invalid
+     */
+    Command parse(String command, int argumentsStart) throws MontyException;
+}
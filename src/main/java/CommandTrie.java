@@ -0,0 +1,82 @@
+/**
+ * A character trie from command keywords to their parsers, used by {@link Parser} to dispatch a command
+ * in a single pass over its keyword without allocating. Each keyword can have one parser for the bare
+ * keyword and one for the keyword followed by arguments.
+ */
+public class CommandTrie {
+    private static final int ALPHABET_SIZE = 128;
+
+    private final Node root;
+
+    /**
+     * Constructs an empty CommandTrie.
+     */
+    public CommandTrie() {
+        this.root = new Node();
+    }
+
+    /**
+     * Registers a parser for a keyword, replacing any parser registered for the same keyword and form.
+     * 
+     * @param keyword the command keyword, made of printable ASCII characters other than space
+     * @param takesArguments true if the parser handles the keyword followed by arguments,
+     *                       false if it handles the bare keyword
+     * @param parser the parser for the command
+     * @throws IllegalArgumentException if the keyword is empty or contains unsupported characters
+     */
+    public void register(String keyword, boolean takesArguments, CommandParser parser) {
+        if (keyword == null || keyword.isEmpty()) {
+            throw new IllegalArgumentException("Command keyword cannot be null or empty");
+        }
+
+        Node node = root;
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (c <= ' ' || c >= ALPHABET_SIZE) {
+                throw new IllegalArgumentException("Unsupported character in command keyword: " + keyword);
+            }
+            if (node.children == null) {
+                node.children = new Node[ALPHABET_SIZE];
+            }
+            if (node.children[c] == null) {
+                node.children[c] = new Node();
+            }
+            node = node.children[c];
+        }
+
+        if (takesArguments) {
+            node.argumentParser = parser;
+        } else {
+            node.bareParser = parser;
+        }
+    }
+
+    /**
+     * Finds the parser for the keyword at the start of a command.
+     * 
+     * @param command the trimmed command
+     * @param keywordEnd the position just after the keyword
+     * @param hasArguments whether the keyword is followed by arguments
+     * @return the matching parser, or null if the keyword is unknown or does not take that form
+     */
+    public CommandParser find(String command, int keywordEnd, boolean hasArguments) {
+        Node node = root;
+        for (int i = 0; i < keywordEnd; i++) {
+            char c = command.charAt(i);
+            if (c >= ALPHABET_SIZE || node.children == null || node.children[c] == null) {
+                return null;
+            }
+            node = node.children[c];
+        }
+        return hasArguments ? node.argumentParser : node.bareParser;
+    }
+
+    /**
+     * A trie node, holding the parsers of the keyword that ends here.
+     */
+    private static class Node {
+        private Node[] children;
+        private CommandParser bareParser;
+        private CommandParser argumentParser;
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * Command to list the events whose times clash with each other.
+ */
+public class ConflictsCommand extends Command {
+    /**
+     * Executes the conflicts command by looking up every pair of overlapping events and displaying them.
+     * 
+     * @param tasks the task list to check
+     * @param ui the user interface for displaying the clashes
+     * @param storage the storage component (not used in this command)
+     * @throws MontyException if the lookup fails
+     */
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws MontyException {
+        ui.showConflicts(tasks.findConflicts());
+    }
+}
@@ -0,0 +1,99 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+
+/**
+ * Parses the free-form date/time text of deadlines and events into java.time values where possible.
+ * Accepted forms are "2024-12-31", "31/12/2024" and either of them followed by a time such as "1800" or "18:00",
+ * plus ISO date-times like "2024-12-31T18:00". A time on its own can be parsed with {@link #parseTime(String)},
+ * e.g. for an event that ends on the day it starts. Anything else is left as plain text by the caller.
+ */
+public class DateTimeParser {
+    private static final DateTimeFormatter[] DATE_FORMATS = {
+        DateTimeFormatter.ofPattern("uuuu-MM-dd").withResolverStyle(ResolverStyle.STRICT),
+        DateTimeFormatter.ofPattern("d/M/uuuu").withResolverStyle(ResolverStyle.STRICT)
+    };
+    private static final DateTimeFormatter[] TIME_FORMATS = {
+        DateTimeFormatter.ofPattern("HHmm").withResolverStyle(ResolverStyle.STRICT),
+        DateTimeFormatter.ofPattern("H:mm").withResolverStyle(ResolverStyle.STRICT)
+    };
+    private static final char ISO_TIME_SEPARATOR = 'T';
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private DateTimeParser() {
+    }
+
+    /**
+     * Parses a date with an optional time of day.
+     * 
+     * @param text the text to parse
+     * @param defaultTime the time of day to use when the text holds only a date
+     * @return the parsed date/time, or null if the text is not in a recognised form
+     */
+    public static LocalDateTime parseDateTime(String text, LocalTime defaultTime) {
+        String trimmed = text.trim();
+        // Cheap rejection keeps free-form text like "Monday 2pm" from paying for the formatter exceptions
+        if (trimmed.isEmpty() || !Character.isDigit(trimmed.charAt(0))) {
+            return null;
+        }
+
+        int isoSeparator = trimmed.indexOf(ISO_TIME_SEPARATOR);
+        int spaceSeparator = trimmed.indexOf(' ');
+        int separator = isoSeparator != -1 ? isoSeparator : spaceSeparator;
+        if (separator == -1) {
+            LocalDate date = parseDate(trimmed);
+            return date == null ? null : date.atTime(defaultTime);
+        }
+
+        LocalDate date = parseDate(trimmed.substring(0, separator));
+        LocalTime time = parseTime(trimmed.substring(separator + 1).trim());
+        return date == null || time == null ? null : date.atTime(time);
+    }
+
+    /**
+     * Parses a date without a time of day.
+     * 
+     * @param text the text to parse
+     * @return the parsed date, or null if the text is not in a recognised form
+     */
+    public static LocalDate parseDate(String text) {
+        String trimmed = text.trim();
+        if (trimmed.isEmpty() || !Character.isDigit(trimmed.charAt(0))) {
+            return null;
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(trimmed, format);
+            } catch (DateTimeParseException e) {
+                // Try the next format
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a time of day without a date.
+     * 
+     * @param text the text to parse
+     * @return the parsed time, or null if the text is not in a recognised form
+     */
+    public static LocalTime parseTime(String text) {
+        String trimmed = text.trim();
+        if (trimmed.isEmpty() || !Character.isDigit(trimmed.charAt(0))) {
+            return null;
+        }
+        for (DateTimeFormatter format : TIME_FORMATS) {
+            try {
+                return LocalTime.parse(trimmed, format);
+            } catch (DateTimeParseException e) {
+                // Try the next format
+            }
+        }
+        return null;
+    }
+}
@@ -1,12 +1,19 @@
 
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
 /**
  * Represents a deadline task with a specific due date/time.
  * Extends the base Task class to add deadline-specific functionality.
+ * The due date/time is kept as entered and parsed into a java.time value on first use.
  */
 public class Deadline extends Task {
     private static final String TASK_TYPE = "D";
     
     private final String by;
+    private LocalDateTime dueDateTime;
+    // Volatile so that a thread seeing the flag also sees the parsed value, since tasks may be shared between threads
+    private volatile boolean isDueDateTimeParsed;
 
     /**
      * Constructs a new Deadline task with the given description and due date/time.
@@ -32,6 +39,19 @@ public class Deadline extends Task {
         return by;
     }
 
+    /**
+     * Returns the parsed due date/time. A deadline given as a bare date is due at the end of that day.
+     * 
+     * @return the due date/time, or null if the deadline is free-form text
+     */
+    public LocalDateTime getDueDateTime() {
+        if (!isDueDateTimeParsed) {
+            dueDateTime = DateTimeParser.parseDateTime(by, LocalTime.MAX);
+            isDueDateTimeParsed = true;
+        }
+        return dueDateTime;
+    }
+
     /**
      * Returns the task type identifier for Deadline tasks.
      * 
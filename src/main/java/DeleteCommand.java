@@ -1,8 +1,10 @@
+import java.util.List;
+
 /**
- * Command to delete a task from the task list.
+ * Command to delete one or more tasks from the task list.
  */
 public class DeleteCommand extends Command {
-    private final int taskIndex;
+    private final IndexRanges taskIndices;
 
     /**
      * Constructs a DeleteCommand with the index of the task to delete.
@@ -10,7 +12,16 @@ public class DeleteCommand extends Command {
      * @param taskIndex the 1-based index of the task to delete
      */
     public DeleteCommand(int taskIndex) {
-        this.taskIndex = taskIndex;
+        this(IndexRanges.of(taskIndex));
+    }
+
+    /**
+     * Constructs a DeleteCommand with the indices of several tasks to delete.
+     * 
+     * @param taskIndices the 1-based indices of the tasks to delete
+     */
+    public DeleteCommand(IndexRanges taskIndices) {
+        this.taskIndices = taskIndices;
     }
 
     /**
@@ -23,7 +34,12 @@ public class DeleteCommand extends Command {
      */
     @Override
     public void execute(TaskList tasks, UI ui, Storage storage) throws MontyException {
-        Task task = tasks.deleteTask(taskIndex);
-        ui.showTaskDeleted(task, tasks.getSize());
+        if (taskIndices.isSingle()) {
+            Task task = tasks.deleteTask(taskIndices.getMin());
+            ui.showTaskDeleted(task, tasks.getSize());
+            return;
+        }
+        List<Task> deleted = tasks.deleteTasks(taskIndices);
+        ui.showTasksDeleted(deleted, tasks.getSize());
     }
 }
@@ -0,0 +1,33 @@
+import java.time.LocalDate;
+
+/**
+ * Command to list the deadlines due on a given date.
+ */
+public class DueCommand extends Command {
+    private final LocalDate date;
+    private final String dateText;
+
+    /**
+     * Constructs a DueCommand for the given date.
+     * 
+     * @param date the date to look up
+     * @param dateText the date as entered by the user, for display
+     */
+    public DueCommand(LocalDate date, String dateText) {
+        this.date = date;
+        this.dateText = dateText;
+    }
+
+    /**
+     * Executes the due command by looking up the deadlines due on the date and displaying them.
+     * 
+     * @param tasks the task list to search through
+     * @param ui the user interface for displaying the results
+     * @param storage the storage component (not used in this command)
+     * @throws MontyException if the lookup fails
+     */
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws MontyException {
+        ui.showTasksDue(tasks.findTasksDue(date), dateText);
+    }
+}
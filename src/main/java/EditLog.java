@@ -0,0 +1,124 @@
+/**
+ * The recent edits made to a task list, kept for undo and redo in a ring buffer of fixed depth.
+ * Once the buffer is full, each new edit pushes out the oldest, so the log never holds more than
+ * its depth in edits, and each edit holds only the tasks it touched. A new edit discards any edits
+ * that were undone but not redone.
+ * <p>
+ * Not safe for use from several threads; a TaskList only uses its log while holding its write lock.
+ */
+public class EditLog {
+    private final int depth;
+    // Allocated on the first edit, since most task lists are query results that are never edited
+    private TaskEdit[] edits;
+    private int oldest;
+    private int undoCount;
+    private int redoCount;
+    private long taskCount;
+
+    /**
+     * Constructs an empty EditLog.
+     * 
+     * @param depth the most edits to keep
+     */
+    public EditLog(int depth) {
+        this.depth = depth;
+    }
+
+    /**
+     * Records an edit that has just been made, dropping the oldest edit if the log is full.
+     * 
+     * @param edit the edit
+     */
+    public void record(TaskEdit edit) {
+        if (depth == 0) {
+            return;
+        }
+        if (edits == null) {
+            edits = new TaskEdit[depth];
+        }
+        discardRedo();
+        if (undoCount == depth) {
+            forget(oldest);
+            oldest = (oldest + 1) % depth;
+            undoCount--;
+        }
+        int slot = (oldest + undoCount) % depth;
+        edits[slot] = edit;
+        taskCount += edit.getTasks().size();
+        undoCount++;
+    }
+
+    /**
+     * Takes the most recent edit that has not been undone, so that it can be undone.
+     * The edit stays in the log to be redone.
+     * 
+     * @return the edit to undo, or null if there is none
+     */
+    public TaskEdit undo() {
+        if (undoCount == 0) {
+            return null;
+        }
+        undoCount--;
+        redoCount++;
+        return edits[(oldest + undoCount) % depth];
+    }
+
+    /**
+     * Takes the edit most recently undone, so that it can be made again.
+     * 
+     * @return the edit to redo, or null if there is none
+     */
+    public TaskEdit redo() {
+        if (redoCount == 0) {
+            return null;
+        }
+        TaskEdit edit = edits[(oldest + undoCount) % depth];
+        undoCount++;
+        redoCount--;
+        return edit;
+    }
+
+    /**
+     * Forgets every edit, e.g. after the list has been reloaded and the positions no longer apply.
+     */
+    public void clear() {
+        if (edits != null) {
+            for (int i = 0; i < depth; i++) {
+                edits[i] = null;
+            }
+        }
+        oldest = 0;
+        undoCount = 0;
+        redoCount = 0;
+        taskCount = 0;
+    }
+
+    /**
+     * Returns how many task references the kept edits hold, to estimate the memory the log keeps alive.
+     * 
+     * @return the number of tasks across all kept edits
+     */
+    public long getTaskCount() {
+        return taskCount;
+    }
+
+    /**
+     * Drops the edits that were undone and not redone.
+     */
+    private void discardRedo() {
+        for (int i = 0; i < redoCount; i++) {
+            forget((oldest + undoCount + i) % depth);
+        }
+        redoCount = 0;
+    }
+
+    /**
+     * Clears one slot so that its edit and tasks can be collected.
+     * 
+     * @param slot the slot to clear
+     */
+    private void forget(int slot) {
+        taskCount -= edits[slot].getTasks().size();
+        edits[slot] = null;
+    }
+}
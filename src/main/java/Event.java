@@ -1,12 +1,20 @@
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
 /**
  * Represents an event task with a specific start and end time.
  * Extends the base Task class to add event-specific functionality.
+ * The start and end times are kept as entered and parsed into java.time values on first use.
  */
 public class Event extends Task {
     private static final String TASK_TYPE = "E";
     
     private final String from;
     private final String to;
+    private LocalDateTime startDateTime;
+    private LocalDateTime endDateTime;
+    // Volatile so that a thread seeing the flag also sees the parsed values, since tasks may be shared between threads
+    private volatile boolean isDateTimeParsed;
 
     /**
      * Constructs a new Event task with the given description, start time, and end time.
@@ -46,6 +54,48 @@ public class Event extends Task {
         return to;
     }
 
+    /**
+     * Returns the parsed start date/time. An event starting on a bare date starts at the beginning of that day.
+     * 
+     * @return the start date/time, or null if the start or end time is free-form text
+     */
+    public LocalDateTime getStartDateTime() {
+        parseDateTimes();
+        return startDateTime;
+    }
+
+    /**
+     * Returns the parsed end date/time. An event ending on a bare date ends at the end of that day.
+     * 
+     * @return the end date/time, or null if the start or end time is free-form text
+     */
+    public LocalDateTime getEndDateTime() {
+        parseDateTimes();
+        return endDateTime;
+    }
+
+    /**
+     * Parses the start and end times once. An end given as just a time, as in
+     * {@code /from 2024-12-01 1400 /to 1600}, is on the start date. Both are dropped unless both parse
+     * and the end is not before the start, so that an event either has a valid time range or none.
+     */
+    private void parseDateTimes() {
+        if (isDateTimeParsed) {
+            return;
+        }
+        LocalDateTime start = DateTimeParser.parseDateTime(from, LocalTime.MIDNIGHT);
+        LocalDateTime end = DateTimeParser.parseDateTime(to, LocalTime.MAX);
+        if (start != null && end == null) {
+            LocalTime endTime = DateTimeParser.parseTime(to);
+            end = endTime == null ? null : start.toLocalDate().atTime(endTime);
+        }
+        if (start != null && end != null && !end.isBefore(start)) {
+            startDateTime = start;
+            endDateTime = end;
+        }
+        isDateTimeParsed = true;
+    }
+
     /**
      * Returns the task type identifier for Event tasks.
      * 
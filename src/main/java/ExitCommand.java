@@ -3,14 +3,15 @@
  */
 public class ExitCommand extends Command {
     /**
-     * Executes the exit command by showing a goodbye message.
+     * Executes the exit command by flushing any pending saves and showing a goodbye message.
      * 
-     * @param tasks the task list (not used in this command)
+     * @param tasks the task list whose pending saves are flushed
      * @param ui the user interface for displaying the goodbye message
      * @param storage the storage component (not used in this command)
      */
     @Override
     public void execute(TaskList tasks, UI ui, Storage storage) throws MontyException {
+        tasks.flush();
         ui.showGoodbye();
     }
 
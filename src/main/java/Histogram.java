@@ -0,0 +1,180 @@
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative values, such as latencies in nanoseconds or sizes in bytes, in power-of-two buckets.
+ * Recording a value is a handful of striped, lock-free increments, so many threads can record into one histogram
+ * without contending on a shared counter. Bucket boundaries double in size, so percentiles read from the buckets
+ * are accurate to within a factor of two, which is enough to tell where time goes.
+ * Reads are not atomic with respect to concurrent recording, so a snapshot taken while values are being recorded
+ * may be off by the values recorded during the read.
+ */
+public class Histogram {
+    // Bucket 0 holds zero, and bucket i holds the values from 2^(i-1) to 2^i - 1
+    private static final int BUCKET_COUNT = Long.SIZE + 1;
+
+    private final LongAdder[] buckets;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    /**
+     * Constructs an empty Histogram.
+     */
+    public Histogram() {
+        this.buckets = new LongAdder[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Records one value. Negative values are recorded as zero.
+     * 
+     * @param value the value to record
+     */
+    public void record(long value) {
+        long clamped = Math.max(value, 0);
+        buckets[bucketFor(clamped)].increment();
+        sum.add(clamped);
+        max.accumulate(clamped);
+    }
+
+    /**
+     * Returns how many values were recorded.
+     * 
+     * @return the number of values
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the sum of the recorded values.
+     * 
+     * @return the sum
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the largest recorded value.
+     * 
+     * @return the largest value, or 0 if none were recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns an upper estimate of a percentile: the top of the bucket holding it, capped at the largest value.
+     * 
+     * @param fraction the percentile as a fraction between 0 and 1
+     * @return the estimated value at that percentile, or 0 if no values were recorded
+     */
+    public long getPercentile(double fraction) {
+        long[] counts = snapshot();
+        long count = 0;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Appends the histogram in the Prometheus text exposition format: cumulative buckets from the lowest
+     * to the highest non-empty one, then +Inf, the sum and the count. The # HELP and # TYPE lines are left to the caller,
+     * since one metric may be split into several labelled histograms.
+     * 
+     * @param sb the builder to append to
+     * @param name the metric name, without the _bucket, _sum or _count suffix
+     * @param labels the label pairs to attach, e.g. {@code command="add"}, or an empty string for none
+     * @param divisor the number of recorded units in one exported unit, e.g. 1e9 for nanoseconds to seconds
+     */
+    public void appendPrometheus(StringBuilder sb, String name, String labels, double divisor) {
+        long[] counts = snapshot();
+        int lowest = BUCKET_COUNT;
+        int highest = -1;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] > 0) {
+                lowest = Math.min(lowest, i);
+                highest = i;
+            }
+        }
+
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = lowest; i <= highest; i++) {
+            cumulative += counts[i];
+            sb.append(name).append("_bucket{").append(prefix).append("le=\"")
+                    .append(formatNumber(upperBound(i) / divisor)).append("\"} ").append(cumulative).append('\n');
+        }
+        sb.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ").append(cumulative).append('\n');
+        String suffix = labels.isEmpty() ? "" : "{" + labels + "}";
+        sb.append(name).append("_sum").append(suffix).append(' ').append(formatNumber(getSum() / divisor)).append('\n');
+        sb.append(name).append("_count").append(suffix).append(' ').append(cumulative).append('\n');
+    }
+
+    /**
+     * Reads the current count of every bucket.
+     * 
+     * @return the bucket counts
+     */
+    private long[] snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the bucket a value falls into.
+     * 
+     * @param value a non-negative value
+     * @return the bucket index
+     */
+    private static int bucketFor(long value) {
+        return Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Returns the largest value a bucket holds.
+     * 
+     * @param bucket the bucket index
+     * @return the inclusive upper bound of the bucket
+     */
+    private static long upperBound(int bucket) {
+        return bucket == Long.SIZE ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    /**
+     * Formats a number for the exposition format, without a locale-dependent decimal separator.
+     * 
+     * @param value the number to format
+     * @return the formatted number
+     */
+    private static String formatNumber(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? Long.toString((long) value)
+                : Double.toString(value);
+    }
+}
@@ -0,0 +1,316 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable set of task numbers written as a list of numbers and ranges, e.g. "1,4,7-200".
+ * The set is kept as sorted, merged ranges rather than expanded numbers, so that it can be checked
+ * against the size of a task list before any per-number work is done.
+ */
+public class IndexRanges {
+    private static final char LIST_SEPARATOR = ',';
+    private static final char RANGE_SEPARATOR = '-';
+
+    private final int[] starts;
+    private final int[] ends;
+
+    /**
+     * Constructs IndexRanges from sorted, non-overlapping, non-adjacent inclusive ranges.
+     * 
+     * @param starts the first number of each range
+     * @param ends the last number of each range
+     */
+    private IndexRanges(int[] starts, int[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * Returns the set holding just one number.
+     * 
+     * @param index the number
+     * @return the single-number set
+     */
+    public static IndexRanges of(int index) {
+        return new IndexRanges(new int[] {index}, new int[] {index});
+    }
+
+    /**
+     * Returns the set holding the first numbers of an ascending array, merging runs of consecutive numbers into ranges.
+     * 
+     * @param sorted the numbers in strictly ascending order
+     * @param count how many of the numbers to take, at least one
+     * @return the set
+     */
+    public static IndexRanges ofSorted(int[] sorted, int count) {
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        int rangeCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (rangeCount > 0 && sorted[i] == ends[rangeCount - 1] + 1) {
+                ends[rangeCount - 1] = sorted[i];
+            } else {
+                starts[rangeCount] = sorted[i];
+                ends[rangeCount] = sorted[i];
+                rangeCount++;
+            }
+        }
+        return new IndexRanges(Arrays.copyOf(starts, rangeCount), Arrays.copyOf(ends, rangeCount));
+    }
+
+    /**
+     * Parses a list of numbers and inclusive ranges such as "1,4,7-200", starting at the given position.
+     * Whitespace around numbers is ignored; items may overlap and come in any order.
+     * 
+     * @param text the text holding the list
+     * @param start the position where the list starts
+     * @return the parsed set
+     * @throws NumberFormatException if the list is empty or malformed, or a range runs backwards
+     */
+    public static IndexRanges parse(String text, int start) {
+        List<int[]> ranges = new ArrayList<>();
+        int itemStart = start;
+        for (int i = start; i <= text.length(); i++) {
+            if (i == text.length() || text.charAt(i) == LIST_SEPARATOR) {
+                ranges.add(parseItem(text, itemStart, i));
+                itemStart = i + 1;
+            }
+        }
+
+        ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+        int[] starts = new int[ranges.size()];
+        int[] ends = new int[ranges.size()];
+        int count = 0;
+        for (int[] range : ranges) {
+            if (count > 0 && (long) range[0] <= (long) ends[count - 1] + 1) {
+                ends[count - 1] = Math.max(ends[count - 1], range[1]);
+            } else {
+                starts[count] = range[0];
+                ends[count] = range[1];
+                count++;
+            }
+        }
+        return new IndexRanges(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count));
+    }
+
+    /**
+     * Returns the smallest number in the set.
+     * 
+     * @return the smallest number
+     */
+    public int getMin() {
+        return starts[0];
+    }
+
+    /**
+     * Returns the largest number in the set.
+     * 
+     * @return the largest number
+     */
+    public int getMax() {
+        return ends[ends.length - 1];
+    }
+
+    /**
+     * Returns how many numbers the set holds.
+     * 
+     * @return the number of numbers
+     */
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < starts.length; i++) {
+            count += (long) ends[i] - starts[i] + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Checks if the set holds exactly one number.
+     * 
+     * @return true if the set is a single number, false otherwise
+     */
+    public boolean isSingle() {
+        return starts.length == 1 && starts[0] == ends[0];
+    }
+
+    /**
+     * Returns the set with every number moved by the same offset, e.g. -1 to turn task numbers into list indices.
+     * 
+     * @param offset the amount to add to every number
+     * @return the shifted set
+     */
+    public IndexRanges shift(int offset) {
+        int[] shiftedStarts = new int[starts.length];
+        int[] shiftedEnds = new int[ends.length];
+        for (int i = 0; i < starts.length; i++) {
+            shiftedStarts[i] = starts[i] + offset;
+            shiftedEnds[i] = ends[i] + offset;
+        }
+        return new IndexRanges(shiftedStarts, shiftedEnds);
+    }
+
+    /**
+     * Expands the set into its numbers in ascending order.
+     * 
+     * @return the numbers in the set
+     */
+    public int[] toArray() {
+        int[] indices = new int[Math.toIntExact(count())];
+        int position = 0;
+        for (int i = 0; i < starts.length; i++) {
+            for (int index = starts[i]; index <= ends[i]; index++) {
+                indices[position++] = index;
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Moves one element of a sequence to a lower position during {@link #compact(int, Mover)}.
+     */
+    public interface Mover {
+        /**
+         * Moves the element at one position to another, overwriting whatever is there.
+         * 
+         * @param from the position to move the element from
+         * @param to the position to move the element to, never greater than {@code from}
+         */
+        void move(int from, int to);
+    }
+
+    /**
+     * Removes the elements at the positions in this set from a list, in a single compacting pass
+     * instead of shifting the list once per removed element.
+     * The positions are treated as 0-based and must all be within the list.
+     * 
+     * @param list the list to remove elements from
+     * @param <T> the element type
+     * @return the removed elements in their original order
+     */
+    public <T> List<T> removeFrom(List<T> list) {
+        List<T> removed = new ArrayList<>(Math.toIntExact(count()));
+        for (int i = 0; i < starts.length; i++) {
+            removed.addAll(list.subList(starts[i], ends[i] + 1));
+        }
+        int size = compact(list.size(), (from, to) -> list.set(to, list.get(from)));
+        list.subList(size, list.size()).clear();
+        return removed;
+    }
+
+    /**
+     * Closes the gaps the positions in this set would leave in a sequence, in a single pass that moves
+     * each kept element after the first removed one down exactly once. This lets a list with its own
+     * storage, such as a column of offsets, remove many ranges without reading its elements.
+     * The positions are treated as 0-based and must all be within the sequence.
+     * 
+     * @param size the length of the sequence
+     * @param mover moves a kept element down to its new position
+     * @return the length of the sequence without the removed positions
+     */
+    public int compact(int size, Mover mover) {
+        int write = starts[0];
+        int range = 0;
+        for (int read = starts[0]; read < size; read++) {
+            if (range < starts.length && read >= starts[range]) {
+                if (read == ends[range]) {
+                    range++;
+                }
+            } else {
+                mover.move(read, write++);
+            }
+        }
+        return write;
+    }
+
+    /**
+     * Inserts elements so that they end up at the positions in this set, undoing {@link #removeFrom(List)}
+     * with the elements it returned. Ranges are inserted from the front, one block at a time, so that
+     * an ArrayList moves its tail once per range rather than once per element.
+     * The positions are treated as 0-based, and each must be within the list once the ones before it are filled.
+     * 
+     * @param list the list to insert elements into
+     * @param elements the elements to insert, one for each position in ascending order
+     * @param <T> the element type
+     */
+    public <T> void insertInto(List<T> list, List<T> elements) {
+        int position = 0;
+        for (int i = 0; i < starts.length; i++) {
+            int length = ends[i] - starts[i] + 1;
+            list.addAll(starts[i], elements.subList(position, position + length));
+            position += length;
+        }
+    }
+
+    /**
+     * Returns the set in the same list-and-range form accepted by {@link #parse(String, int)}.
+     * 
+     * @return the formatted set, e.g. "1,4,7-200"
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < starts.length; i++) {
+            if (i > 0) {
+                sb.append(LIST_SEPARATOR);
+            }
+            sb.append(starts[i]);
+            if (ends[i] != starts[i]) {
+                sb.append(RANGE_SEPARATOR).append(ends[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parses one item of a list: a number or an inclusive range of two numbers.
+     * 
+     * @param text the text holding the item
+     * @param start the position where the item starts
+     * @param end the position just after the item
+     * @return the item as a {start, end} pair
+     * @throws NumberFormatException if the item is malformed or its range runs backwards
+     */
+    private static int[] parseItem(String text, int start, int end) {
+        int separator = -1;
+        for (int i = start; i < end; i++) {
+            // A leading '-' would be a sign, which task numbers never have
+            if (text.charAt(i) == RANGE_SEPARATOR) {
+                separator = i;
+                break;
+            }
+        }
+        if (separator == -1) {
+            int index = parseNumber(text, start, end);
+            return new int[] {index, index};
+        }
+
+        int first = parseNumber(text, start, separator);
+        int last = parseNumber(text, separator + 1, end);
+        if (first > last) {
+            throw new NumberFormatException("Range runs backwards: " + text.substring(start, end).trim());
+        }
+        return new int[] {first, last};
+    }
+
+    /**
+     * Parses an unsigned number, ignoring surrounding whitespace.
+     * 
+     * @param text the text holding the number
+     * @param start the position where the number starts
+     * @param end the position just after the number
+     * @return the number
+     * @throws NumberFormatException if the text is not an unsigned whole number
+     */
+    private static int parseNumber(String text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end || !Character.isDigit(text.charAt(start))) {
+            throw new NumberFormatException("Not a task number: " + text.substring(start, end));
+        }
+        return Integer.parseInt(text, start, end, 10);
+    }
+}
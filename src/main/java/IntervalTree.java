@@ -0,0 +1,318 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * An interval tree over closed time ranges, answering "which ranges overlap this one" in O(log n + k).
+ * It is a treap ordered by range start, where each node also keeps the latest end in its subtree,
+ * so that whole subtrees ending before a query can be skipped. Random priorities keep the expected
+ * depth logarithmic whatever order the ranges are added in.
+ * Values are matched by identity, so equal-looking values can be held side by side.
+ * 
+ * @param <T> the type of value attached to each range
+ */
+public class IntervalTree<T> {
+    private final Map<T, Node<T>> nodesByValue;
+    private final Random priorities;
+    private Node<T> root;
+    private long nextSequence;
+
+    /**
+     * Constructs an empty IntervalTree.
+     */
+    public IntervalTree() {
+        this.nodesByValue = new IdentityHashMap<>();
+        this.priorities = new Random();
+    }
+
+    /**
+     * Adds a value with its time range.
+     * 
+     * @param value the value to add
+     * @param start the start of the range, inclusive
+     * @param end the end of the range, inclusive, not before the start
+     */
+    public void add(T value, LocalDateTime start, LocalDateTime end) {
+        Node<T> node = new Node<>(value, start, end, nextSequence++, priorities.nextInt());
+        nodesByValue.put(value, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes a value that was added earlier. Values that are not in the tree are ignored.
+     * 
+     * @param value the value to remove
+     */
+    public void remove(T value) {
+        Node<T> node = nodesByValue.remove(value);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    /**
+     * Returns the number of values in the tree.
+     * 
+     * @return the number of values
+     */
+    public int size() {
+        return nodesByValue.size();
+    }
+
+    /**
+     * Finds the values whose ranges overlap a closed range, ordered by range start.
+     * 
+     * @param from the start of the query range, inclusive
+     * @param to the end of the query range, inclusive
+     * @return the overlapping values
+     */
+    public List<T> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<T> result = new ArrayList<>();
+        collectOverlapping(root, from, to, result);
+        return result;
+    }
+
+    /**
+     * Finds every pair of values whose ranges overlap, ordered by the start of the earlier range.
+     * Ranges that only touch, with one ending exactly when the other starts, do not count as overlapping,
+     * unless one of them is a single instant.
+     * Each range is checked against the later-starting ranges that begin before it ends,
+     * so the cost is O(n log n + k) for k pairs.
+     * 
+     * @return the overlapping pairs, each as a two-element list with the earlier-starting value first
+     */
+    public List<List<T>> findOverlappingPairs() {
+        List<Node<T>> ordered = new ArrayList<>(nodesByValue.size());
+        collectInOrder(root, ordered);
+
+        List<List<T>> pairs = new ArrayList<>();
+        List<Node<T>> candidates = new ArrayList<>();
+        for (Node<T> node : ordered) {
+            candidates.clear();
+            collectLaterStarting(root, node, candidates);
+            for (Node<T> other : candidates) {
+                if (other.start.isBefore(node.end) || node.start.equals(node.end) || other.start.equals(other.end)) {
+                    pairs.add(List.of(node.value, other.value));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Inserts a node into a subtree, rotating it up while its priority is higher than its parent's.
+     * 
+     * @param subtree the subtree to insert into
+     * @param node the node to insert
+     * @return the new root of the subtree
+     */
+    private Node<T> insert(Node<T> subtree, Node<T> node) {
+        if (subtree == null) {
+            return node;
+        }
+        if (node.compareTo(subtree) < 0) {
+            subtree.left = insert(subtree.left, node);
+            if (subtree.left.priority > subtree.priority) {
+                subtree = rotateRight(subtree);
+            }
+        } else {
+            subtree.right = insert(subtree.right, node);
+            if (subtree.right.priority > subtree.priority) {
+                subtree = rotateLeft(subtree);
+            }
+        }
+        subtree.updateMaxEnd();
+        return subtree;
+    }
+
+    /**
+     * Deletes a node from a subtree by rotating it down until it has at most one child.
+     * 
+     * @param subtree the subtree holding the node
+     * @param node the node to delete
+     * @return the new root of the subtree
+     */
+    private Node<T> delete(Node<T> subtree, Node<T> node) {
+        if (subtree == null) {
+            return null;
+        }
+        if (subtree != node) {
+            if (node.compareTo(subtree) < 0) {
+                subtree.left = delete(subtree.left, node);
+            } else {
+                subtree.right = delete(subtree.right, node);
+            }
+            subtree.updateMaxEnd();
+            return subtree;
+        }
+
+        if (subtree.left == null) {
+            return subtree.right;
+        }
+        if (subtree.right == null) {
+            return subtree.left;
+        }
+        Node<T> newRoot;
+        if (subtree.left.priority > subtree.right.priority) {
+            newRoot = rotateRight(subtree);
+            newRoot.right = delete(newRoot.right, node);
+        } else {
+            newRoot = rotateLeft(subtree);
+            newRoot.left = delete(newRoot.left, node);
+        }
+        newRoot.updateMaxEnd();
+        return newRoot;
+    }
+
+    /**
+     * Rotates a subtree right, lifting its left child.
+     * 
+     * @param subtree the subtree to rotate
+     * @return the new root of the subtree
+     */
+    private Node<T> rotateRight(Node<T> subtree) {
+        Node<T> newRoot = subtree.left;
+        subtree.left = newRoot.right;
+        newRoot.right = subtree;
+        subtree.updateMaxEnd();
+        newRoot.updateMaxEnd();
+        return newRoot;
+    }
+
+    /**
+     * Rotates a subtree left, lifting its right child.
+     * 
+     * @param subtree the subtree to rotate
+     * @return the new root of the subtree
+     */
+    private Node<T> rotateLeft(Node<T> subtree) {
+        Node<T> newRoot = subtree.right;
+        subtree.right = newRoot.left;
+        newRoot.left = subtree;
+        subtree.updateMaxEnd();
+        newRoot.updateMaxEnd();
+        return newRoot;
+    }
+
+    /**
+     * Collects the values in a subtree that overlap a closed range, in start order.
+     * 
+     * @param subtree the subtree to search
+     * @param from the start of the query range, inclusive
+     * @param to the end of the query range, inclusive
+     * @param result the list to add the values to
+     */
+    private void collectOverlapping(Node<T> subtree, LocalDateTime from, LocalDateTime to, List<T> result) {
+        if (subtree == null || subtree.maxEnd.isBefore(from)) {
+            return;
+        }
+        collectOverlapping(subtree.left, from, to, result);
+        if (subtree.start.isAfter(to)) {
+            // Everything to the right starts even later
+            return;
+        }
+        if (!subtree.end.isBefore(from)) {
+            result.add(subtree.value);
+        }
+        collectOverlapping(subtree.right, from, to, result);
+    }
+
+    /**
+     * Collects the nodes that come after a given node in start order and start no later than it ends.
+     * 
+     * @param subtree the subtree to search
+     * @param node the node whose later neighbours are wanted
+     * @param result the list to add the nodes to
+     */
+    private void collectLaterStarting(Node<T> subtree, Node<T> node, List<Node<T>> result) {
+        if (subtree == null) {
+            return;
+        }
+        if (subtree.compareTo(node) > 0) {
+            collectLaterStarting(subtree.left, node, result);
+            if (subtree.start.isAfter(node.end)) {
+                return;
+            }
+            result.add(subtree);
+        }
+        collectLaterStarting(subtree.right, node, result);
+    }
+
+    /**
+     * Collects the nodes of a subtree in start order.
+     * 
+     * @param subtree the subtree to walk
+     * @param result the list to add the nodes to
+     */
+    private void collectInOrder(Node<T> subtree, List<Node<T>> result) {
+        if (subtree == null) {
+            return;
+        }
+        collectInOrder(subtree.left, result);
+        result.add(subtree);
+        collectInOrder(subtree.right, result);
+    }
+
+    /**
+     * A tree node holding one range, ordered by start and then by insertion sequence.
+     * 
+     * @param <T> the type of value attached to the range
+     */
+    private static class Node<T> implements Comparable<Node<T>> {
+        private final T value;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final long sequence;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private Node<T> left;
+        private Node<T> right;
+
+        /**
+         * Constructs a leaf node.
+         * 
+         * @param value the value attached to the range
+         * @param start the start of the range
+         * @param end the end of the range
+         * @param sequence the insertion sequence number, used to order equal starts
+         * @param priority the random heap priority
+         */
+        Node(T value, LocalDateTime start, LocalDateTime end, long sequence, int priority) {
+            this.value = value;
+            this.start = start;
+            this.end = end;
+            this.sequence = sequence;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        /**
+         * Recomputes the latest end in this subtree from the node and its children.
+         */
+        void updateMaxEnd() {
+            LocalDateTime latest = end;
+            if (left != null && left.maxEnd.isAfter(latest)) {
+                latest = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(latest)) {
+                latest = right.maxEnd;
+            }
+            maxEnd = latest;
+        }
+
+        /**
+         * Orders nodes by start, then by insertion sequence.
+         * 
+         * @param other the node to compare with
+         * @return a negative number, zero or a positive number as this node comes before, with or after the other
+         */
+        @Override
+        public int compareTo(Node<T> other) {
+            int byStart = start.compareTo(other.start);
+            return byStart != 0 ? byStart : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+import java.util.Arrays;
+
+/**
+ * A growing record of latency samples that reports exact percentiles using the nearest-rank method.
+ * Unlike {@link Histogram}, every sample is kept, so it suits one-off runs such as batch imports and load tests
+ * rather than a long-running process. Not safe for use from several threads; give each thread its own
+ * and combine them with {@link #addAll(LatencySamples)}.
+ */
+public class LatencySamples {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] samples;
+    private int count;
+
+    /**
+     * Constructs an empty LatencySamples.
+     */
+    public LatencySamples() {
+        this.samples = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Records one latency.
+     * 
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    /**
+     * Adds all the samples of another record to this one.
+     * 
+     * @param other the samples to add
+     */
+    public void addAll(LatencySamples other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(samples.length * 2, count + other.count));
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+    }
+
+    /**
+     * Returns how many samples were recorded.
+     * 
+     * @return the number of samples
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Formats the median, tail percentiles and maximum of the samples.
+     * 
+     * @return the percentiles, e.g. "p50 0.5 us, p90 1.5 us, p99 6.6 us, max 49961.0 us"
+     */
+    public String formatPercentiles() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return String.format("p50 %s, p90 %s, p99 %s, max %s",
+                formatNanos(percentile(sorted, 0.50)), formatNanos(percentile(sorted, 0.90)),
+                formatNanos(percentile(sorted, 0.99)), formatNanos(percentile(sorted, 1.0)));
+    }
+
+    /**
+     * Returns the value at a percentile of sorted samples, using the nearest-rank method.
+     * 
+     * @param sorted the samples in ascending order
+     * @param fraction the percentile as a fraction between 0 and 1
+     * @return the sample at that percentile, or 0 if there are no samples
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * Formats a duration in microseconds.
+     * 
+     * @param nanos the duration in nanoseconds
+     * @return the formatted duration
+     */
+    private static String formatNanos(long nanos) {
+        return String.format("%.1f us", nanos / 1_000.0);
+    }
+}
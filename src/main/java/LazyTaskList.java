@@ -0,0 +1,511 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A list of tasks backed by a memory-mapped data file, decoding each task only when it is read.
+ * Opening the list parses each line once, so that it keeps exactly the lines an eager load keeps,
+ * but then only records where each valid line starts and lets the parsed task go.
+ * Decoded tasks are kept in a bounded least-recently-used cache.
+ * <p>
+ * Changes stay in memory on top of the mapped file. Marking a task with {@link #setDone(int, boolean)}, or
+ * writing back the task just read from the same index with {@link #set(int, Task)}, only records its new
+ * done flag next to its offset, so moving and re-marking lines never pins their text. Tasks added from
+ * elsewhere are held in memory as objects, in slots that are reused once those tasks are removed.
+ * Deleting tasks only shifts the offsets. The list does not write to the file; persisting changes is left
+ * to {@link Storage}, whose journal suits this list best, since a full save has to read every task.
+ * <p>
+ * Even reading a task updates the cache, so every access goes through the list's monitor.
+ */
+public class LazyTaskList extends AbstractList<Task> implements RandomAccess {
+    private static final long MAP_WINDOW_BYTES = 1L << 30;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Entries are file offsets with two flag bits for a done flag set in memory,
+    // or negative numbers pointing into the list of tasks held in memory
+    private static final long DONE_OVERRIDDEN_BIT = 1L << 62;
+    private static final long DONE_BIT = 1L << 61;
+    private static final long OFFSET_MASK = DONE_BIT - 1;
+
+    private final MappedByteBuffer[] windows;
+    private final long[] windowStarts;
+    private final TaskFileParser parser;
+    private final int cacheCapacity;
+    private final Map<Long, Task> cache;
+    private final List<Task> residentTasks;
+    // Slots of residentTasks freed by removed tasks, reused before the list grows
+    private int[] freeSlots;
+    private int freeSlotCount;
+    private long[] entries;
+    private int size;
+    // Done flag offsets of the indexed lines, kept from opening until taken by the storage
+    private long[] doneFlagOffsets;
+
+    /**
+     * Constructs a LazyTaskList over mapped windows of a data file, with no entries yet.
+     * 
+     * @param windows the mapped windows, each starting at a line boundary
+     * @param windowStarts the file offset of each window
+     * @param cacheCapacity the largest number of decoded tasks to keep
+     */
+    private LazyTaskList(MappedByteBuffer[] windows, long[] windowStarts, int cacheCapacity) {
+        this.windows = windows;
+        this.windowStarts = windowStarts;
+        this.parser = new TaskFileParser();
+        this.cacheCapacity = cacheCapacity;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Task> eldest) {
+                return size() > LazyTaskList.this.cacheCapacity;
+            }
+        };
+        this.residentTasks = new ArrayList<>();
+        this.freeSlots = new int[0];
+        this.entries = new long[INITIAL_CAPACITY];
+        this.doneFlagOffsets = new long[0];
+    }
+
+    /**
+     * Opens a data file and indexes the start of every valid line.
+     * Blank lines are left out, and corrupted lines are left out and recorded in the report,
+     * so the list holds the same tasks, in the same order, as loading the file eagerly.
+     * 
+     * @param path the data file to open
+     * @param cacheCapacity the largest number of decoded tasks to keep
+     * @param report the report to record corrupted lines in
+     * @return the list over the file
+     * @throws IOException if the file cannot be mapped, or holds a line longer than a mapping window
+     */
+    public static LazyTaskList open(Path path, int cacheCapacity, LoadReport report) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            List<MappedByteBuffer> windows = new ArrayList<>();
+            List<Long> windowStarts = new ArrayList<>();
+            long windowStart = 0;
+            while (windowStart < fileSize) {
+                long windowLength = Math.min(MAP_WINDOW_BYTES, fileSize - windowStart);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+                int end = windowStart + windowLength == fileSize ? window.limit() : endOfLastLine(window);
+                if (end == 0) {
+                    throw new IOException("Line at byte " + windowStart + " is longer than " + MAP_WINDOW_BYTES + " bytes");
+                }
+                windows.add(window);
+                windowStarts.add(windowStart);
+                windowStart += end;
+            }
+
+            long[] starts = new long[windowStarts.size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = windowStarts.get(i);
+            }
+            LazyTaskList list = new LazyTaskList(windows.toArray(new MappedByteBuffer[0]), starts, cacheCapacity);
+            list.indexLines(fileSize, report);
+            return list;
+        }
+    }
+
+    /**
+     * Returns the number of tasks in the list.
+     * 
+     * @return the number of tasks
+     */
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the task at the given index, decoding it from the file if it is not cached.
+     * 
+     * @param index the 0-based index of the task
+     * @return the task
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public synchronized Task get(int index) {
+        checkIndex(index);
+        long entry = entries[index];
+        if (entry < 0) {
+            return residentTasks.get(residentIndex(entry));
+        }
+
+        long offset = entry & OFFSET_MASK;
+        Task task = cache.get(offset);
+        if (task == null) {
+            task = decode(offset);
+            cache.put(offset, task);
+        }
+        if ((entry & DONE_OVERRIDDEN_BIT) != 0) {
+            if ((entry & DONE_BIT) != 0) {
+                task.markDone();
+            } else {
+                task.markNotDone();
+            }
+        }
+        return task;
+    }
+
+    /**
+     * Replaces the task at the given index. The task that was read from this index stays stored as its
+     * file offset and done flag; any other task is held in memory, reusing the slot of the task it replaces
+     * if that one was held in memory too.
+     * 
+     * @param index the 0-based index of the task
+     * @param task the new task
+     * @return the task previously at the index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public synchronized Task set(int index, Task task) {
+        boolean isDone = task.isDone();
+        Task previous = get(index);
+        long entry = entries[index];
+        if (entry < 0) {
+            residentTasks.set(residentIndex(entry), task);
+        } else if (task == previous) {
+            // Reading the previous entry applied its old flag to this same cached object
+            setDone(index, isDone);
+        } else {
+            entries[index] = residentEntry(task);
+        }
+        return previous;
+    }
+
+    /**
+     * Sets the done flag of the task at the given index. A task read from the file keeps its offset,
+     * with the flag stored beside it, so marking many tasks does not hold them in memory.
+     * 
+     * @param index the 0-based index of the task
+     * @param isDone true to mark the task as done, false to mark it as not done
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public synchronized void setDone(int index, boolean isDone) {
+        checkIndex(index);
+        long entry = entries[index];
+        if (entry < 0) {
+            Task task = residentTasks.get(residentIndex(entry));
+            if (isDone) {
+                task.markDone();
+            } else {
+                task.markNotDone();
+            }
+            return;
+        }
+
+        entries[index] = (entry & OFFSET_MASK) | DONE_OVERRIDDEN_BIT | (isDone ? DONE_BIT : 0);
+        Task cached = cache.get(entry & OFFSET_MASK);
+        if (cached != null) {
+            if (isDone) {
+                cached.markDone();
+            } else {
+                cached.markNotDone();
+            }
+        }
+    }
+
+    /**
+     * Inserts a task at the given index, holding it in memory.
+     * 
+     * @param index the 0-based index to insert at
+     * @param task the task to insert
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public synchronized void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(entries, index, entries, index + 1, size - index);
+        entries[index] = residentEntry(task);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Inserts tasks at the given index with one shift of the offsets, holding them in memory.
+     * 
+     * @param index the 0-based index to insert the first task at
+     * @param tasks the tasks to insert, in order
+     * @return true if any task was inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public synchronized boolean addAll(int index, Collection<? extends Task> tasks) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int addedCount = tasks.size();
+        if (addedCount == 0) {
+            return false;
+        }
+        ensureCapacity(size + addedCount);
+        System.arraycopy(entries, index, entries, index + addedCount, size - index);
+        int slot = index;
+        for (Task task : tasks) {
+            entries[slot++] = residentEntry(task);
+        }
+        size += addedCount;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes the task at the given index.
+     * 
+     * @param index the 0-based index of the task to remove
+     * @return the removed task
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public synchronized Task remove(int index) {
+        Task removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    /**
+     * Removes the tasks in a range with one shift of the offsets.
+     * 
+     * @param fromIndex the index of the first task to remove
+     * @param toIndex the index after the last task to remove
+     */
+    @Override
+    protected synchronized void removeRange(int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            if (entries[i] < 0) {
+                releaseResident(entries[i]);
+            }
+        }
+        System.arraycopy(entries, toIndex, entries, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        modCount++;
+    }
+
+    /**
+     * Removes the tasks at several positions in one compacting pass over the offsets,
+     * decoding only the removed tasks.
+     * 
+     * @param indices the 0-based positions of the tasks to remove, which must all exist
+     * @return the removed tasks, in their original order
+     */
+    public synchronized List<Task> removeAt(IndexRanges indices) {
+        int[] removedIndices = indices.toArray();
+        List<Task> removed = new ArrayList<>(removedIndices.length);
+        for (int index : removedIndices) {
+            removed.add(get(index));
+            if (entries[index] < 0) {
+                releaseResident(entries[index]);
+            }
+        }
+        size = indices.compact(size, (from, to) -> entries[to] = entries[from]);
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Returns an independent copy of the list over the same mapped file, copying only the offsets
+     * and the tasks held in memory. The copy starts with an empty cache.
+     * 
+     * @return the copy
+     */
+    public synchronized LazyTaskList copy() {
+        LazyTaskList copy = new LazyTaskList(windows, windowStarts, cacheCapacity);
+        copy.residentTasks.addAll(residentTasks);
+        copy.freeSlots = Arrays.copyOf(freeSlots, freeSlotCount);
+        copy.freeSlotCount = freeSlotCount;
+        copy.entries = Arrays.copyOf(entries, Math.max(size, INITIAL_CAPACITY));
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Returns the file offset of the done flag of each line indexed when the list was opened, and lets go of them,
+     * so that only the caller holds them from then on.
+     * 
+     * @return the done flag offsets in list order as opened, with -1 where the flag is not a single digit
+     */
+    public synchronized long[] takeDoneFlagOffsets() {
+        long[] offsets = doneFlagOffsets;
+        doneFlagOffsets = new long[0];
+        return offsets;
+    }
+
+    /**
+     * Returns how many decoded tasks are currently cached.
+     * 
+     * @return the number of cached tasks
+     */
+    public synchronized int getCachedCount() {
+        return cache.size();
+    }
+
+    /**
+     * Scans the mapped windows once, recording the offset and done flag offset of every line that parses into a task.
+     * Lines are checked by parsing them, as {@link ChunkParseTask} does, so that {@link #decode(long)}
+     * never meets a line it cannot parse.
+     * 
+     * @param fileSize the size of the file
+     * @param report the report to record corrupted lines in
+     */
+    private void indexLines(long fileSize, LoadReport report) {
+        long lineNumber = 0;
+        for (int w = 0; w < windows.length; w++) {
+            ByteBuffer window = windows[w];
+            long windowEnd = w + 1 < windows.length ? windowStarts[w + 1] : fileSize;
+            int end = (int) (windowEnd - windowStarts[w]);
+            int lineStart = 0;
+            for (int i = 0; i <= end; i++) {
+                if (i == end && lineStart == end) {
+                    break;
+                }
+                if (i == end || window.get(i) == '\n') {
+                    lineNumber++;
+                    indexLine(window, windowStarts[w], lineStart, i, lineNumber, report);
+                    lineStart = i + 1;
+                }
+            }
+        }
+        doneFlagOffsets = Arrays.copyOf(doneFlagOffsets, size);
+    }
+
+    /**
+     * Parses one line, recording its offset and done flag offset if it holds a task,
+     * or recording it as skipped if it is corrupted.
+     * 
+     * @param window the window holding the line
+     * @param windowStart the file offset of the window
+     * @param lineStart the position of the first byte of the line
+     * @param lineEnd the position of the line separator, or the end of the window
+     * @param lineNumber the 1-based number of the line in the file
+     * @param report the report to record corrupted lines in
+     */
+    private void indexLine(ByteBuffer window, long windowStart, int lineStart, int lineEnd, long lineNumber,
+            LoadReport report) {
+        try {
+            if (parser.parse(window, lineStart, lineEnd) != null) {
+                ensureCapacity(size + 1);
+                if (size == doneFlagOffsets.length) {
+                    doneFlagOffsets = Arrays.copyOf(doneFlagOffsets, entries.length);
+                }
+                int flag = parser.findDoneFlag(window, lineStart, lineEnd);
+                doneFlagOffsets[size] = flag < 0 ? -1 : windowStart + flag;
+                entries[size++] = windowStart + lineStart;
+            }
+        } catch (Exception e) {
+            // Skip corrupted lines, continue indexing other tasks
+            report.recordSkippedLine(lineNumber, parser.decode(window, lineStart, lineEnd).trim());
+        }
+    }
+
+    /**
+     * Decodes the task on the line starting at a file offset.
+     * Only lines that parsed when the list was opened are indexed, and the mapping is read-only,
+     * so decoding an indexed line always succeeds.
+     * 
+     * @param offset the file offset of the line
+     * @return the decoded task
+     */
+    private Task decode(long offset) {
+        int w = Arrays.binarySearch(windowStarts, offset);
+        if (w < 0) {
+            w = -w - 2;
+        }
+        ByteBuffer window = windows[w];
+        int start = (int) (offset - windowStarts[w]);
+        int end = start;
+        while (end < window.limit() && window.get(end) != '\n') {
+            end++;
+        }
+        return parser.parse(window, start, end);
+    }
+
+    /**
+     * Holds a task in memory and returns the entry pointing at it.
+     * 
+     * @param task the task to hold
+     * @return the entry for the task
+     */
+    private long residentEntry(Task task) {
+        if (freeSlotCount > 0) {
+            int slot = freeSlots[--freeSlotCount];
+            residentTasks.set(slot, task);
+            return -(slot + 1);
+        }
+        residentTasks.add(task);
+        return -residentTasks.size();
+    }
+
+    /**
+     * Frees the in-memory slot an entry points at, so that the task can be collected and the slot reused.
+     * 
+     * @param entry a negative entry
+     */
+    private void releaseResident(long entry) {
+        int slot = residentIndex(entry);
+        residentTasks.set(slot, null);
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(freeSlots.length * 2, 16));
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    /**
+     * Returns the position in the in-memory tasks that an entry points at.
+     * 
+     * @param entry a negative entry
+     * @return the position in the in-memory tasks
+     */
+    private static int residentIndex(long entry) {
+        return (int) (-entry - 1);
+    }
+
+    /**
+     * Grows the entries array to hold at least the given number of entries.
+     * 
+     * @param capacity the number of entries to make room for
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > entries.length) {
+            entries = Arrays.copyOf(entries, Math.max(entries.length * 2, capacity));
+        }
+    }
+
+    /**
+     * Checks that an index refers to a task in the list.
+     * 
+     * @param index the index to check
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Returns the position just past the last line separator in a buffer.
+     * 
+     * @param buffer the buffer to search
+     * @return the end of the last complete line, or 0 if the buffer holds no line separator
+     */
+    private static int endOfLastLine(ByteBuffer buffer) {
+        for (int i = buffer.limit() - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+}
@@ -1,9 +1,36 @@
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * Command to display all tasks in the task list.
+ * Command to display the tasks in the task list, optionally filtered, sorted and split into pages.
+ * The output is never written while the list's read lock is held, since writing to a slow client
+ * would hold up every change to the list.
  */
 public class ListCommand extends Command {
+    // Pages up to this size are collected under the read lock and shown once it is released;
+    // longer listings are streamed from a snapshot instead, so they are never held in memory all at once
+    private static final int MAX_PAGE_WITHOUT_SNAPSHOT = 100;
+
+    private final TaskQuery query;
+
     /**
-     * Executes the list command by displaying all tasks in the task list.
+     * Constructs a ListCommand that shows every task in list order.
+     */
+    public ListCommand() {
+        this(TaskQuery.ALL);
+    }
+
+    /**
+     * Constructs a ListCommand that shows the tasks matching a query.
+     * 
+     * @param query the filters, order and page to show
+     */
+    public ListCommand(TaskQuery query) {
+        this.query = query;
+    }
+
+    /**
+     * Executes the list command by displaying the matching tasks.
      * 
      * @param tasks the task list to display
      * @param ui the user interface for displaying the task list
@@ -12,6 +39,17 @@ public class ListCommand extends Command {
      */
     @Override
     public void execute(TaskList tasks, UI ui, Storage storage) throws MontyException {
-        ui.showTaskList(tasks);
+        if (!query.hasLimit() || query.getLimit() > MAX_PAGE_WITHOUT_SNAPSHOT) {
+            ui.showTaskList(tasks.snapshot(), query);
+            return;
+        }
+
+        List<Task> page = new ArrayList<>();
+        List<Integer> numbers = new ArrayList<>();
+        boolean hasMore = tasks.forEachMatch(query, (task, number) -> {
+            page.add(task);
+            numbers.add(number);
+        });
+        ui.showTaskPage(page, numbers, hasMore, query);
     }
 }
@@ -0,0 +1,237 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives many simulated clients against a {@link MontyServer} to measure sustained throughput and tail latency.
+ * Each client connects, waits for every other client to connect, then sends a fixed number of commands one at a time,
+ * timing each from sending the command to reading the end of its response. The mix is mostly adds and finds,
+ * with some marks, unmarks and deletes; deletes offset most of the adds, so the shared list grows only slowly.
+ * With {@code --own-lists}, each client first switches to a named list of its own, as per-user sessions would.
+ * <p>
+ * Usage: {@code java LoadGenerator <port|socket path> [--clients <n>] [--commands <n>] [--own-lists]}
+ */
+public class LoadGenerator {
+    private static final String ARG_CLIENTS = "--clients";
+    private static final String ARG_COMMANDS = "--commands";
+    private static final String ARG_OWN_LISTS = "--own-lists";
+    private static final String END_OF_RESPONSE = ".";
+    private static final int DEFAULT_CLIENTS = 1000;
+    private static final int DEFAULT_COMMANDS = 100;
+    private static final long CLIENT_STACK_BYTES = 256 * 1024;
+
+    private final SocketAddress address;
+    private final int clientCount;
+    private final int commandsPerClient;
+    private final boolean hasOwnLists;
+    private final AtomicInteger failedClients;
+
+    /**
+     * Constructs a LoadGenerator.
+     * 
+     * @param address the address the server listens on
+     * @param clientCount how many clients to simulate at once
+     * @param commandsPerClient how many commands each client sends
+     * @param hasOwnLists true for each client to work on a named list of its own, false to share the default list
+     */
+    public LoadGenerator(SocketAddress address, int clientCount, int commandsPerClient, boolean hasOwnLists) {
+        this.address = address;
+        this.clientCount = clientCount;
+        this.commandsPerClient = commandsPerClient;
+        this.hasOwnLists = hasOwnLists;
+        this.failedClients = new AtomicInteger();
+    }
+
+    /**
+     * Runs the load generator and prints a throughput and latency summary.
+     * 
+     * @param args the server address, optionally followed by {@code --clients <n>}, {@code --commands <n>}
+     *             and {@code --own-lists}
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: java LoadGenerator <port|socket path> [--clients <n>] [--commands <n>]"
+                    + " [--own-lists]");
+            System.exit(1);
+        }
+        try {
+            List<String> options = Arrays.asList(args);
+            int clients = getIntOption(options, ARG_CLIENTS, DEFAULT_CLIENTS);
+            int commands = getIntOption(options, ARG_COMMANDS, DEFAULT_COMMANDS);
+            LoadGenerator generator = new LoadGenerator(MontyServer.parseAddress(args[0]), clients, commands,
+                    options.contains(ARG_OWN_LISTS));
+            System.out.println(generator.run());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Please provide a port number or socket path, and whole numbers for "
+                    + ARG_CLIENTS + " and " + ARG_COMMANDS);
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Connects every client, lets them all send their commands, and waits for them to finish.
+     * 
+     * @return the summary of the run
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    public String run() throws InterruptedException {
+        CountDownLatch connected = new CountDownLatch(clientCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<LatencySamples> samples = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clientCount; i++) {
+            LatencySamples clientSamples = new LatencySamples();
+            int clientId = i;
+            Thread thread = new Thread(null, () -> runClient(clientId, clientSamples, connected, start),
+                    "load-client-" + i, CLIENT_STACK_BYTES);
+            samples.add(clientSamples);
+            threads.add(thread);
+            thread.start();
+        }
+
+        connected.await();
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        LatencySamples all = new LatencySamples();
+        for (LatencySamples clientSamples : samples) {
+            all.addAll(clientSamples);
+        }
+        double seconds = elapsed / 1e9;
+        double commandsPerSecond = seconds > 0 ? all.getCount() / seconds : 0;
+        return String.format("%d clients (%d failed) ran %d commands in %.3f s: %.0f commands/s%nLatency %s",
+                clientCount, failedClients.get(), all.getCount(), seconds, commandsPerSecond,
+                all.formatPercentiles());
+    }
+
+    /**
+     * Runs one simulated client: connects, switches to its own list if asked to, waits for the start signal,
+     * sends its commands and says bye.
+     * A client whose connection fails is counted and stops, keeping the latencies it has recorded.
+     * 
+     * @param clientId a number unique to this client, used to seed its commands
+     * @param samples where to record the latency of each command
+     * @param connected counted down once this client has connected, or has failed to
+     * @param start released once every client has connected
+     */
+    private void runClient(int clientId, LatencySamples samples, CountDownLatch connected, CountDownLatch start) {
+        boolean isConnected = false;
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            if (address instanceof InetSocketAddress) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(Channels.newInputStream(channel), Charset.defaultCharset()));
+            Writer writer = new OutputStreamWriter(Channels.newOutputStream(channel), Charset.defaultCharset());
+            readResponse(reader); // the welcome message
+            if (hasOwnLists) {
+                writer.write("use load-client-" + clientId + System.lineSeparator());
+                writer.flush();
+                readResponse(reader);
+            }
+            isConnected = true;
+            connected.countDown();
+            start.await();
+
+            Random random = new Random(clientId);
+            for (int i = 0; i < commandsPerClient; i++) {
+                long commandStart = System.nanoTime();
+                writer.write(nextCommand(random, clientId, i) + System.lineSeparator());
+                writer.flush();
+                readResponse(reader);
+                samples.record(System.nanoTime() - commandStart);
+            }
+            writer.write("bye" + System.lineSeparator());
+            writer.flush();
+            readResponse(reader);
+        } catch (IOException e) {
+            if (failedClients.getAndIncrement() == 0) {
+                System.err.println("Error in client " + clientId + ": " + e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!isConnected) {
+                connected.countDown();
+            }
+        }
+    }
+
+    /**
+     * Picks the next command for a client: 30% adds, 30% finds, 10% marks, 10% unmarks and 20% deletes.
+     * Marks, unmarks and deletes target the first few tasks, which may fail if the list is nearly empty;
+     * a failure is still a full round trip, so it is timed like any other command.
+     * 
+     * @param random the client's random source
+     * @param clientId the client's number
+     * @param commandNumber the number of the command within the client's run
+     * @return the command line
+     */
+    private static String nextCommand(Random random, int clientId, int commandNumber) {
+        int roll = random.nextInt(10);
+        if (roll < 3) {
+            return "todo load test " + clientId + "-" + commandNumber;
+        } else if (roll < 6) {
+            return "find " + clientId + "-" + random.nextInt(commandNumber + 1);
+        } else if (roll == 6) {
+            return "mark " + (1 + random.nextInt(10));
+        } else if (roll == 7) {
+            return "unmark " + (1 + random.nextInt(10));
+        } else {
+            return "delete " + (1 + random.nextInt(10));
+        }
+    }
+
+    /**
+     * Reads one response, up to and including its end-of-response line.
+     * 
+     * @param reader the connection to read from
+     * @throws IOException if the connection fails or is closed mid-response
+     */
+    private static void readResponse(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.equals(END_OF_RESPONSE)) {
+                return;
+            }
+        }
+        throw new IOException("Connection closed by server");
+    }
+
+    /**
+     * Returns the whole-number value following an option on the command line.
+     * 
+     * @param options the command line arguments
+     * @param option the option to look for
+     * @param defaultValue the value to use if the option is absent
+     * @return the value after the option, or the default
+     * @throws NumberFormatException if the value is not a whole number
+     */
+    private static int getIntOption(List<String> options, String option, int defaultValue) {
+        int index = options.indexOf(option);
+        if (index == -1 || index + 1 >= options.size()) {
+            return defaultValue;
+        }
+        return Integer.parseInt(options.get(index + 1));
+    }
+}
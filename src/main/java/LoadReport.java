@@ -0,0 +1,124 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summarises what was recovered and what was skipped while loading tasks from storage.
+ * Replaces one warning per corrupted line with a single counted report, keeping a few samples
+ * of the skipped data so that the damage can still be located.
+ */
+public class LoadReport {
+    private static final int MAX_SAMPLES = 5;
+
+    private final String source;
+    private final List<String> samples;
+    private long skippedCount;
+    private int loadedCount;
+
+    /**
+     * Constructs an empty LoadReport.
+     * 
+     * @param source the file the tasks were loaded from
+     */
+    public LoadReport(String source) {
+        this.source = source;
+        this.samples = new ArrayList<>();
+    }
+
+    /**
+     * Records a corrupted line of the text data file.
+     * 
+     * @param lineNumber the 1-based number of the line
+     * @param line the content of the line
+     */
+    public void recordSkippedLine(long lineNumber, String line) {
+        recordSkipped(1, "line " + lineNumber + ": " + line);
+    }
+
+    /**
+     * Records a corrupted journal record.
+     * 
+     * @param recordNumber the 1-based number of the record within its journal
+     * @param record the content of the record
+     */
+    public void recordSkippedJournalRecord(long recordNumber, String record) {
+        recordSkipped(1, "journal record " + recordNumber + ": " + record);
+    }
+
+    /**
+     * Records a run of records that could not be read, e.g. after a truncated binary record.
+     * 
+     * @param count the number of records lost
+     * @param reason where and why the records were lost
+     */
+    public void recordSkippedRecords(long count, String reason) {
+        recordSkipped(count, reason);
+    }
+
+    /**
+     * Sets the number of tasks that were loaded successfully.
+     * 
+     * @param loadedCount the number of tasks loaded
+     */
+    public void setLoadedCount(int loadedCount) {
+        this.loadedCount = loadedCount;
+    }
+
+    /**
+     * Returns the number of tasks that were loaded successfully.
+     * 
+     * @return the number of tasks loaded
+     */
+    public int getLoadedCount() {
+        return loadedCount;
+    }
+
+    /**
+     * Returns the number of lines or records that were skipped.
+     * 
+     * @return the number of skipped entries
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Checks if anything was skipped during the load.
+     * 
+     * @return true if at least one line or record was skipped, false otherwise
+     */
+    public boolean hasSkipped() {
+        return skippedCount > 0;
+    }
+
+    /**
+     * Returns the report as a warning message with up to five samples of the skipped data.
+     * 
+     * @return the formatted report
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Warning: Recovered ").append(loadedCount).append(" tasks from ").append(source)
+                .append(", skipped ").append(skippedCount).append(" corrupted entries");
+        for (String sample : samples) {
+            sb.append(System.lineSeparator()).append("  ").append(sample);
+        }
+        if (skippedCount > samples.size()) {
+            sb.append(System.lineSeparator()).append("  ...");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Counts skipped entries and keeps a sample of them while there is room.
+     * 
+     * @param count the number of entries skipped
+     * @param sample a description of the skipped entries
+     */
+    private void recordSkipped(long count, String sample) {
+        skippedCount += count;
+        if (samples.size() < MAX_SAMPLES) {
+            samples.add(sample);
+        }
+    }
+}
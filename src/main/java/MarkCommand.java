@@ -1,8 +1,10 @@
+import java.util.List;
+
 /**
- * Command to mark a task as completed.
+ * Command to mark one or more tasks as completed.
  */
 public class MarkCommand extends Command {
-    private final int taskIndex;
+    private final IndexRanges taskIndices;
 
     /**
      * Constructs a MarkCommand with the index of the task to mark as done.
@@ -10,7 +12,16 @@ public class MarkCommand extends Command {
      * @param taskIndex the 1-based index of the task to mark as done
      */
     public MarkCommand(int taskIndex) {
-        this.taskIndex = taskIndex;
+        this(IndexRanges.of(taskIndex));
+    }
+
+    /**
+     * Constructs a MarkCommand with the indices of several tasks to mark as done.
+     * 
+     * @param taskIndices the 1-based indices of the tasks to mark as done
+     */
+    public MarkCommand(IndexRanges taskIndices) {
+        this.taskIndices = taskIndices;
     }
 
     /**
@@ -23,7 +34,12 @@ public class MarkCommand extends Command {
      */
     @Override
     public void execute(TaskList tasks, UI ui, Storage storage) throws MontyException {
-        Task task = tasks.markTaskDone(taskIndex);
-        ui.showTaskMarkedDone(task);
+        if (taskIndices.isSingle()) {
+            Task task = tasks.markTaskDone(taskIndices.getMin());
+            ui.showTaskMarkedDone(task);
+            return;
+        }
+        List<Task> marked = tasks.markTasksDone(taskIndices);
+        ui.showTasksMarkedDone(marked);
     }
 }
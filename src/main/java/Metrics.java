@@ -0,0 +1,369 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and histograms for the hot paths: parsing and executing each type of command,
+ * saving or patching the data file, appending to the journal and scanning candidates in a find.
+ * Recording only touches striped {@link LongAdder}s and a lock-free map lookup, so it is cheap enough to leave on.
+ * The figures can be shown with the {@code stats} command or exported in the Prometheus text format.
+ */
+public class Metrics {
+    /** The metrics recorded by the whole application. */
+    public static final Metrics SHARED = new Metrics();
+
+    private static final String INVALID_COMMAND = "invalid";
+    private static final String COMMAND_SUFFIX = "Command";
+    private static final String METRIC_PREFIX = "monty_";
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Map<Class<?>, CommandMetrics> commandMetrics;
+    private final CommandMetrics invalidCommands;
+    private final Histogram saveNanos;
+    private final Histogram saveBytes;
+    private final LongAdder journalAppends;
+    private final LongAdder journalBytes;
+    private final Histogram findCandidates;
+    private final Histogram findMatches;
+    private final Histogram patchNanos;
+    private final LongAdder patchedFlags;
+
+    /**
+     * Constructs a Metrics instance with nothing recorded.
+     */
+    public Metrics() {
+        this.commandMetrics = new ConcurrentHashMap<>();
+        this.invalidCommands = new CommandMetrics(INVALID_COMMAND);
+        this.saveNanos = new Histogram();
+        this.saveBytes = new Histogram();
+        this.journalAppends = new LongAdder();
+        this.journalBytes = new LongAdder();
+        this.findCandidates = new Histogram();
+        this.findMatches = new Histogram();
+        this.patchNanos = new Histogram();
+        this.patchedFlags = new LongAdder();
+    }
+
+    /**
+     * Records how long it took to parse a command.
+     * 
+     * @param command the parsed command, or null if the input was not a valid command
+     * @param nanos the time taken in nanoseconds
+     */
+    public void recordParse(Command command, long nanos) {
+        CommandMetrics metrics = command == null ? invalidCommands : metricsFor(command);
+        metrics.parseNanos.record(nanos);
+        if (command == null) {
+            metrics.failures.increment();
+        }
+    }
+
+    /**
+     * Records how long it took to execute a command.
+     * 
+     * @param command the executed command
+     * @param nanos the time taken in nanoseconds
+     * @param isFailed true if the command failed with an error
+     */
+    public void recordExecute(Command command, long nanos, boolean isFailed) {
+        CommandMetrics metrics = metricsFor(command);
+        metrics.executeNanos.record(nanos);
+        if (isFailed) {
+            metrics.failures.increment();
+        }
+    }
+
+    /**
+     * Records a full write of the task file.
+     * 
+     * @param bytes the size of the written file
+     * @param nanos the time taken in nanoseconds, including forcing the file to disk
+     */
+    public void recordSave(long bytes, long nanos) {
+        saveBytes.record(bytes);
+        saveNanos.record(nanos);
+    }
+
+    /**
+     * Records a record appended to the journal.
+     * 
+     * @param bytes the size of the record
+     */
+    public void recordJournalAppend(long bytes) {
+        journalAppends.increment();
+        journalBytes.add(bytes);
+    }
+
+    /**
+     * Records done flags patched in place in the data file instead of a full save.
+     * 
+     * @param flags the number of flags patched
+     * @param nanos the time taken in nanoseconds, including forcing the file to disk
+     */
+    public void recordPatch(int flags, long nanos) {
+        patchedFlags.add(flags);
+        patchNanos.record(nanos);
+    }
+
+    /**
+     * Records how many candidates a find had to check and how many of them matched.
+     * 
+     * @param candidates the number of tasks the search index could not rule out
+     * @param matches the number of tasks that matched
+     */
+    public void recordFind(int candidates, int matches) {
+        findCandidates.record(candidates);
+        findMatches.record(matches);
+    }
+
+    /**
+     * Returns a human-readable summary of everything recorded, one line per command type and subsystem.
+     * Percentiles are read from power-of-two buckets, so they are upper estimates within a factor of two.
+     * 
+     * @return the summary lines
+     */
+    public List<String> formatSummary() {
+        List<String> lines = new ArrayList<>();
+        for (CommandMetrics metrics : sortedCommandMetrics()) {
+            long parsed = metrics.parseNanos.getCount();
+            long executed = metrics.executeNanos.getCount();
+            if (parsed == 0 && executed == 0) {
+                continue;
+            }
+            StringBuilder line = new StringBuilder(metrics.name).append(": ");
+            line.append(Math.max(parsed, executed));
+            line.append(" (").append(metrics.failures.sum()).append(" failed)");
+            line.append(", parse ").append(formatLatency(metrics.parseNanos));
+            if (executed > 0) {
+                line.append(", execute ").append(formatLatency(metrics.executeNanos));
+            }
+            lines.add(line.toString());
+        }
+
+        lines.add(String.format(Locale.ROOT, "saves: %d, %.1f KB written, %s",
+                saveNanos.getCount(), saveBytes.getSum() / 1024.0, formatLatency(saveNanos)));
+        lines.add(String.format(Locale.ROOT, "patches: %d, %d done flags, %s",
+                patchNanos.getCount(), patchedFlags.sum(), formatLatency(patchNanos)));
+        lines.add(String.format(Locale.ROOT, "journal: %d records, %.1f KB appended",
+                journalAppends.sum(), journalBytes.sum() / 1024.0));
+        lines.add(String.format(Locale.ROOT, "finds: %d, candidates scanned p50 %d, p99 %d, max %d, matches p50 %d",
+                findCandidates.getCount(), findCandidates.getPercentile(0.50), findCandidates.getPercentile(0.99),
+                findCandidates.getMax(), findMatches.getPercentile(0.50)));
+        lines.add(StringPool.SHARED.toString());
+        return lines;
+    }
+
+    /**
+     * Renders everything recorded in the Prometheus text exposition format.
+     * Latencies are exported in seconds and sizes in bytes, following the Prometheus naming conventions.
+     * 
+     * @return the exposition text
+     */
+    public String toPrometheusText() {
+        List<CommandMetrics> commands = sortedCommandMetrics();
+        StringBuilder sb = new StringBuilder();
+
+        String parseName = METRIC_PREFIX + "command_parse_seconds";
+        appendHeader(sb, parseName, "histogram", "Time spent parsing commands, by command type.");
+        for (CommandMetrics metrics : commands) {
+            metrics.parseNanos.appendPrometheus(sb, parseName, commandLabel(metrics), NANOS_PER_SECOND);
+        }
+
+        String executeName = METRIC_PREFIX + "command_execute_seconds";
+        appendHeader(sb, executeName, "histogram", "Time spent executing commands, by command type.");
+        for (CommandMetrics metrics : commands) {
+            if (metrics.executeNanos.getCount() > 0) {
+                metrics.executeNanos.appendPrometheus(sb, executeName, commandLabel(metrics), NANOS_PER_SECOND);
+            }
+        }
+
+        String failuresName = METRIC_PREFIX + "command_failures_total";
+        appendHeader(sb, failuresName, "counter", "Commands that failed to parse or execute, by command type.");
+        for (CommandMetrics metrics : commands) {
+            sb.append(failuresName).append('{').append(commandLabel(metrics)).append("} ")
+                    .append(metrics.failures.sum()).append('\n');
+        }
+
+        String saveSecondsName = METRIC_PREFIX + "save_seconds";
+        appendHeader(sb, saveSecondsName, "histogram", "Time spent writing the task file.");
+        saveNanos.appendPrometheus(sb, saveSecondsName, "", NANOS_PER_SECOND);
+        String saveBytesName = METRIC_PREFIX + "save_bytes";
+        appendHeader(sb, saveBytesName, "histogram", "Size of each written task file.");
+        saveBytes.appendPrometheus(sb, saveBytesName, "", 1);
+
+        String patchSecondsName = METRIC_PREFIX + "patch_seconds";
+        appendHeader(sb, patchSecondsName, "histogram", "Time spent patching done flags in place.");
+        patchNanos.appendPrometheus(sb, patchSecondsName, "", NANOS_PER_SECOND);
+        appendCounter(sb, METRIC_PREFIX + "patched_flags_total", "Done flags patched in place instead of a full save.",
+                patchedFlags.sum());
+
+        appendCounter(sb, METRIC_PREFIX + "journal_records_total", "Records appended to the journal.",
+                journalAppends.sum());
+        appendCounter(sb, METRIC_PREFIX + "journal_bytes_total", "Bytes appended to the journal.",
+                journalBytes.sum());
+
+        String candidatesName = METRIC_PREFIX + "find_candidates";
+        appendHeader(sb, candidatesName, "histogram", "Tasks checked by each find after index narrowing.");
+        findCandidates.appendPrometheus(sb, candidatesName, "", 1);
+        String matchesName = METRIC_PREFIX + "find_matches";
+        appendHeader(sb, matchesName, "histogram", "Tasks matched by each find.");
+        findMatches.appendPrometheus(sb, matchesName, "", 1);
+
+        StringPool pool = StringPool.SHARED;
+        appendCounter(sb, METRIC_PREFIX + "string_pool_lookups_total", "String pool lookups.",
+                pool.getLookupCount());
+        appendCounter(sb, METRIC_PREFIX + "string_pool_hits_total", "String pool lookups that found a pooled string.",
+                pool.getHitCount());
+        appendCounter(sb, METRIC_PREFIX + "string_pool_saved_bytes_total",
+                "Estimated heap saved by sharing pooled strings.", pool.getSavedBytes());
+        return sb.toString();
+    }
+
+    /**
+     * Writes the Prometheus text to a file, replacing it atomically so that a scraper never reads half a file.
+     * The directory of the file is created if it does not exist yet.
+     * 
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void exportPrometheus(Path path) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temp = absolute.resolveSibling(absolute.getFileName() + TEMP_SUFFIX);
+        Files.write(temp, toPrometheusText().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the metrics for the type of a command, creating them the first time the type is seen.
+     * 
+     * @param command the command
+     * @return the metrics for its type
+     */
+    private CommandMetrics metricsFor(Command command) {
+        Class<?> type = command.getClass();
+        CommandMetrics metrics = commandMetrics.get(type);
+        if (metrics == null) {
+            metrics = commandMetrics.computeIfAbsent(type, key -> new CommandMetrics(commandName(key)));
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns every command type's metrics, including invalid commands, ordered by name.
+     * 
+     * @return the command metrics
+     */
+    private List<CommandMetrics> sortedCommandMetrics() {
+        List<CommandMetrics> sorted = new ArrayList<>(commandMetrics.values());
+        sorted.add(invalidCommands);
+        sorted.sort(Comparator.comparing(metrics -> metrics.name));
+        return sorted;
+    }
+
+    /**
+     * Derives a short command name from a command class, e.g. "mark" for MarkCommand.
+     * 
+     * @param type the command class
+     * @return the command name
+     */
+    private static String commandName(Class<?> type) {
+        String name = type.getSimpleName();
+        if (name.endsWith(COMMAND_SUFFIX) && name.length() > COMMAND_SUFFIX.length()) {
+            name = name.substring(0, name.length() - COMMAND_SUFFIX.length());
+        }
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the label pair identifying a command type.
+     * 
+     * @param metrics the command metrics
+     * @return the label pair
+     */
+    private static String commandLabel(CommandMetrics metrics) {
+        return "command=\"" + metrics.name + "\"";
+    }
+
+    /**
+     * Formats the median, 99th percentile and maximum of a latency histogram.
+     * 
+     * @param nanos the histogram of latencies in nanoseconds
+     * @return the formatted latencies
+     */
+    private static String formatLatency(Histogram nanos) {
+        return String.format(Locale.ROOT, "p50 %s, p99 %s, max %s", formatNanos(nanos.getPercentile(0.50)),
+                formatNanos(nanos.getPercentile(0.99)), formatNanos(nanos.getMax()));
+    }
+
+    /**
+     * Formats a duration in the largest unit that keeps it readable.
+     * 
+     * @param nanos the duration in nanoseconds
+     * @return the formatted duration
+     */
+    private static String formatNanos(long nanos) {
+        if (nanos >= 1_000_000) {
+            return String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0);
+        }
+        return String.format(Locale.ROOT, "%.1f us", nanos / 1_000.0);
+    }
+
+    /**
+     * Appends the # HELP and # TYPE lines of a metric.
+     * 
+     * @param sb the builder to append to
+     * @param name the metric name
+     * @param type the metric type, e.g. "counter" or "histogram"
+     * @param help the description of the metric
+     */
+    private static void appendHeader(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Appends an unlabelled counter with its # HELP and # TYPE lines.
+     * 
+     * @param sb the builder to append to
+     * @param name the metric name
+     * @param help the description of the metric
+     * @param value the counter value
+     */
+    private static void appendCounter(StringBuilder sb, String name, String help, long value) {
+        appendHeader(sb, name, "counter", help);
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * The latencies and failure count of one type of command.
+     */
+    private static class CommandMetrics {
+        private final String name;
+        private final Histogram parseNanos;
+        private final Histogram executeNanos;
+        private final LongAdder failures;
+
+        /**
+         * Constructs empty metrics for a command type.
+         * 
+         * @param name the command name used in summaries and labels
+         */
+        CommandMetrics(String name) {
+            this.name = name;
+            this.parseNanos = new Histogram();
+            this.executeNanos = new Histogram();
+            this.failures = new LongAdder();
+        }
+    }
+}
@@ -1,11 +1,34 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Monty is a personal task management chatbot that helps users manage their tasks.
  * It supports adding, listing, marking, deleting, and finding tasks.
  * Tasks can be of three types: ToDo, Deadline, or Event.
  */
 public class Monty {
-    private Storage storage;
-    private TaskList tasks;
+    private static final String DATA_FILE_PATH = "data/tasks.txt";
+    private static final String ARG_JOURNAL = "--journal";
+    private static final String ARG_BINARY = "--binary";
+    private static final String ARG_COLUMNAR = "--columnar";
+    private static final String ARG_LAZY = "--lazy";
+    private static final String ARG_BATCH = "--batch";
+    private static final String ARG_SAVE_EVERY = "--save-every";
+    private static final String ARG_SERVE = "--serve";
+    private static final String ARG_MEMORY_BUDGET = "--memory-budget";
+    private static final String STDIN_SOURCE = "-";
+    private static final long COMPACTION_THRESHOLD = 1024 * 1024;
+    private static final long WRITE_BEHIND_DELAY_MILLIS = 200;
+    private static final long DEFAULT_MEMORY_BUDGET_MB = 256;
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    private TaskListRegistry registry;
+    private Workspace workspace;
     private UI ui;
 
     /**
@@ -14,14 +37,48 @@ public class Monty {
      * @param filePath the path to the file where tasks are stored
      */
     public Monty(String filePath) {
+        this(new Storage(filePath));
+    }
+
+    /**
+     * Constructs a new Monty chatbot instance backed by the given storage.
+     * 
+     * @param storage the storage component used to load and persist tasks
+     */
+    public Monty(Storage storage) {
+        this(storage, TaskLayout.OBJECTS);
+    }
+
+    /**
+     * Constructs a new Monty chatbot instance backed by the given storage and a choice of in-memory layout.
+     * 
+     * @param storage the storage component used to load and persist tasks
+     * @param layout how to hold the tasks in memory
+     */
+    public Monty(Storage storage, TaskLayout layout) {
+        this(storage, layout, DEFAULT_MEMORY_BUDGET_MB * BYTES_PER_MB);
+    }
+
+    /**
+     * Constructs a new Monty chatbot instance that can also work on named lists kept next to the given storage,
+     * keeping idle named lists in memory up to the given budget.
+     * 
+     * @param storage the storage component used to load and persist the default list
+     * @param layout how to hold the tasks in memory
+     * @param memoryBudgetBytes the estimated memory resident named lists may hold before idle ones are dropped
+     */
+    public Monty(Storage storage, TaskLayout layout, long memoryBudgetBytes) {
         ui = new UI();
-        storage = new Storage(filePath);
+        TaskList tasks;
         try {
-            tasks = new TaskList(storage.load());
+            tasks = layout.load(storage);
         } catch (MontyException e) {
             ui.showLoadingError();
-            tasks = new TaskList();
+            tasks = layout.createEmpty(storage);
         }
+        tasks.enableWriteBehind(WRITE_BEHIND_DELAY_MILLIS);
+        registry = new TaskListRegistry(tasks, layout, memoryBudgetBytes, WRITE_BEHIND_DELAY_MILLIS);
+        workspace = new Workspace(registry);
     }
 
     /**
@@ -32,26 +89,170 @@ public class Monty {
         ui.showWelcome();
         boolean isExit = false;
         while (!isExit) {
-            try {
-                String fullCommand = ui.readCommand();
-                ui.showLine(); // show the divider line ("_______")
-                Command c = Parser.parse(fullCommand);
-                c.execute(tasks, ui, storage);
-                isExit = c.isExit();
-            } catch (MontyException e) {
-                ui.showError(e.getMessage());
-            } finally {
-                ui.showLine();
+            isExit = runCommand(ui.readCommand(), workspace, ui);
+        }
+        ui.flush();
+        workspace.close();
+        registry.close();
+    }
+
+    /**
+     * Parses and runs one command, showing its response, or the error it failed with, between divider lines.
+     * A command that names another list switches the workspace to it first.
+     * 
+     * @param fullCommand the command as entered by the user
+     * @param workspace the session's workspace, whose current list the command runs against
+     * @param ui the user interface to show the response on
+     * @return true if the command asks to end the session, false otherwise
+     */
+    public static boolean runCommand(String fullCommand, Workspace workspace, UI ui) {
+        ui.showLine(); // show the divider line ("_______")
+        try {
+            Command c = Parser.parse(fullCommand);
+            if (c.getListToUse() != null) {
+                workspace.use(c.getListToUse());
             }
+            c.run(workspace.getTasks(), ui, workspace.getStorage());
+            return c.isExit();
+        } catch (MontyException e) {
+            ui.showError(e.getMessage());
+            return false;
+        } finally {
+            ui.showLine();
         }
     }
 
     /**
      * Main entry point for the Monty chatbot application.
      * 
-     * @param args command line arguments (not used)
+     * Pass {@code --journal} to append each change to a journal instead of rewriting the data file,
+     * and {@code --binary} to keep the data file in the compact binary format.
+     * Pass {@code --columnar} to hold tasks in memory in columnar form, or {@code --lazy} to decode them from
+     * the data file only when they are first read; both suit very large lists.
+     * Pass {@code --batch <file>}, or {@code --batch -} for standard input, to run a command file
+     * non-interactively, optionally with {@code --save-every <n>} to save every n commands.
+     * Pass {@code --serve <port>} to serve sessions over TCP on localhost instead of the console,
+     * or {@code --serve <path>} to serve them over a Unix-domain socket at that path.
+     * Pass {@code --memory-budget <megabytes>} to set how much memory idle named lists may hold
+     * before the least recently used are dropped; the default is 256.
+     * 
+     * @param args command line arguments
      */
     public static void main(String[] args) {
-        new Monty("data/tasks.txt").run();
+        List<String> options = Arrays.asList(args);
+        boolean isJournaling = options.contains(ARG_JOURNAL);
+        StorageFormat format = options.contains(ARG_BINARY) ? StorageFormat.BINARY : StorageFormat.TEXT;
+        TaskLayout layout = options.contains(ARG_LAZY) ? TaskLayout.LAZY
+                : options.contains(ARG_COLUMNAR) ? TaskLayout.COLUMNAR : TaskLayout.OBJECTS;
+        Storage storage = new Storage(DATA_FILE_PATH, format, isJournaling, COMPACTION_THRESHOLD);
+
+        long memoryBudgetBytes;
+        try {
+            String memoryBudget = getOptionValue(options, ARG_MEMORY_BUDGET);
+            memoryBudgetBytes = (memoryBudget == null ? DEFAULT_MEMORY_BUDGET_MB : Long.parseLong(memoryBudget))
+                    * BYTES_PER_MB;
+        } catch (NumberFormatException e) {
+            System.err.println("Please provide a whole number of megabytes for " + ARG_MEMORY_BUDGET);
+            System.exit(1);
+            return;
+        }
+
+        String serveAddress = getOptionValue(options, ARG_SERVE);
+        if (serveAddress != null) {
+            try {
+                runServer(storage, serveAddress, layout, memoryBudgetBytes);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Please provide a port number or socket path for " + ARG_SERVE);
+                System.exit(1);
+            } catch (IOException e) {
+                System.err.println("Error running server: " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+
+        String batchSource = getOptionValue(options, ARG_BATCH);
+        if (batchSource == null) {
+            new Monty(storage, layout, memoryBudgetBytes).run();
+            return;
+        }
+
+        try {
+            String saveEvery = getOptionValue(options, ARG_SAVE_EVERY);
+            int saveInterval = saveEvery == null ? 0 : Integer.parseInt(saveEvery);
+            runBatch(storage, batchSource, saveInterval, layout);
+        } catch (NumberFormatException e) {
+            System.err.println("Please provide a whole number for " + ARG_SAVE_EVERY);
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Error reading batch commands: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs the commands from a file or standard input in batch mode.
+     * 
+     * @param storage the storage component used to load and persist tasks
+     * @param source the path of the command file, or "-" for standard input
+     * @param saveInterval save after this many commands, or 0 to save only at the end
+     * @param layout how to hold the tasks in memory
+     * @throws IOException if the commands cannot be read
+     */
+    private static void runBatch(Storage storage, String source, int saveInterval, TaskLayout layout)
+            throws IOException {
+        TaskList tasks;
+        try {
+            tasks = layout.load(storage);
+        } catch (MontyException e) {
+            tasks = layout.createEmpty(storage);
+        }
+        try (BufferedReader reader = source.equals(STDIN_SOURCE)
+                ? new BufferedReader(new InputStreamReader(System.in))
+                : Files.newBufferedReader(Paths.get(source))) {
+            new BatchRunner(tasks, storage, saveInterval).run(reader);
+        }
+    }
+
+    /**
+     * Serves sessions over a local socket until the process is stopped, all sharing one registry of task lists.
+     * 
+     * @param storage the storage component used to load and persist the default list
+     * @param address a TCP port on localhost, or the path of a Unix-domain socket
+     * @param layout how to hold the tasks in memory
+     * @param memoryBudgetBytes the estimated memory resident named lists may hold before idle ones are dropped
+     * @throws IOException if the socket cannot be opened
+     */
+    private static void runServer(Storage storage, String address, TaskLayout layout, long memoryBudgetBytes)
+            throws IOException {
+        TaskList tasks;
+        try {
+            tasks = layout.load(storage);
+        } catch (MontyException e) {
+            System.err.println("Error loading tasks: " + e.getMessage());
+            tasks = layout.createEmpty(storage);
+        }
+        tasks.enableWriteBehind(WRITE_BEHIND_DELAY_MILLIS);
+        try (TaskListRegistry registry = new TaskListRegistry(tasks, layout, memoryBudgetBytes,
+                WRITE_BEHIND_DELAY_MILLIS);
+                MontyServer server = new MontyServer(registry, MontyServer.parseAddress(address))) {
+            System.out.println("Serving Monty on " + address);
+            server.serve();
+        }
+    }
+
+    /**
+     * Returns the value following an option on the command line.
+     * 
+     * @param options the command line arguments
+     * @param option the option to look for
+     * @return the value after the option, or null if the option or its value is absent
+     */
+    private static String getOptionValue(List<String> options, String option) {
+        int index = options.indexOf(option);
+        if (index == -1 || index + 1 >= options.size()) {
+            return null;
+        }
+        return options.get(index + 1);
     }
 }
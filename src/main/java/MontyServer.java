@@ -0,0 +1,140 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+
+/**
+ * Serves Monty over a local socket, running one session per connection against a shared registry of task lists.
+ * Each session has its own thread and its own {@link UI} reading from and writing to its connection,
+ * so a slow client only holds up itself. Commands from different sessions interleave one command at a time,
+ * which {@link TaskList} makes safe, and listings are written out only after the list's lock is released.
+ * Every response ends with a line holding a single dot (see {@link UI#showEndOfResponse()}),
+ * so a client such as {@link LoadGenerator} can tell when to send its next command.
+ */
+public class MontyServer implements AutoCloseable {
+    // Enough for thousands of clients connecting at once; the OS may cap it lower
+    private static final int ACCEPT_BACKLOG = 4096;
+    // Sessions only parse commands and render responses, so a small stack lets thousands of them run
+    private static final long SESSION_STACK_BYTES = 256 * 1024;
+
+    private final TaskListRegistry registry;
+    private final SocketAddress address;
+    private final ServerSocketChannel serverChannel;
+    private final Thread shutdownHook;
+
+    private long sessionCount;
+
+    /**
+     * Constructs a MontyServer and starts listening on the given address.
+     * A shutdown hook closes the server when the JVM exits, so a Unix-domain socket file is not left behind.
+     * 
+     * @param registry the task lists shared by all sessions
+     * @param address a TCP address, or a Unix-domain socket address
+     * @throws IOException if the socket cannot be opened or bound
+     */
+    public MontyServer(TaskListRegistry registry, SocketAddress address) throws IOException {
+        this.registry = registry;
+        this.address = address;
+        this.serverChannel = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address, ACCEPT_BACKLOG);
+        } catch (IOException e) {
+            serverChannel.close();
+            throw e;
+        }
+        this.shutdownHook = new Thread(this::closeQuietly, "monty-server-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Parses a server address given on the command line: a port number for TCP on localhost,
+     * or otherwise the path of a Unix-domain socket.
+     * 
+     * @param text the port number or socket path
+     * @return the socket address
+     * @throws IllegalArgumentException if the port number is out of range
+     */
+    public static SocketAddress parseAddress(String text) {
+        if (!text.isEmpty() && text.chars().allMatch(Character::isDigit)) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(text));
+        }
+        return UnixDomainSocketAddress.of(text);
+    }
+
+    /**
+     * Accepts connections and starts a session for each one until the server is closed.
+     * 
+     * @throws IOException if accepting a connection fails
+     */
+    public void serve() throws IOException {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            startSession(channel);
+        }
+    }
+
+    /**
+     * Starts a session on its own thread.
+     * 
+     * @param channel the connection to serve
+     */
+    private void startSession(SocketChannel channel) {
+        if (address instanceof InetSocketAddress) {
+            try {
+                // Each response is written in one flush, so waiting to coalesce small writes only adds latency
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            } catch (IOException e) {
+                System.err.println("Error configuring connection: " + e.getMessage());
+            }
+        }
+        sessionCount++;
+        Thread thread = new Thread(null, new MontySession(channel, registry),
+                "monty-session-" + sessionCount, SESSION_STACK_BYTES);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops accepting connections, and removes the socket file of a Unix-domain socket.
+     * Sessions already running carry on until their clients disconnect.
+     * 
+     * @throws IOException if the socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down, which is when the hook itself closes the server
+        }
+        serverChannel.close();
+        if (address instanceof UnixDomainSocketAddress unixAddress) {
+            Files.deleteIfExists(unixAddress.getPath());
+        }
+    }
+
+    /**
+     * Closes the server, reporting rather than throwing any error.
+     */
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            System.err.println("Error closing server: " + e.getMessage());
+        }
+    }
+}
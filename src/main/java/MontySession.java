@@ -0,0 +1,49 @@
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+
+/**
+ * One client's conversation with a {@link MontyServer}. Reads commands from the connection and writes
+ * the responses back, just as {@link Monty#run()} does on the console, until the client says bye or disconnects.
+ * Each session starts on the default list and may switch to a named list of its own with the use command.
+ * Each response, including the welcome message, ends with a line holding a single dot.
+ */
+public class MontySession implements Runnable {
+    // Responses are short, so a small output buffer keeps thousands of open sessions cheap
+    private static final int STREAM_THRESHOLD_CHARS = 4 * 1024;
+
+    private final SocketChannel channel;
+    private final TaskListRegistry registry;
+
+    /**
+     * Constructs a MontySession over an accepted connection.
+     * 
+     * @param channel the connection to the client, closed when the session ends
+     * @param registry the task lists shared with other sessions
+     */
+    public MontySession(SocketChannel channel, TaskListRegistry registry) {
+        this.channel = channel;
+        this.registry = registry;
+    }
+
+    /**
+     * Runs the session until the client says bye or disconnects, then closes the connection.
+     */
+    @Override
+    public void run() {
+        try (SocketChannel connection = channel; Workspace workspace = new Workspace(registry)) {
+            UI ui = new UI(Channels.newInputStream(connection), Channels.newOutputStream(connection),
+                    STREAM_THRESHOLD_CHARS);
+            ui.showWelcome();
+            ui.showEndOfResponse();
+            boolean isExit = false;
+            while (!isExit && ui.hasNextCommand()) {
+                isExit = Monty.runCommand(ui.readCommand(), workspace, ui);
+                ui.showEndOfResponse();
+            }
+            ui.flush();
+        } catch (IOException e) {
+            System.err.println("Error closing connection: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+import java.time.LocalDateTime;
+
+/**
+ * Command to list the deadlines that are past due and not yet done.
+ */
+public class OverdueCommand extends Command {
+    /**
+     * Executes the overdue command by looking up the deadlines due before now and displaying them.
+     * 
+     * @param tasks the task list to search through
+     * @param ui the user interface for displaying the results
+     * @param storage the storage component (not used in this command)
+     * @throws MontyException if the lookup fails
+     */
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws MontyException {
+        ui.showOverdueTasks(tasks.findOverdueTasks(LocalDateTime.now()));
+    }
+}
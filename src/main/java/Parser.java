@@ -1,70 +1,149 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
 /**
  * Parses user input commands and converts them into appropriate Command objects.
  * Handles validation and parsing of all supported command types.
+ * Commands are dispatched through a prebuilt keyword trie, so new commands can be added
+ * with {@link #registerCommand(String, boolean, CommandParser)} without touching the parsing logic.
  */
 public class Parser {
     private static final String COMMAND_BYE = "bye";
     private static final String COMMAND_LIST = "list";
-    private static final String COMMAND_MARK = "mark ";
-    private static final String COMMAND_UNMARK = "unmark ";
-    private static final String COMMAND_DELETE = "delete ";
-    private static final String COMMAND_FIND = "find ";
-    private static final String COMMAND_TODO = "todo ";
-    private static final String COMMAND_DEADLINE = "deadline ";
-    private static final String COMMAND_EVENT = "event ";
+    private static final String COMMAND_MARK = "mark";
+    private static final String COMMAND_UNMARK = "unmark";
+    private static final String COMMAND_DELETE = "delete";
+    private static final String COMMAND_FIND = "find";
+    private static final String COMMAND_TODO = "todo";
+    private static final String COMMAND_DEADLINE = "deadline";
+    private static final String COMMAND_EVENT = "event";
+    private static final String COMMAND_DUE = "due";
+    private static final String COMMAND_OVERDUE = "overdue";
+    private static final String COMMAND_BETWEEN = "between";
+    private static final String COMMAND_CONFLICTS = "conflicts";
+    private static final String COMMAND_STATS = "stats";
+    private static final String COMMAND_USE = "use";
+    private static final String COMMAND_UNDO = "undo";
+    private static final String COMMAND_REDO = "redo";
+    private static final String STATS_EXPORT = "export ";
+    private static final Pattern STATS_FILE_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}\\.prom");
+
+    private static final String OPTION_PREFIX = "--";
+    private static final String LIST_TYPE = "--type";
+    private static final String LIST_DONE = "--done";
+    private static final String LIST_UNDONE = "--undone";
+    private static final String LIST_FIND = "--find";
+    private static final String LIST_SORT = "--sort";
+    private static final String LIST_PAGE = "--page";
+    private static final String LIST_LIMIT = "--limit";
+    private static final String SORT_KEY_SEPARATOR = ",";
+    private static final int DEFAULT_PAGE_SIZE = 20;
     
     private static final String DELIMITER_BY = "/by ";
     private static final String DELIMITER_FROM = "/from ";
     private static final String DELIMITER_TO = "/to ";
 
+    private static final CommandTrie COMMANDS = new CommandTrie();
+
+    static {
+        registerCommand(COMMAND_BYE, false, (command, start) -> new ExitCommand());
+        registerCommand(COMMAND_LIST, false, (command, start) -> new ListCommand());
+        registerCommand(COMMAND_LIST, true, Parser::parseListCommand);
+        registerCommand(COMMAND_MARK, true, Parser::parseMarkCommand);
+        registerCommand(COMMAND_UNMARK, true, Parser::parseUnmarkCommand);
+        registerCommand(COMMAND_DELETE, true, Parser::parseDeleteCommand);
+        registerCommand(COMMAND_FIND, true, Parser::parseFindCommand);
+        registerCommand(COMMAND_TODO, true, Parser::parseTodoCommand);
+        registerCommand(COMMAND_DEADLINE, true, Parser::parseDeadlineCommand);
+        registerCommand(COMMAND_EVENT, true, Parser::parseEventCommand);
+        registerCommand(COMMAND_DUE, true, Parser::parseDueCommand);
+        registerCommand(COMMAND_OVERDUE, false, (command, start) -> new OverdueCommand());
+        registerCommand(COMMAND_BETWEEN, true, Parser::parseBetweenCommand);
+        registerCommand(COMMAND_CONFLICTS, false, (command, start) -> new ConflictsCommand());
+        registerCommand(COMMAND_STATS, false, (command, start) -> new StatsCommand());
+        registerCommand(COMMAND_STATS, true, Parser::parseStatsCommand);
+        registerCommand(COMMAND_USE, false, (command, start) -> new UseCommand(null));
+        registerCommand(COMMAND_USE, true, (command, start) -> new UseCommand(command.substring(start).trim()));
+        registerCommand(COMMAND_UNDO, false, (command, start) -> new UndoCommand());
+        registerCommand(COMMAND_REDO, false, (command, start) -> new RedoCommand());
+    }
+
+    /**
+     * Registers a parser for a command keyword.
+     * A keyword that takes arguments is matched when it is followed by a space, and one that does not
+     * is matched only when it makes up the whole command; the same keyword may be registered in both forms.
+     * Commands should be registered during startup, before parsing begins.
+     * 
+     * @param keyword the command keyword, e.g. "todo"
+     * @param takesArguments true if the command is followed by arguments, false if it stands alone
+     * @param parser the parser that builds the command
+     * @throws IllegalArgumentException if the keyword is empty or contains spaces or non-ASCII characters
+     */
+    public static void registerCommand(String keyword, boolean takesArguments, CommandParser parser) {
+        COMMANDS.register(keyword, takesArguments, parser);
+    }
+
     /**
      * Parses a user command string and returns the corresponding Command object.
+     * The time taken is recorded in {@link Metrics#SHARED} under the command's type.
      * 
      * @param fullCommand the full command string entered by the user
      * @return the appropriate Command object for the given command
      * @throws MontyException if the command is invalid or empty
      */
     public static Command parse(String fullCommand) throws MontyException {
-        if (fullCommand == null || fullCommand.trim().isEmpty()) {
+        long start = System.nanoTime();
+        Command command = null;
+        try {
+            command = parseCommand(fullCommand);
+            return command;
+        } finally {
+            Metrics.SHARED.recordParse(command, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Parses a user command string without recording metrics.
+     * 
+     * @param fullCommand the full command string entered by the user
+     * @return the appropriate Command object for the given command
+     * @throws MontyException if the command is invalid or empty
+     */
+    private static Command parseCommand(String fullCommand) throws MontyException {
+        String trimmedCommand = fullCommand == null ? "" : fullCommand.trim();
+        if (trimmedCommand.isEmpty()) {
             throw new MontyException("Command cannot be empty");
         }
 
-        String trimmedCommand = fullCommand.trim();
-
-        if (trimmedCommand.equals(COMMAND_BYE)) {
-            return new ExitCommand();
-        } else if (trimmedCommand.equals(COMMAND_LIST)) {
-            return new ListCommand();
-        } else if (trimmedCommand.startsWith(COMMAND_MARK)) {
-            return parseMarkCommand(trimmedCommand);
-        } else if (trimmedCommand.startsWith(COMMAND_UNMARK)) {
-            return parseUnmarkCommand(trimmedCommand);
-        } else if (trimmedCommand.startsWith(COMMAND_DELETE)) {
-            return parseDeleteCommand(trimmedCommand);
-        } else if (trimmedCommand.startsWith(COMMAND_FIND)) {
-            return parseFindCommand(trimmedCommand);
-        } else if (trimmedCommand.startsWith(COMMAND_TODO)) {
-            return parseTodoCommand(trimmedCommand);
-        } else if (trimmedCommand.startsWith(COMMAND_DEADLINE)) {
-            return parseDeadlineCommand(trimmedCommand);
-        } else if (trimmedCommand.startsWith(COMMAND_EVENT)) {
-            return parseEventCommand(trimmedCommand);
-        } else {
+        int keywordEnd = trimmedCommand.indexOf(' ');
+        boolean hasArguments = keywordEnd != -1;
+        if (!hasArguments) {
+            keywordEnd = trimmedCommand.length();
+        }
+
+        CommandParser parser = COMMANDS.find(trimmedCommand, keywordEnd, hasArguments);
+        if (parser == null) {
             throw new MontyException("I'm sorry, but I don't know what that means :-(");
         }
+        return parser.parse(trimmedCommand, hasArguments ? keywordEnd + 1 : keywordEnd);
     }
 
     /**
      * Parses a mark command and returns a MarkCommand object.
      * 
      * @param command the mark command string
+     * @param start the position of the command's arguments
      * @return a MarkCommand object
      * @throws MontyException if the command format is invalid
      */
-    private static Command parseMarkCommand(String command) throws MontyException {
+    private static Command parseMarkCommand(String command, int start) throws MontyException {
         try {
-            int taskIndex = Integer.parseInt(command.substring(COMMAND_MARK.length()).trim());
-            return new MarkCommand(taskIndex);
+            return new MarkCommand(parseTaskNumbers(command, start));
         } catch (NumberFormatException e) {
             throw new MontyException("OOPS!!! Please provide a valid task number for the mark command.");
         }
@@ -74,13 +153,13 @@ public class Parser {
      * Parses an unmark command and returns an UnmarkCommand object.
      * 
      * @param command the unmark command string
+     * @param start the position of the command's arguments
      * @return an UnmarkCommand object
      * @throws MontyException if the command format is invalid
      */
-    private static Command parseUnmarkCommand(String command) throws MontyException {
+    private static Command parseUnmarkCommand(String command, int start) throws MontyException {
         try {
-            int taskIndex = Integer.parseInt(command.substring(COMMAND_UNMARK.length()).trim());
-            return new UnmarkCommand(taskIndex);
+            return new UnmarkCommand(parseTaskNumbers(command, start));
         } catch (NumberFormatException e) {
             throw new MontyException("OOPS!!! Please provide a valid task number for the unmark command.");
         }
@@ -90,13 +169,13 @@ public class Parser {
      * Parses a delete command and returns a DeleteCommand object.
      * 
      * @param command the delete command string
+     * @param start the position of the command's arguments
      * @return a DeleteCommand object
      * @throws MontyException if the command format is invalid
      */
-    private static Command parseDeleteCommand(String command) throws MontyException {
+    private static Command parseDeleteCommand(String command, int start) throws MontyException {
         try {
-            int taskIndex = Integer.parseInt(command.substring(COMMAND_DELETE.length()).trim());
-            return new DeleteCommand(taskIndex);
+            return new DeleteCommand(parseTaskNumbers(command, start));
         } catch (NumberFormatException e) {
             throw new MontyException("OOPS!!! Please provide a valid task number for the delete command.");
         }
@@ -106,41 +185,230 @@ public class Parser {
      * Parses a find command and returns a FindCommand object.
      * 
      * @param command the find command string
+     * @param start the position of the command's arguments
      * @return a FindCommand object
      * @throws MontyException if the command format is invalid
      */
-    private static Command parseFindCommand(String command) throws MontyException {
-        String keyword = command.substring(COMMAND_FIND.length()).trim();
+    private static Command parseFindCommand(String command, int start) throws MontyException {
+        String keyword = command.substring(start).trim();
         if (keyword.isEmpty()) {
             throw new MontyException("OOPS!!! The search keyword cannot be empty.");
         }
         return new FindCommand(keyword);
     }
 
+    /**
+     * Parses a list command with options, e.g. "list --type deadline --undone --sort date --limit 20",
+     * and returns a ListCommand object. Options may come in any order, and "--find" takes every word
+     * up to the next option. A page without a limit holds {@value #DEFAULT_PAGE_SIZE} tasks.
+     * 
+     * @param command the list command string
+     * @param start the position of the command's arguments
+     * @return a ListCommand object
+     * @throws MontyException if an option is unknown or its value is missing or invalid
+     */
+    private static Command parseListCommand(String command, int start) throws MontyException {
+        String[] words = command.substring(start).trim().split("\\s+");
+        String taskType = null;
+        Boolean isDone = null;
+        String keyword = null;
+        List<TaskQuery.SortKey> sortKeys = new ArrayList<>();
+        int page = 0;
+        int limit = 0;
+        for (int i = 0; i < words.length; i++) {
+            String option = words[i];
+            switch (option) {
+                case LIST_TYPE -> taskType = parseTaskType(getOptionValue(words, ++i, option));
+                case LIST_DONE -> isDone = true;
+                case LIST_UNDONE -> isDone = false;
+                case LIST_FIND -> {
+                    StringBuilder keywordWords = new StringBuilder();
+                    while (i + 1 < words.length && !words[i + 1].startsWith(OPTION_PREFIX)) {
+                        keywordWords.append(keywordWords.length() == 0 ? "" : " ").append(words[++i]);
+                    }
+                    if (keywordWords.length() == 0) {
+                        throw new MontyException("OOPS!!! The search keyword cannot be empty.");
+                    }
+                    keyword = keywordWords.toString();
+                }
+                case LIST_SORT -> {
+                    for (String key : getOptionValue(words, ++i, option).split(SORT_KEY_SEPARATOR)) {
+                        sortKeys.add(parseSortKey(key));
+                    }
+                }
+                case LIST_PAGE -> page = parsePositiveNumber(getOptionValue(words, ++i, option), option);
+                case LIST_LIMIT -> limit = parsePositiveNumber(getOptionValue(words, ++i, option), option);
+                default -> throw new MontyException("OOPS!!! I don't know the list option '" + option
+                        + "'. Try --type, --done, --undone, --find, --sort, --page or --limit.");
+            }
+        }
+        if (page > 0 && limit == 0) {
+            limit = DEFAULT_PAGE_SIZE;
+        }
+        return new ListCommand(new TaskQuery(taskType, isDone, keyword, sortKeys, Math.max(page, 1), limit));
+    }
+
+    /**
+     * Returns the value following an option of the list command.
+     * 
+     * @param words the words of the command's arguments
+     * @param index the position of the value
+     * @param option the option, for the error message
+     * @return the value
+     * @throws MontyException if the option is the last word or is followed by another option
+     */
+    private static String getOptionValue(String[] words, int index, String option) throws MontyException {
+        if (index >= words.length || words[index].startsWith(OPTION_PREFIX)) {
+            throw new MontyException("OOPS!!! Please give a value after " + option + ".");
+        }
+        return words[index];
+    }
+
+    /**
+     * Parses a task type named as the command that adds it.
+     * 
+     * @param typeName "todo", "deadline" or "event"
+     * @return the task type identifier ("T", "D" or "E")
+     * @throws MontyException if the name is not a task type
+     */
+    private static String parseTaskType(String typeName) throws MontyException {
+        return switch (typeName.toLowerCase()) {
+            case COMMAND_TODO -> "T";
+            case COMMAND_DEADLINE -> "D";
+            case COMMAND_EVENT -> "E";
+            default -> throw new MontyException("OOPS!!! The task type must be todo, deadline or event.");
+        };
+    }
+
+    /**
+     * Parses a sort key of the list command.
+     * 
+     * @param key "description", "date", "type" or "done"
+     * @return the sort key
+     * @throws MontyException if the key is not known
+     */
+    private static TaskQuery.SortKey parseSortKey(String key) throws MontyException {
+        try {
+            return TaskQuery.SortKey.valueOf(key.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new MontyException("OOPS!!! Tasks can be sorted by description, date, type or done.");
+        }
+    }
+
+    /**
+     * Parses a whole number of at least 1 given for an option.
+     * 
+     * @param text the number
+     * @param option the option, for the error message
+     * @return the number
+     * @throws MontyException if the text is not a whole number of at least 1
+     */
+    private static int parsePositiveNumber(String text, String option) throws MontyException {
+        try {
+            int number = Integer.parseInt(text);
+            if (number >= 1) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, as for a number below 1
+        }
+        throw new MontyException("OOPS!!! Please give a whole number of at least 1 after " + option + ".");
+    }
+
+    /**
+     * Parses a due command, e.g. "due 2024-12-31", and returns a DueCommand object.
+     * 
+     * @param command the due command string
+     * @param start the position of the command's arguments
+     * @return a DueCommand object
+     * @throws MontyException if the date is missing or not in a recognised form
+     */
+    private static Command parseDueCommand(String command, int start) throws MontyException {
+        String dateText = command.substring(start).trim();
+        LocalDate date = DateTimeParser.parseDate(dateText);
+        if (date == null) {
+            throw new MontyException("OOPS!!! Please give the date as yyyy-mm-dd or d/m/yyyy, e.g. due 2024-12-31.");
+        }
+        return new DueCommand(date, dateText);
+    }
+
+    /**
+     * Parses a stats command that exports the metrics to a file, e.g. "stats export metrics.prom".
+     * Only a plain ".prom" file name is accepted, so that an export, which may come from a remote session,
+     * can neither leave the data directory nor overwrite a data file.
+     * 
+     * @param command the stats command string
+     * @param start the position of the command's arguments
+     * @return a StatsCommand object
+     * @throws MontyException if the arguments are not "export" followed by a valid file name
+     */
+    private static Command parseStatsCommand(String command, int start) throws MontyException {
+        String arguments = command.substring(start).trim();
+        if (!arguments.startsWith(STATS_EXPORT) || arguments.substring(STATS_EXPORT.length()).isBlank()) {
+            throw new MontyException("OOPS!!! Use 'stats' to show the statistics, or 'stats export <file>' to save them.");
+        }
+        String fileName = arguments.substring(STATS_EXPORT.length()).trim();
+        if (!STATS_FILE_NAME.matcher(fileName).matches()) {
+            throw new MontyException("OOPS!!! The statistics file name can only have letters, digits, '-' and '_',"
+                    + " and must end in .prom, e.g. stats export monty.prom.");
+        }
+        return new StatsCommand(fileName);
+    }
+
+    /**
+     * Parses a between command, e.g. "between 2024-12-01 2024-12-31 1800", and returns a BetweenCommand object.
+     * Either end may carry a time; a bare start date begins at midnight and a bare end date runs to the end of the day.
+     * 
+     * @param command the between command string
+     * @param start the position of the command's arguments
+     * @return a BetweenCommand object
+     * @throws MontyException if the range is missing, not in a recognised form or runs backwards
+     */
+    private static Command parseBetweenCommand(String command, int start) throws MontyException {
+        String[] words = command.substring(start).trim().split("\\s+");
+        // The two ends are not delimited, so try each split point until both sides parse
+        for (int split = 1; split < words.length; split++) {
+            String fromText = String.join(" ", Arrays.copyOfRange(words, 0, split));
+            String toText = String.join(" ", Arrays.copyOfRange(words, split, words.length));
+            LocalDateTime from = DateTimeParser.parseDateTime(fromText, LocalTime.MIDNIGHT);
+            LocalDateTime to = DateTimeParser.parseDateTime(toText, LocalTime.MAX);
+            if (from == null || to == null) {
+                continue;
+            }
+            if (to.isBefore(from)) {
+                throw new MontyException("OOPS!!! The end of the range cannot be before its start.");
+            }
+            return new BetweenCommand(from, to, fromText, toText);
+        }
+        throw new MontyException("OOPS!!! Please give two dates, e.g. between 2024-12-01 2024-12-31 1800.");
+    }
+
     /**
      * Parses a todo command and returns an AddCommand with a ToDo task.
      * 
      * @param command the todo command string
+     * @param start the position of the command's arguments
      * @return an AddCommand object containing a ToDo task
      * @throws MontyException if the command format is invalid
      */
-    private static Command parseTodoCommand(String command) throws MontyException {
-        String description = command.substring(COMMAND_TODO.length()).trim();
+    private static Command parseTodoCommand(String command, int start) throws MontyException {
+        String description = command.substring(start).trim();
         if (description.isEmpty()) {
             throw new MontyException("OOPS!!! The description of a todo cannot be empty.");
         }
-        return new AddCommand(new ToDo(description));
+        return new AddCommand(new ToDo(StringPool.SHARED.intern(description)));
     }
 
     /**
      * Parses a deadline command and returns an AddCommand with a Deadline task.
      * 
      * @param command the deadline command string
+     * @param start the position of the command's arguments
      * @return an AddCommand object containing a Deadline task
      * @throws MontyException if the command format is invalid
      */
-    private static Command parseDeadlineCommand(String command) throws MontyException {
-        String remaining = command.substring(COMMAND_DEADLINE.length()).trim();
+    private static Command parseDeadlineCommand(String command, int start) throws MontyException {
+        String remaining = command.substring(start).trim();
         int byIndex = remaining.indexOf(DELIMITER_BY);
         
         if (byIndex == -1) {
@@ -157,18 +425,20 @@ public class Parser {
             throw new MontyException("OOPS!!! The '/by' parameter for deadline cannot be empty. Please specify when the task is due.");
         }
         
-        return new AddCommand(new Deadline(description, by));
+        StringPool pool = StringPool.SHARED;
+        return new AddCommand(new Deadline(pool.intern(description), pool.intern(by)));
     }
 
     /**
      * Parses an event command and returns an AddCommand with an Event task.
      * 
      * @param command the event command string
+     * @param start the position of the command's arguments
      * @return an AddCommand object containing an Event task
      * @throws MontyException if the command format is invalid
      */
-    private static Command parseEventCommand(String command) throws MontyException {
-        String remaining = command.substring(COMMAND_EVENT.length()).trim();
+    private static Command parseEventCommand(String command, int start) throws MontyException {
+        String remaining = command.substring(start).trim();
         int fromIndex = remaining.indexOf(DELIMITER_FROM);
         int toIndex = remaining.indexOf(DELIMITER_TO);
         
@@ -196,6 +466,28 @@ public class Parser {
             throw new MontyException("OOPS!!! The '/to' parameter for event cannot be empty. Please specify when the event ends.");
         }
         
-        return new AddCommand(new Event(description, from, to));
+        StringPool pool = StringPool.SHARED;
+        return new AddCommand(new Event(pool.intern(description), pool.intern(from), pool.intern(to)));
+    }
+
+    /**
+     * Parses the task numbers of a mark, unmark or delete command, e.g. "3" or "1,4,7-200".
+     * A lone number, by far the most common form, is parsed without building a range list.
+     * 
+     * @param command the command string
+     * @param start the position of the command's arguments
+     * @return the 1-based task numbers
+     * @throws NumberFormatException if the arguments are not a valid number list
+     */
+    private static IndexRanges parseTaskNumbers(String command, int start) {
+        int end = command.length();
+        while (start < end && command.charAt(start) <= ' ') {
+            start++;
+        }
+        try {
+            return IndexRanges.of(Integer.parseInt(command, start, end, 10));
+        } catch (NumberFormatException e) {
+            return IndexRanges.parse(command, start);
+        }
     }
 }
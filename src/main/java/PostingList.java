@@ -0,0 +1,150 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A sorted list of task ids, used by {@link SearchIndex} to record which tasks contain a search term.
+ * Ids are stored in a primitive array so that large posting lists stay compact.
+ */
+public class PostingList {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] ids;
+    private int size;
+
+    /**
+     * Constructs an empty PostingList.
+     */
+    public PostingList() {
+        this.ids = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Adds an id to this posting list, keeping the ids sorted.
+     * Ids are normally handed out in increasing order, so this is usually an append.
+     * 
+     * @param id the id to add
+     */
+    public void add(int id) {
+        if (size > 0 && ids[size - 1] >= id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            insertAt(-position - 1, id);
+            return;
+        }
+        insertAt(size, id);
+    }
+
+    /**
+     * Removes an id from this posting list if it is present.
+     * 
+     * @param id the id to remove
+     */
+    public void remove(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    /**
+     * Returns the id at the given position.
+     * 
+     * @param position the 0-based position in this posting list
+     * @return the id at that position
+     */
+    public int get(int position) {
+        return ids[position];
+    }
+
+    /**
+     * Returns the number of ids in this posting list.
+     * 
+     * @return the number of ids
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if this posting list is empty.
+     * 
+     * @return true if there are no ids, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the ids present in both this and the other posting list.
+     * 
+     * @param other the posting list to intersect with
+     * @return a new posting list containing the common ids
+     */
+    public PostingList intersect(PostingList other) {
+        PostingList result = new PostingList();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (ids[i] < other.ids[j]) {
+                i++;
+            } else if (ids[i] > other.ids[j]) {
+                j++;
+            } else {
+                result.insertAt(result.size, ids[i]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids present in any of the given posting lists.
+     * 
+     * @param postingLists the posting lists to merge
+     * @return a new posting list containing all ids from every list
+     */
+    public static PostingList unionAll(List<PostingList> postingLists) {
+        int total = 0;
+        for (PostingList postings : postingLists) {
+            total += postings.size;
+        }
+
+        int[] merged = new int[Math.max(total, INITIAL_CAPACITY)];
+        int offset = 0;
+        for (PostingList postings : postingLists) {
+            System.arraycopy(postings.ids, 0, merged, offset, postings.size);
+            offset += postings.size;
+        }
+        Arrays.sort(merged, 0, total);
+
+        PostingList result = new PostingList();
+        result.ids = merged;
+        for (int i = 0; i < total; i++) {
+            if (result.size == 0 || merged[result.size - 1] != merged[i]) {
+                merged[result.size++] = merged[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Inserts an id at the given position, growing the backing array if needed.
+     * 
+     * @param position the position to insert at
+     * @param id the id to insert
+     */
+    private void insertAt(int position, int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * Command to make again the change most recently undone.
+ */
+public class RedoCommand extends Command {
+    /**
+     * Executes the redo command by reapplying the edit most recently undone and showing what was reapplied.
+     * 
+     * @param tasks the task list to redo the edit in
+     * @param ui the user interface for displaying confirmation
+     * @param storage the storage component (not used in this command)
+     * @throws MontyException if there is nothing to redo
+     */
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws MontyException {
+        TaskEdit edit = tasks.redo();
+        ui.showEditRedone(edit, tasks.getSize());
+    }
+}
@@ -0,0 +1,251 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An inverted index over task descriptions, holding both whole words and character trigrams.
+ * Keeps the case-insensitive "contains" semantics of {@link TaskList#findTasks(String)}:
+ * the index only narrows the candidates, and every candidate is checked against the full keyword.
+ * Each task gets an id in insertion order, so sorted posting lists also give the list order of the results.
+ */
+public class SearchIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<Task, Integer> idsByTask;
+    private final Map<Integer, Task> tasksById;
+    private final Map<String, PostingList> wordPostings;
+    private final Map<Long, PostingList> trigramPostings;
+    private int nextId;
+
+    /**
+     * Constructs a SearchIndex over the given tasks, in list order.
+     * 
+     * @param tasks the tasks to index
+     */
+    public SearchIndex(List<Task> tasks) {
+        this.idsByTask = new IdentityHashMap<>();
+        this.tasksById = new HashMap<>();
+        this.wordPostings = new HashMap<>();
+        this.trigramPostings = new HashMap<>();
+        this.nextId = 0;
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Adds a task that was appended to the end of the task list.
+     * 
+     * @param task the task to index
+     */
+    public void add(Task task) {
+        int id = nextId++;
+        idsByTask.put(task, id);
+        tasksById.put(id, task);
+        String description = task.getDescription().toLowerCase();
+        for (String word : splitWords(description)) {
+            wordPostings.computeIfAbsent(word, key -> new PostingList()).add(id);
+        }
+        for (int i = 0; i + GRAM_LENGTH <= description.length(); i++) {
+            trigramPostings.computeIfAbsent(trigramAt(description, i), key -> new PostingList()).add(id);
+        }
+    }
+
+    /**
+     * Removes a task that was deleted from the task list.
+     * 
+     * @param task the task to remove from the index
+     */
+    public void remove(Task task) {
+        Integer id = idsByTask.remove(task);
+        if (id == null) {
+            return;
+        }
+        tasksById.remove(id);
+        String description = task.getDescription().toLowerCase();
+        for (String word : splitWords(description)) {
+            removePosting(wordPostings, word, id);
+        }
+        for (int i = 0; i + GRAM_LENGTH <= description.length(); i++) {
+            removePosting(trigramPostings, trigramAt(description, i), id);
+        }
+    }
+
+    /**
+     * Finds the tasks whose description contains the keyword, ignoring case.
+     * Keywords of at least three characters are narrowed to the tasks holding every trigram of the keyword.
+     * Shorter keywords fall back to the word index: for a keyword of several words, the inner words must be
+     * whole words of the description, the first must end a word and the last must start one.
+     * 
+     * @param keyword the keyword to search for
+     * @return the matching tasks in list order
+     */
+    public List<Task> find(String keyword) {
+        String searchKeyword = keyword.toLowerCase();
+        if (searchKeyword.length() >= GRAM_LENGTH) {
+            return verify(findTrigramCandidates(searchKeyword), searchKeyword);
+        }
+
+        List<String> words = splitWords(searchKeyword);
+        if (words.isEmpty()) {
+            return verify(allIds(), searchKeyword);
+        }
+
+        PostingList candidates = null;
+        for (int i = 0; i < words.size(); i++) {
+            boolean isFirst = i == 0;
+            boolean isLast = i == words.size() - 1;
+            PostingList postings = findWordPostings(words.get(i), isFirst, isLast);
+            candidates = candidates == null ? postings : candidates.intersect(postings);
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return verify(candidates, searchKeyword);
+    }
+
+    /**
+     * Returns the ids of the tasks whose description holds every trigram of the keyword.
+     * The posting lists are intersected from smallest to largest so the candidates shrink quickly.
+     * 
+     * @param searchKeyword the lowercased keyword, at least three characters long
+     * @return the candidate ids in list order
+     */
+    private PostingList findTrigramCandidates(String searchKeyword) {
+        List<PostingList> postingLists = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= searchKeyword.length(); i++) {
+            PostingList postings = trigramPostings.get(trigramAt(searchKeyword, i));
+            if (postings == null) {
+                return new PostingList();
+            }
+            postingLists.add(postings);
+        }
+        postingLists.sort(Comparator.comparingInt(PostingList::size));
+
+        PostingList candidates = postingLists.get(0);
+        for (int i = 1; i < postingLists.size() && !candidates.isEmpty(); i++) {
+            candidates = candidates.intersect(postingLists.get(i));
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the postings of all indexed words that can hold the given query word.
+     * 
+     * @param queryWord the word from the query
+     * @param isFirst whether the word starts the query, so it may be the tail of a description word
+     * @param isLast whether the word ends the query, so it may be the head of a description word
+     * @return the union of the matching postings
+     */
+    private PostingList findWordPostings(String queryWord, boolean isFirst, boolean isLast) {
+        if (!isFirst && !isLast) {
+            PostingList postings = wordPostings.get(queryWord);
+            return postings == null ? new PostingList() : postings;
+        }
+
+        List<PostingList> matches = new ArrayList<>();
+        for (Map.Entry<String, PostingList> entry : wordPostings.entrySet()) {
+            String word = entry.getKey();
+            boolean isMatch;
+            if (isFirst && isLast) {
+                isMatch = word.contains(queryWord);
+            } else if (isFirst) {
+                isMatch = word.endsWith(queryWord);
+            } else {
+                isMatch = word.startsWith(queryWord);
+            }
+            if (isMatch) {
+                matches.add(entry.getValue());
+            }
+        }
+        return PostingList.unionAll(matches);
+    }
+
+    /**
+     * Returns the ids of every indexed task in list order.
+     * 
+     * @return a posting list of all ids
+     */
+    private PostingList allIds() {
+        PostingList ids = new PostingList();
+        for (Integer id : tasksById.keySet()) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    /**
+     * Resolves candidate ids to tasks, keeping only those whose description contains the keyword.
+     * 
+     * @param candidates the candidate ids in list order
+     * @param searchKeyword the lowercased keyword
+     * @return the matching tasks in list order
+     */
+    private List<Task> verify(PostingList candidates, String searchKeyword) {
+        List<Task> matches = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            Task task = tasksById.get(candidates.get(i));
+            if (task.getDescription().toLowerCase().contains(searchKeyword)) {
+                matches.add(task);
+            }
+        }
+        Metrics.SHARED.recordFind(candidates.size(), matches.size());
+        return matches;
+    }
+
+    /**
+     * Removes an id from the posting list of a key, dropping the posting list once it is empty.
+     * 
+     * @param postingsByKey the postings to update
+     * @param key the key whose posting list holds the id
+     * @param id the id to remove
+     */
+    private static <K> void removePosting(Map<K, PostingList> postingsByKey, K key, int id) {
+        PostingList postings = postingsByKey.get(key);
+        if (postings != null) {
+            postings.remove(id);
+            if (postings.isEmpty()) {
+                postingsByKey.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Packs the three characters starting at the given position into a single key.
+     * 
+     * @param text the text to read from
+     * @param start the position of the first character
+     * @return the trigram key
+     */
+    private static long trigramAt(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * Splits text into its whitespace-separated words.
+     * 
+     * @param text the text to split
+     * @return the non-empty words in order
+     */
+    private static List<String> splitWords(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                if (start != -1) {
+                    words.add(text.substring(start, i));
+                    start = -1;
+                }
+            } else if (start == -1) {
+                start = i;
+            }
+        }
+        if (start != -1) {
+            words.add(text.substring(start));
+        }
+        return words;
+    }
+}
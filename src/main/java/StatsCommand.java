@@ -0,0 +1,51 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command to show the recorded metrics, or to export them to a file in the Prometheus text format.
+ * Exported files are kept next to the data file, e.g. "data/monty.prom".
+ */
+public class StatsCommand extends Command {
+    private final String exportFileName;
+
+    /**
+     * Constructs a StatsCommand that shows the metrics.
+     */
+    public StatsCommand() {
+        this(null);
+    }
+
+    /**
+     * Constructs a StatsCommand that exports the metrics to a file.
+     * 
+     * @param exportFileName the name of the file to write the metrics to, without any directory,
+     *     or null to show them instead
+     */
+    public StatsCommand(String exportFileName) {
+        this.exportFileName = exportFileName;
+    }
+
+    /**
+     * Executes the stats command by showing the metrics recorded so far, or writing them to the export file.
+     * 
+     * @param tasks the task list (not used in this command)
+     * @param ui the user interface for displaying the metrics
+     * @param storage the storage component, whose data file the export file is kept next to
+     * @throws MontyException if the export file cannot be written
+     */
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws MontyException {
+        if (exportFileName == null) {
+            ui.showStatistics(Metrics.SHARED.formatSummary());
+            return;
+        }
+
+        Path exportPath = storage.resolveSibling(exportFileName);
+        try {
+            Metrics.SHARED.exportPrometheus(exportPath);
+        } catch (IOException e) {
+            throw new MontyException("Error exporting statistics: " + e.getMessage());
+        }
+        ui.showMessage("Saved the statistics to " + exportPath);
+    }
+}
@@ -1,12 +1,29 @@
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 /**
  * Handles the persistence of tasks to and from the file system.
@@ -15,15 +32,45 @@ import java.util.Scanner;
  */
 public class Storage {
     private static final String DATA_DIR = "data";
-    private static final String DATA_FILE = "duke.txt";
+    private static final String DATA_FILE = "tasks.txt";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String ROTATED_JOURNAL_SUFFIX = ".journal.old";
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 1024 * 1024;
+    private static final long MAP_WINDOW_BYTES = 256L * 1024 * 1024;
+    private static final int PARSE_CHUNK_BYTES = 1024 * 1024;
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int MAX_PATCHED_FLAGS = 1024;
+
+    private static final String FIELD_SEPARATOR = " | ";
+    private static final String RECORD_ADD = "A";
+    private static final String RECORD_MARK = "M";
+    private static final String RECORD_UNMARK = "U";
+    private static final String RECORD_DELETE = "X";
+    private static final String RECORD_INSERT = "I";
+    // A record starts with its one-letter type and a separator, e.g. "T | 0 | read book", then its done flag
+    private static final int DONE_FLAG_POSITION = 1 + FIELD_SEPARATOR.length();
+
     private final String filePath;
+    private final StorageFormat format;
+    private final boolean isJournaling;
+    private final long compactionThreshold;
+    private long journalBytes;
+    private ExecutorService compactor;
+    private Future<?> pendingCompaction;
+    private LoadReport lastLoadReport;
+
+    // Byte offset of each record's done flag in the text data file, or -1 where the flag cannot be patched
+    // in place; null until the file has been written or scanned
+    private long[] doneFlagOffsets;
 
     /**
      * Constructs a Storage instance with the default file path.
-     * The default path is "data/duke.txt".
+     * The default path is "data/tasks.txt", the same file Monty uses.
      */
     public Storage() {
-        this.filePath = DATA_DIR + File.separator + DATA_FILE;
+        this(DATA_DIR + File.separator + DATA_FILE);
     }
 
     /**
@@ -32,16 +79,112 @@ public class Storage {
      * @param filePath the path to the file where tasks are stored
      */
     public Storage(String filePath) {
+        this(filePath, false, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Constructs a Storage instance with the specified file path and persistence mode.
+     * In journaling mode each mutation appends one record to a journal next to the data file
+     * instead of rewriting the whole file, and the journal is folded back into the data file
+     * in the background once it grows past the compaction threshold.
+     *
+     * @param filePath the path to the file where tasks are stored
+     * @param isJournaling true to append mutations to a journal, false to rewrite the file on every save
+     * @param compactionThreshold the journal size in bytes after which a compaction is started
+     */
+    public Storage(String filePath, boolean isJournaling, long compactionThreshold) {
+        this(filePath, StorageFormat.TEXT, isJournaling, compactionThreshold);
+    }
+
+    /**
+     * Constructs a Storage instance with the specified file path and data file format.
+     * 
+     * @param filePath the path to the file where tasks are stored
+     * @param format the format of the data file
+     */
+    public Storage(String filePath, StorageFormat format) {
+        this(filePath, format, false, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Constructs a Storage instance with the specified file path, data file format and persistence mode.
+     * The journal is always kept as text; the format only applies to the data file it is compacted into.
+     *
+     * @param filePath the path to the file where tasks are stored
+     * @param format the format of the data file
+     * @param isJournaling true to append mutations to a journal, false to rewrite the file on every save
+     * @param compactionThreshold the journal size in bytes after which a compaction is started
+     */
+    public Storage(String filePath, StorageFormat format, boolean isJournaling, long compactionThreshold) {
         this.filePath = filePath;
+        this.format = format;
+        this.isJournaling = isJournaling;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Returns whether this storage appends mutations to a journal.
+     *
+     * @return true if journaling mode is enabled, false otherwise
+     */
+    public boolean isJournaling() {
+        return isJournaling;
+    }
+
+    /**
+     * Returns the name of the task list kept here: the data file's name without its extension, e.g. "tasks".
+     * 
+     * @return the list name
+     */
+    public String getListName() {
+        String fileName = Paths.get(filePath).getFileName().toString();
+        int extensionStart = fileName.lastIndexOf('.');
+        return extensionStart > 0 ? fileName.substring(0, extensionStart) : fileName;
+    }
+
+    /**
+     * Returns a Storage for another named task list kept alongside this one, e.g. "data/groceries.txt"
+     * next to "data/tasks.txt", with the same format, persistence mode and compaction threshold.
+     * 
+     * @param listName the name of the other list, which must be usable as a file name
+     * @return the storage for that list
+     */
+    public Storage forList(String listName) {
+        String fileName = Paths.get(filePath).getFileName().toString();
+        String extension = fileName.substring(getListName().length());
+        String listPath = Paths.get(filePath).resolveSibling(listName + extension).toString();
+        return new Storage(listPath, format, isJournaling, compactionThreshold);
+    }
+
+    /**
+     * Returns the path of another file kept in the same directory as the data file, e.g. "data/monty.prom".
+     * 
+     * @param fileName the name of the file, without any directory
+     * @return the path of the file
+     */
+    public Path resolveSibling(String fileName) {
+        return Paths.get(filePath).resolveSibling(fileName);
+    }
+
+    /**
+     * Waits for any background compaction to finish and stops the compaction thread.
+     * The storage may still be used afterwards; a later compaction starts a new thread.
+     */
+    public void close() {
+        waitForCompaction();
+        if (compactor != null) {
+            compactor.shutdown();
+            compactor = null;
+        }
     }
 
     /**
-     * Creates the data directory if it doesn't exist.
+     * Creates the directory containing the data file if it doesn't exist.
      * 
      * @throws IOException if the directory creation fails
      */
     private void createDataDirectoryIfNeeded() throws IOException {
-        Path dataDirPath = Paths.get(DATA_DIR);
+        Path dataDirPath = Paths.get(filePath).toAbsolutePath().getParent();
         if (!Files.exists(dataDirPath)) {
             Files.createDirectories(dataDirPath);
         }
@@ -59,58 +202,624 @@ public class Storage {
 
     /**
      * Loads tasks from the data file.
+     * In journaling mode, any journal records written since the last compaction are replayed on top.
+     * Corrupted lines and records are skipped and counted in a {@link LoadReport}, which is printed
+     * to stderr if anything was skipped and is available afterwards from {@link #getLastLoadReport()}.
      * Returns empty list if file doesn't exist or is corrupted.
      * 
      * @return a list of tasks loaded from the file (empty if file doesn't exist)
      */
     public List<Task> loadTasks() {
+        if (isJournaling) {
+            waitForCompaction();
+            recoverInterruptedCompaction();
+        }
+
         List<Task> tasks = new ArrayList<>();
-        File file = new File(filePath);
+        LoadReport report = new LoadReport(filePath);
+        Path path = Paths.get(filePath);
+        setDoneFlagOffsets(null);
+        
+        if (Files.exists(path)) {
+            try {
+                if (format == StorageFormat.BINARY) {
+                    BinaryTaskCodec.read(path, tasks, report);
+                } else {
+                    setDoneFlagOffsets(loadMappedTaskFile(path, tasks, report));
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading data file: " + e.getMessage());
+            }
+        }
+
+        if (isJournaling) {
+            replayJournal(Paths.get(filePath + ROTATED_JOURNAL_SUFFIX), tasks, report);
+            replayJournal(journalPath(), tasks, report);
+            journalBytes = fileSize(journalPath());
+        }
+
+        report.setLoadedCount(tasks.size());
+        if (report.hasSkipped()) {
+            System.err.println(report);
+        }
+        lastLoadReport = report;
+        return tasks;
+    }
+
+    /**
+     * Opens the data file without decoding it, returning a list that decodes each task when it is first read.
+     * Each line is parsed once to check it, but only the start of each valid line is kept,
+     * so even a very large file opens without holding its tasks in memory.
+     * Journal records are replayed on top as in {@link #loadTasks()}, and corrupted lines are reported the same way.
+     * The binary format has no line structure to index, so it is loaded eagerly instead.
+     * 
+     * @param cacheCapacity the largest number of decoded tasks to keep in memory
+     * @return a list of the stored tasks (empty if the file doesn't exist)
+     */
+    public List<Task> loadLazily(int cacheCapacity) {
+        Path path = Paths.get(filePath);
+        if (format == StorageFormat.BINARY || !Files.exists(path)) {
+            return loadTasks();
+        }
+        if (isJournaling) {
+            waitForCompaction();
+            recoverInterruptedCompaction();
+        }
+
+        LoadReport report = new LoadReport(filePath);
+        setDoneFlagOffsets(null);
+        List<Task> tasks;
+        try {
+            LazyTaskList lazyTasks = LazyTaskList.open(path, cacheCapacity, report);
+            setDoneFlagOffsets(lazyTasks.takeDoneFlagOffsets());
+            tasks = lazyTasks;
+        } catch (IOException e) {
+            System.err.println("Error reading data file: " + e.getMessage());
+            tasks = new ArrayList<>();
+        }
+
+        if (isJournaling) {
+            replayJournal(Paths.get(filePath + ROTATED_JOURNAL_SUFFIX), tasks, report);
+            replayJournal(journalPath(), tasks, report);
+            journalBytes = fileSize(journalPath());
+        }
+
+        report.setLoadedCount(tasks.size());
+        if (report.hasSkipped()) {
+            System.err.println(report);
+        }
+        lastLoadReport = report;
+        return tasks;
+    }
+
+    /**
+     * Returns the report of the most recent load.
+     * 
+     * @return the last load report, or null if nothing has been loaded yet
+     */
+    public LoadReport getLastLoadReport() {
+        return lastLoadReport;
+    }
+
+    /**
+     * Saves tasks to the data file.
+     * In journaling mode this also folds the journal into the data file and clears it.
+     * 
+     * @param tasks the list of tasks to save
+     * @throws IOException if there is an error writing to the file
+     */
+    public void saveTasks(List<Task> tasks) throws IOException {
+        createDataDirectoryIfNeeded();
+
+        if (isJournaling) {
+            waitForCompaction();
+            rotateJournal();
+            compact(tasks);
+            return;
+        }
         
-        if (!file.exists()) {
-            return tasks; // Return empty list if file doesn't exist
+        // Until the new file is in place, the one on disk may not match the list, so nothing may be patched
+        setDoneFlagOffsets(new long[0]);
+        setDoneFlagOffsets(writeTaskFile(tasks, filePath));
+    }
+
+    /**
+     * Marks or unmarks tasks by overwriting their done flags in the data file in place, instead of rewriting the file.
+     * Each flag is one byte at a known offset, so the I/O does not grow with the size of the list.
+     * The offsets come from the last full save, or from the load, which records them for exactly the records it kept.
+     * They match list indices only while the file holds the same tasks in the same order as the list,
+     * so this must not be called while a full save of other changes is still pending.
+     * Nothing is written, and false is returned, in journaling mode, for the binary format, when the offsets are
+     * not known, when a flag is not written as a single digit, or when so many flags change that rewriting the file
+     * is cheaper.
+     * 
+     * @param indices the 0-based indices of the tasks
+     * @param isDone true to mark the tasks as done, false to mark them as not done
+     * @return true if the flags were patched, false if a full save is needed instead
+     * @throws IOException if the data file cannot be read or written
+     */
+    public synchronized boolean patchDoneFlags(IndexRanges indices, boolean isDone) throws IOException {
+        Path path = Paths.get(filePath);
+        if (isJournaling || format != StorageFormat.TEXT || indices.count() > MAX_PATCHED_FLAGS
+                || doneFlagOffsets == null || !Files.exists(path)) {
+            return false;
+        }
+        int[] listIndices = indices.toArray();
+        for (int index : listIndices) {
+            if (index >= doneFlagOffsets.length || doneFlagOffsets[index] < 0) {
+                return false;
+            }
+        }
+
+        long start = System.nanoTime();
+        ByteBuffer flag = ByteBuffer.allocate(1);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Check every flag before writing any, so that offsets gone stale fall back to a full save
+            for (int index : listIndices) {
+                flag.clear();
+                if (channel.read(flag, doneFlagOffsets[index]) != 1 || !isDoneFlag(flag.get(0))) {
+                    doneFlagOffsets = null;
+                    return false;
+                }
+            }
+            for (int index : listIndices) {
+                flag.clear();
+                flag.put(0, (byte) (isDone ? '1' : '0'));
+                while (flag.hasRemaining()) {
+                    channel.write(flag, doneFlagOffsets[index] + flag.position());
+                }
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            doneFlagOffsets = null;
+            throw e;
+        }
+        Metrics.SHARED.recordPatch(listIndices.length, System.nanoTime() - start);
+        return true;
+    }
+
+    /**
+     * Appends the record for an edit that has just been applied to the list to the journal.
+     * An edit that puts tasks back is written as one record per task, in ascending position order,
+     * so that replaying the records in turn puts each task back where it was.
+     *
+     * @param edit the edit
+     * @throws IOException if there is an error writing to the journal
+     */
+    public void appendEdit(TaskEdit edit) throws IOException {
+        IndexRanges indices = edit.getIndices();
+        switch (edit.getKind()) {
+            case ADD -> appendRecord(RECORD_ADD + FIELD_SEPARATOR + taskToFileString(edit.getTasks().get(0)));
+            case MARK -> appendRecord(RECORD_MARK + FIELD_SEPARATOR + indices);
+            case UNMARK -> appendRecord(RECORD_UNMARK + FIELD_SEPARATOR + indices);
+            case DELETE -> appendRecord(RECORD_DELETE + FIELD_SEPARATOR + indices);
+            case INSERT -> {
+                StringBuilder records = new StringBuilder();
+                int[] listIndices = indices.toArray();
+                for (int i = 0; i < listIndices.length; i++) {
+                    if (i > 0) {
+                        records.append(System.lineSeparator());
+                    }
+                    records.append(RECORD_INSERT).append(FIELD_SEPARATOR).append(listIndices[i])
+                            .append(FIELD_SEPARATOR).append(taskToFileString(edit.getTasks().get(i)));
+                }
+                appendRecord(records.toString());
+            }
+        }
+    }
+
+    /**
+     * Starts a background compaction if the journal has grown past the compaction threshold.
+     * The current journal is set aside synchronously so that new records keep going to a fresh journal
+     * while the snapshot is written. The snapshot is only asked for once a compaction is due, so the caller
+     * can hand over a copy in the list's own layout instead of building every task under its lock;
+     * tasks whose done flag changes during the compaction are still correct after a reload because
+     * mark and unmark records are idempotent when replayed.
+     *
+     * @param snapshot supplies a copy of the current tasks that later changes do not shift,
+     *     which must reflect every journal record written so far
+     */
+    public void compactIfNeeded(Supplier<List<Task>> snapshot) {
+        if (!isJournaling || journalBytes < compactionThreshold) {
+            return;
+        }
+        if (pendingCompaction != null && !pendingCompaction.isDone()) {
+            return;
+        }
+
+        try {
+            rotateJournal();
+        } catch (IOException e) {
+            System.err.println("Error rotating journal: " + e.getMessage());
+            return;
+        }
+
+        List<Task> tasks = snapshot.get();
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "storage-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        pendingCompaction = compactor.submit(() -> {
+            try {
+                compact(tasks);
+            } catch (IOException e) {
+                System.err.println("Error compacting journal: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Blocks until any running background compaction has finished.
+     */
+    public void waitForCompaction() {
+        if (pendingCompaction == null) {
+            return;
+        }
+        try {
+            pendingCompaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error compacting journal: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Returns the path of the journal file.
+     *
+     * @return the journal path
+     */
+    private Path journalPath() {
+        return Paths.get(filePath + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Returns the size of a file, or 0 if it does not exist.
+     *
+     * @param path the file to measure
+     * @return the file size in bytes
+     */
+    private long fileSize(Path path) {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Appends record lines to the journal in a single write.
+     *
+     * @param record the records to append, separated by line separators but without a final one
+     * @throws IOException if there is an error writing to the journal
+     */
+    private void appendRecord(String record) throws IOException {
+        createDataDirectoryIfNeeded();
+        byte[] bytes = (record + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        Files.write(journalPath(), bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        journalBytes += bytes.length;
+        Metrics.SHARED.recordJournalAppend(bytes.length);
+    }
+
+    /**
+     * Moves the current journal aside so that it can be folded into the data file.
+     * If an earlier compaction failed and left a rotated journal behind, the current journal
+     * is appended to it instead so that no records are lost or applied twice.
+     *
+     * @throws IOException if the journal cannot be moved
+     */
+    private void rotateJournal() throws IOException {
+        Path journal = journalPath();
+        Path rotated = Paths.get(filePath + ROTATED_JOURNAL_SUFFIX);
+        if (Files.exists(journal)) {
+            if (Files.exists(rotated)) {
+                Files.write(rotated, Files.readAllBytes(journal), StandardOpenOption.APPEND);
+                Files.delete(journal);
+            } else {
+                Files.move(journal, rotated);
+            }
+        }
+        journalBytes = 0;
+    }
+
+    /**
+     * Writes a snapshot of the tasks and then retires the rotated journal.
+     * The snapshot is written completely to a side file before the rotated journal is deleted,
+     * and only then moved over the data file, so that {@link #recoverInterruptedCompaction()}
+     * can always tell which state is authoritative after a crash.
+     *
+     * @param tasks the tasks covering the data file plus the rotated journal
+     * @throws IOException if the snapshot cannot be written
+     */
+    private void compact(List<Task> tasks) throws IOException {
+        String compactPath = filePath + COMPACT_SUFFIX;
+        writeTaskFile(tasks, compactPath);
+        Files.deleteIfExists(Paths.get(filePath + ROTATED_JOURNAL_SUFFIX));
+        Files.move(Paths.get(compactPath), Paths.get(filePath), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Finishes or discards a compaction that was interrupted by a crash.
+     * A compacted snapshot without a rotated journal is complete and is moved into place;
+     * one with a rotated journal still present may be partial and is discarded.
+     */
+    private void recoverInterruptedCompaction() {
+        Path compact = Paths.get(filePath + COMPACT_SUFFIX);
+        if (!Files.exists(compact)) {
+            return;
+        }
+        try {
+            if (Files.exists(Paths.get(filePath + ROTATED_JOURNAL_SUFFIX))) {
+                Files.delete(compact);
+            } else {
+                Files.move(compact, Paths.get(filePath), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Error recovering interrupted compaction: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replays the records of a journal file onto a list of tasks.
+     * Corrupted records are skipped and counted, like corrupted lines in the data file.
+     *
+     * @param journal the journal file to replay
+     * @param tasks the tasks to apply the records to
+     * @param report the report to record skipped records in
+     */
+    private void replayJournal(Path journal, List<Task> tasks, LoadReport report) {
+        if (!Files.exists(journal)) {
+            return;
         }
 
-        try (Scanner scanner = new Scanner(file)) {
+        try (Scanner scanner = new Scanner(journal.toFile(), StandardCharsets.UTF_8)) {
+            long recordNumber = 0;
             while (scanner.hasNextLine()) {
                 String line = scanner.nextLine().trim();
+                recordNumber++;
                 if (!line.isEmpty()) {
                     try {
-                        Task task = parseTaskFromLine(line);
-                        if (task != null) {
-                            tasks.add(task);
-                        }
+                        applyRecord(line, tasks);
                     } catch (Exception e) {
-                        // Skip corrupted lines, continue loading other tasks
-                        System.err.println("Warning: Skipping corrupted line: " + line);
+                        report.recordSkippedJournalRecord(recordNumber, line);
                     }
                 }
             }
         } catch (IOException e) {
-            System.err.println("Error reading data file: " + e.getMessage());
+            System.err.println("Error reading journal file: " + e.getMessage());
         }
+    }
 
-        return tasks;
+    /**
+     * Applies a single journal record to a list of tasks.
+     *
+     * @param record the journal record to apply
+     * @param tasks the tasks to apply the record to
+     * @throws IllegalArgumentException if the record is malformed
+     */
+    private void applyRecord(String record, List<Task> tasks) {
+        int separatorIndex = record.indexOf(FIELD_SEPARATOR);
+        if (separatorIndex == -1) {
+            throw new IllegalArgumentException("Invalid journal record: " + record);
+        }
+
+        String recordType = record.substring(0, separatorIndex);
+        String payload = record.substring(separatorIndex + FIELD_SEPARATOR.length());
+
+        if (recordType.equals(RECORD_ADD)) {
+            tasks.add(parseTaskFromLine(payload));
+            return;
+        }
+        if (recordType.equals(RECORD_INSERT)) {
+            int taskSeparatorIndex = payload.indexOf(FIELD_SEPARATOR);
+            if (taskSeparatorIndex == -1) {
+                throw new IllegalArgumentException("Invalid journal record: " + record);
+            }
+            int index = Integer.parseInt(payload.substring(0, taskSeparatorIndex).trim());
+            if (index < 0 || index > tasks.size()) {
+                throw new IllegalArgumentException("Journal record refers to a missing position: " + record);
+            }
+            tasks.add(index, parseTaskFromLine(payload.substring(taskSeparatorIndex + FIELD_SEPARATOR.length())));
+            return;
+        }
+
+        IndexRanges indices = IndexRanges.parse(payload, 0);
+        if (indices.getMin() < 0 || indices.getMax() >= tasks.size()) {
+            throw new IllegalArgumentException("Journal record refers to a missing task: " + record);
+        }
+        switch (recordType) {
+            case RECORD_MARK -> {
+                for (int index : indices.toArray()) {
+                    Task task = tasks.get(index);
+                    task.markDone();
+                    tasks.set(index, task);
+                }
+            }
+            case RECORD_UNMARK -> {
+                for (int index : indices.toArray()) {
+                    Task task = tasks.get(index);
+                    task.markNotDone();
+                    tasks.set(index, task);
+                }
+            }
+            case RECORD_DELETE -> {
+                if (tasks instanceof LazyTaskList lazyTasks) {
+                    lazyTasks.removeAt(indices);
+                } else {
+                    indices.removeFrom(tasks);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown journal record type: " + recordType);
+        }
     }
 
     /**
-     * Saves tasks to the data file.
+     * Replaces the known done flag offsets of the data file.
      * 
-     * @param tasks the list of tasks to save
+     * @param offsets the offset of each record's done flag, or null if they are not known
+     */
+    private synchronized void setDoneFlagOffsets(long[] offsets) {
+        doneFlagOffsets = offsets;
+    }
+
+    /**
+     * Checks whether a byte is a done flag written as a single digit.
+     * 
+     * @param b the byte to check
+     * @return true if the byte is '0' or '1'
+     */
+    private static boolean isDoneFlag(byte b) {
+        return b == '0' || b == '1';
+    }
+
+    /**
+     * Writes tasks to a file in the data file format, replacing its contents atomically.
+     * The tasks are written to a temporary file next to the target, forced to disk and then moved
+     * over the target, so a crash or a full disk never leaves a truncated data file behind.
+     * The size of the file and the time taken are recorded in {@link Metrics#SHARED}.
+     *
+     * @param tasks the tasks to write
+     * @param path the file to write to
+     * @return the offset of each record's done flag in the written file, or null for the binary format
      * @throws IOException if there is an error writing to the file
      */
-    public void saveTasks(List<Task> tasks) throws IOException {
-        createDataDirectoryIfNeeded();
-        
-        try (FileWriter writer = new FileWriter(filePath)) {
-            for (Task task : tasks) {
-                writer.write(taskToFileString(task) + System.lineSeparator());
+    private long[] writeTaskFile(List<Task> tasks, String path) throws IOException {
+        long start = System.nanoTime();
+        long bytes;
+        long[] doneFlagOffsets = null;
+        Path target = Paths.get(path);
+        Path temp = Paths.get(path + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (format == StorageFormat.BINARY) {
+                BinaryTaskCodec.write(tasks, Channels.newOutputStream(channel));
+            } else {
+                doneFlagOffsets = writeTextRecords(tasks, channel);
+            }
+            channel.force(true);
+            bytes = channel.size();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(target.toAbsolutePath().getParent());
+        Metrics.SHARED.recordSave(bytes, System.nanoTime() - start);
+        return doneFlagOffsets;
+    }
+
+    /**
+     * Writes tasks as text records to a channel, encoding them in batches through a reused buffer.
+     * The byte offset of each record's done flag is worked out along the way from the UTF-8 length of the records.
+     *
+     * @param tasks the tasks to write
+     * @param channel the channel to write to
+     * @return the offset of each record's done flag
+     * @throws IOException if there is an error writing to the channel
+     */
+    private long[] writeTextRecords(List<Task> tasks, FileChannel channel) throws IOException {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        StringBuilder records = new StringBuilder();
+        long[] doneFlagOffsets = new long[tasks.size()];
+        long written = 0;
+        int count = 0;
+        for (Task task : tasks) {
+            int recordStart = records.length();
+            appendTaskRecord(records, task).append(System.lineSeparator());
+            doneFlagOffsets[count++] = written + DONE_FLAG_POSITION;
+            written += utf8Length(records, recordStart, records.length());
+            if (records.length() >= WRITE_BUFFER_BYTES / 4) {
+                encodeAndWrite(records, encoder, bytes, channel);
+            }
+        }
+        encodeAndWrite(records, encoder, bytes, channel);
+        return doneFlagOffsets;
+    }
+
+    /**
+     * Returns the number of bytes a run of characters takes once encoded by the data file's UTF-8 encoder,
+     * which replaces an unpaired surrogate with a single '?'.
+     *
+     * @param text the text holding the characters
+     * @param start the index of the first character
+     * @param end the index just past the last character
+     * @return the encoded length in bytes
+     */
+    private static int utf8Length(CharSequence text, int start, int end) {
+        int length = end - start;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                continue;
             }
+            if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                // A pair of chars becomes four bytes
+                length += 2;
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                length += c < 0x800 ? 1 : 2;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Encodes the pending records into the byte buffer and writes them out, then clears the records.
+     *
+     * @param records the pending records
+     * @param encoder the UTF-8 encoder
+     * @param bytes the reusable byte buffer
+     * @param channel the channel to write to
+     * @throws IOException if there is an error writing to the channel
+     */
+    private void encodeAndWrite(StringBuilder records, CharsetEncoder encoder, ByteBuffer bytes,
+            FileChannel channel) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(records);
+        encoder.reset();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, true);
+            drain(bytes, channel);
+        } while (result.isOverflow());
+        encoder.flush(bytes);
+        drain(bytes, channel);
+        records.setLength(0);
+    }
+
+    /**
+     * Writes out everything in the byte buffer and clears it for reuse.
+     *
+     * @param bytes the buffer to drain
+     * @param channel the channel to write to
+     * @throws IOException if there is an error writing to the channel
+     */
+    private void drain(ByteBuffer bytes, FileChannel channel) throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    /**
+     * Forces a directory entry change, such as a rename, to disk where the platform supports it.
+     *
+     * @param directory the directory to force
+     */
+    private void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not every platform allows directories to be opened; the rename is still atomic there
         }
     }
 
     /**
-     * Parses a task from a file line.
+     * Parses a task from a file line, taking its text fields from the string pool.
      * Expected formats:
      * - ToDo: T | 1 | read book
      * - Deadline: D | 0 | return book | June 6th
@@ -126,33 +835,98 @@ public class Storage {
             throw new IllegalArgumentException("Invalid task format: " + line);
         }
 
-        String taskType = parts[0].trim();
-        int isDone = Integer.parseInt(parts[1].trim());
-        String description = parts[2].trim();
+        StringPool pool = StringPool.SHARED;
+        return TaskFileParser.createTask(parts[0].trim(), parts[1].trim(), pool.intern(parts[2].trim()),
+                parts.length > 3 ? pool.intern(parts[3].trim()) : null,
+                parts.length > 4 ? pool.intern(parts[4].trim()) : null);
+    }
+
+    /**
+     * Loads the data file by memory-mapping it and parsing records straight from the mapped bytes.
+     * Files larger than one mapping window are mapped window by window, each window starting at a line boundary.
+     * The done flag offsets are taken from the records that were loaded, so they line up with the loaded list.
+     * 
+     * @param path the data file to load
+     * @param tasks the empty list to add the loaded tasks to
+     * @param report the report to record corrupted lines in
+     * @return the offset of each loaded task's done flag, or -1 where it is not a single digit
+     * @throws IOException if the file cannot be mapped, or holds a line longer than a mapping window
+     */
+    private long[] loadMappedTaskFile(Path path, List<Task> tasks, LoadReport report) throws IOException {
+        long[] doneFlagOffsets = new long[0];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long windowStart = 0;
+            long linesBefore = 0;
+            while (windowStart < size) {
+                long windowLength = Math.min(MAP_WINDOW_BYTES, size - windowStart);
+                boolean isLastWindow = windowStart + windowLength == size;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+
+                int end = isLastWindow ? buffer.limit() : endOfLastLine(buffer);
+                if (end == 0) {
+                    throw new IOException("Line at byte " + windowStart + " is longer than " + MAP_WINDOW_BYTES + " bytes");
+                }
+                for (ChunkParseTask chunk : parseChunks(buffer, end)) {
+                    int firstIndex = tasks.size();
+                    tasks.addAll(chunk.join());
+                    if (tasks.size() > doneFlagOffsets.length) {
+                        doneFlagOffsets = Arrays.copyOf(doneFlagOffsets, Math.max(doneFlagOffsets.length * 2, tasks.size()));
+                    }
+                    int[] doneFlagPositions = chunk.getDoneFlagPositions();
+                    for (int i = 0; i < doneFlagPositions.length; i++) {
+                        int position = doneFlagPositions[i];
+                        doneFlagOffsets[firstIndex + i] = position < 0 ? -1 : windowStart + position;
+                    }
 
-        Task task = switch (taskType) {
-            case "T" -> new ToDo(description);
-            case "D" -> {
-                if (parts.length < 4) {
-                    throw new IllegalArgumentException("Deadline task missing 'by' parameter: " + line);
+                    List<Integer> skippedLineNumbers = chunk.getSkippedLineNumbers();
+                    for (int i = 0; i < skippedLineNumbers.size(); i++) {
+                        report.recordSkippedLine(linesBefore + skippedLineNumbers.get(i), chunk.getSkippedLines().get(i));
+                    }
+                    linesBefore += chunk.getLineCount();
                 }
-                yield new Deadline(description, parts[3].trim());
+                windowStart += end;
             }
-            case "E" -> {
-                if (parts.length < 5) {
-                    throw new IllegalArgumentException("Event task missing 'from' or 'to' parameter: " + line);
-                }
-                yield new Event(description, parts[3].trim(), parts[4].trim());
+        }
+        return Arrays.copyOf(doneFlagOffsets, tasks.size());
+    }
+
+    /**
+     * Returns the position just past the last line separator in a buffer.
+     * 
+     * @param buffer the buffer to search
+     * @return the end of the last complete line, or 0 if the buffer holds no line separator
+     */
+    private int endOfLastLine(ByteBuffer buffer) {
+        for (int i = buffer.limit() - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
             }
-            default -> throw new IllegalArgumentException("Unknown task type: " + taskType);
-        };
+        }
+        return 0;
+    }
 
-        // Set the done status
-        if (isDone == 1) {
-            task.markDone();
+    /**
+     * Splits the lines of a mapped buffer into newline-aligned chunks and parses them on the common fork-join pool.
+     * 
+     * @param buffer the mapped buffer to parse
+     * @param end the position just past the last line to parse
+     * @return the completed chunks in their original order
+     */
+    private List<ChunkParseTask> parseChunks(ByteBuffer buffer, int end) {
+        List<ChunkParseTask> chunks = new ArrayList<>();
+        int chunkStart = 0;
+        while (chunkStart < end) {
+            int chunkEnd = Math.min(chunkStart + PARSE_CHUNK_BYTES, end);
+            while (chunkEnd < end && buffer.get(chunkEnd - 1) != '\n') {
+                chunkEnd++;
+            }
+            chunks.add(new ChunkParseTask(buffer, chunkStart, chunkEnd));
+            chunkStart = chunkEnd;
         }
 
-        return task;
+        ForkJoinTask.invokeAll(chunks);
+        return chunks;
     }
 
     /**
@@ -166,7 +940,17 @@ public class Storage {
      * @return the formatted string representation of the task
      */
     private String taskToFileString(Task task) {
-        StringBuilder sb = new StringBuilder();
+        return appendTaskRecord(new StringBuilder(), task).toString();
+    }
+
+    /**
+     * Appends a task in file string format to a builder, see {@link #taskToFileString(Task)}.
+     * 
+     * @param sb the builder to append to
+     * @param task the task to append
+     * @return the builder, for chaining
+     */
+    private StringBuilder appendTaskRecord(StringBuilder sb, Task task) {
         sb.append(task.getTaskType()).append(" | ");
         sb.append(task.isDone() ? "1" : "0").append(" | ");
         sb.append(task.getDescription());
@@ -177,6 +961,6 @@ public class Storage {
             sb.append(" | ").append(event.getFrom()).append(" | ").append(event.getTo());
         }
 
-        return sb.toString();
+        return sb;
     }
 }
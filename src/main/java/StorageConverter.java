@@ -0,0 +1,53 @@
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Converts data files between the text and binary storage formats.
+ * Usage: {@code java StorageConverter to-binary data/tasks.txt data/tasks.bin}
+ * or {@code java StorageConverter to-text data/tasks.bin data/tasks.txt}.
+ */
+public class StorageConverter {
+    private static final String MODE_TO_BINARY = "to-binary";
+    private static final String MODE_TO_TEXT = "to-text";
+
+    /**
+     * Converts a data file from one storage format to another.
+     * Corrupted records in the source are skipped with the usual load warnings.
+     * 
+     * @param sourcePath the path of the file to read
+     * @param sourceFormat the format of the file to read
+     * @param targetPath the path of the file to write
+     * @param targetFormat the format of the file to write
+     * @return the number of tasks written
+     * @throws IOException if there is an error writing the target file
+     */
+    public static int convert(String sourcePath, StorageFormat sourceFormat,
+            String targetPath, StorageFormat targetFormat) throws IOException {
+        List<Task> tasks = new Storage(sourcePath, sourceFormat).loadTasks();
+        new Storage(targetPath, targetFormat).saveTasks(tasks);
+        return tasks.size();
+    }
+
+    /**
+     * Runs a conversion from the command line.
+     * 
+     * @param args the mode ("to-binary" or "to-text"), the source path and the target path
+     */
+    public static void main(String[] args) {
+        if (args.length != 3 || !(args[0].equals(MODE_TO_BINARY) || args[0].equals(MODE_TO_TEXT))) {
+            System.err.println("Usage: StorageConverter <" + MODE_TO_BINARY + "|" + MODE_TO_TEXT + "> <source> <target>");
+            System.exit(1);
+        }
+
+        boolean isToBinary = args[0].equals(MODE_TO_BINARY);
+        StorageFormat sourceFormat = isToBinary ? StorageFormat.TEXT : StorageFormat.BINARY;
+        StorageFormat targetFormat = isToBinary ? StorageFormat.BINARY : StorageFormat.TEXT;
+        try {
+            int count = convert(args[1], sourceFormat, args[2], targetFormat);
+            System.out.println("Converted " + count + " tasks to " + args[2]);
+        } catch (IOException e) {
+            System.err.println("Error converting data file: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
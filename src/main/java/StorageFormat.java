@@ -0,0 +1,9 @@
+/**
+ * The on-disk formats supported by {@link Storage} for the data file.
+ */
+public enum StorageFormat {
+    /** Human-readable pipe-delimited lines, e.g. "D | 0 | return book | June 6th". */
+    TEXT,
+    /** Compact binary records preceded by a versioned header, see {@link BinaryTaskCodec}. */
+    BINARY
+}
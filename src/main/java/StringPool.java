@@ -0,0 +1,213 @@
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool that lets repeated task text, such as "standup" or "Friday 5pm", share one String.
+ * The pool is a fixed-size table where each string has exactly one slot, chosen by its hash, and a new
+ * string simply replaces whatever held its slot. Memory use is therefore capped by the table size however
+ * many unique strings pass through, while strings that keep recurring stay pooled.
+ * The pool is safe to use from several threads without locking: Strings are immutable, so a racing
+ * replacement can at worst cost a pooling opportunity, never return a wrong value.
+ */
+public class StringPool {
+    /** The pool shared by loading and command parsing. */
+    public static final StringPool SHARED = new StringPool(1 << 16, 256);
+
+    // Estimated bytes for a String object and its backing array header on a 64-bit JVM with compressed pointers
+    private static final int STRING_OVERHEAD_BYTES = 24 + 16;
+
+    private final String[] slots;
+    private final int[] slotHashes;
+    private final int mask;
+    private final int maxLength;
+    private final LongAdder lookups;
+    private final LongAdder hits;
+    private final LongAdder savedBytes;
+
+    /**
+     * Constructs a StringPool.
+     * 
+     * @param capacity the number of slots, rounded up to a power of two
+     * @param maxLength the longest string worth pooling; longer strings are returned as they are
+     */
+    public StringPool(int capacity, int maxLength) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.slots = new String[size];
+        this.slotHashes = new int[size];
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+        this.lookups = new LongAdder();
+        this.hits = new LongAdder();
+        this.savedBytes = new LongAdder();
+    }
+
+    /**
+     * Returns the pooled String equal to the given one, pooling it if there is none.
+     * 
+     * @param value the string to pool, may be null
+     * @return an equal pooled string, or the value itself if it was not pooled before
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+        lookups.increment();
+        int hash = value.hashCode();
+        int slot = slotFor(hash);
+        if (slotHashes[slot] == hash) {
+            String pooled = slots[slot];
+            if (pooled != null && pooled.equals(value)) {
+                recordHit(pooled);
+                return pooled;
+            }
+        }
+        store(slot, hash, value);
+        return value;
+    }
+
+    /**
+     * Returns the pooled String for UTF-8 bytes, creating and pooling one only if there is none.
+     * For ASCII text, a hit is found by comparing the bytes in place, so no String is created at all.
+     * 
+     * @param bytes the array holding the bytes
+     * @param length the number of bytes, starting at index 0
+     * @return the pooled string
+     */
+    public String intern(byte[] bytes, int length) {
+        if (length > maxLength) {
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        // Same hash as String.hashCode() for ASCII text, so both intern methods agree on the slot
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = bytes[i];
+            if (b < 0) {
+                return intern(new String(bytes, 0, length, StandardCharsets.UTF_8));
+            }
+            hash = 31 * hash + b;
+        }
+
+        lookups.increment();
+        int slot = slotFor(hash);
+        if (slotHashes[slot] == hash) {
+            String pooled = slots[slot];
+            if (pooled != null && matches(pooled, bytes, length)) {
+                recordHit(pooled);
+                return pooled;
+            }
+        }
+        String value = new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+        store(slot, hash, value);
+        return value;
+    }
+
+    /**
+     * Returns how many lookups were made, excluding strings too long to pool.
+     * 
+     * @return the number of lookups
+     */
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    /**
+     * Returns how many lookups found an equal string already pooled.
+     * 
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns an estimate of the heap saved by sharing pooled strings instead of keeping duplicates.
+     * 
+     * @return the estimated number of bytes saved
+     */
+    public long getSavedBytes() {
+        return savedBytes.sum();
+    }
+
+    /**
+     * Counts the strings currently held by the pool.
+     * 
+     * @return the number of occupied slots
+     */
+    public int getPooledCount() {
+        int count = 0;
+        for (String slot : slots) {
+            if (slot != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns a one-line summary of the pool's effectiveness.
+     * 
+     * @return the summary, e.g. "String pool: 5000 of 65536 slots used, 90000/100000 hits, ~4.1 MB saved"
+     */
+    @Override
+    public String toString() {
+        return String.format("String pool: %d of %d slots used, %d/%d hits, ~%.1f MB saved",
+                getPooledCount(), slots.length, getHitCount(), getLookupCount(), getSavedBytes() / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Spreads a hash over the table so that strings differing only in their last characters
+     * do not crowd into neighbouring slots.
+     * 
+     * @param hash the string hash
+     * @return the slot index
+     */
+    private int slotFor(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Puts a string into its slot, replacing whatever was there.
+     * The hash is kept alongside so that most misses are detected without touching the pooled string.
+     * A racing reader may see the hash and string of different writes, which only costs it a miss,
+     * since a hit is always confirmed by comparing the text.
+     * 
+     * @param slot the slot index
+     * @param hash the string hash
+     * @param value the string to pool
+     */
+    private void store(int slot, int hash, String value) {
+        slots[slot] = value;
+        slotHashes[slot] = hash;
+    }
+
+    /**
+     * Records a hit and the duplicate it avoided.
+     * 
+     * @param pooled the pooled string that was returned
+     */
+    private void recordHit(String pooled) {
+        hits.increment();
+        savedBytes.add(STRING_OVERHEAD_BYTES + pooled.length());
+    }
+
+    /**
+     * Checks whether a pooled string equals a run of ASCII bytes.
+     * 
+     * @param pooled the pooled string
+     * @param bytes the array holding the bytes
+     * @param length the number of bytes
+     * @return true if they hold the same text, false otherwise
+     */
+    private static boolean matches(String pooled, byte[] bytes, int length) {
+        if (pooled.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (pooled.charAt(i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
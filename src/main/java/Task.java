@@ -9,7 +9,8 @@ public abstract class Task {
     private static final String NOT_DONE_ICON = "[ ]";
     
     private final String description;
-    private boolean isDone;
+    // Volatile so that readers holding a snapshot of a shared list see the latest done flag
+    private volatile boolean isDone;
 
     /**
      * Constructs a new Task with the given description.
@@ -0,0 +1,117 @@
+import java.util.List;
+
+/**
+ * One change made to a task list: what kind of change, the positions it touched and the tasks at those positions.
+ * An edit holds only what it changed, never a copy of the whole list, so it is cheap to keep for undo
+ * and is also what gets written to the journal. Its {@link #inverse()} is the edit that undoes it.
+ * Edits are immutable, although the tasks they refer to may be marked and unmarked later.
+ */
+public class TaskEdit {
+    /**
+     * The kinds of change an edit can make.
+     */
+    public enum Kind {
+        /** A task appended to the end of the list. */
+        ADD,
+        /** Tasks put back at the positions they were deleted from. */
+        INSERT,
+        /** Tasks removed from the list. */
+        DELETE,
+        /** Tasks marked as done. */
+        MARK,
+        /** Tasks marked as not done. */
+        UNMARK
+    }
+
+    private final Kind kind;
+    private final IndexRanges indices;
+    private final List<Task> tasks;
+
+    /**
+     * Constructs a TaskEdit.
+     * 
+     * @param kind the kind of change
+     * @param indices the 0-based positions the change touched
+     * @param tasks the tasks at those positions, in the same order
+     */
+    private TaskEdit(Kind kind, IndexRanges indices, List<Task> tasks) {
+        this.kind = kind;
+        this.indices = indices;
+        this.tasks = tasks;
+    }
+
+    /**
+     * Returns the edit for a task appended to the end of the list.
+     * 
+     * @param index the 0-based position the task was appended at
+     * @param task the task
+     * @return the edit
+     */
+    public static TaskEdit add(int index, Task task) {
+        return new TaskEdit(Kind.ADD, IndexRanges.of(index), List.of(task));
+    }
+
+    /**
+     * Returns the edit for tasks removed from the list.
+     * 
+     * @param indices the 0-based positions the tasks were removed from
+     * @param tasks the removed tasks, in their original order
+     * @return the edit
+     */
+    public static TaskEdit delete(IndexRanges indices, List<Task> tasks) {
+        return new TaskEdit(Kind.DELETE, indices, tasks);
+    }
+
+    /**
+     * Returns the edit for tasks whose done flag was changed.
+     * 
+     * @param indices the 0-based positions of the tasks
+     * @param tasks the tasks, in list order
+     * @param isDone true if the tasks were marked as done, false if they were marked as not done
+     * @return the edit
+     */
+    public static TaskEdit setDone(IndexRanges indices, List<Task> tasks, boolean isDone) {
+        return new TaskEdit(isDone ? Kind.MARK : Kind.UNMARK, indices, tasks);
+    }
+
+    /**
+     * Returns the edit that undoes this one. Applied right after this edit, it restores the list as it was before.
+     * 
+     * @return the inverse edit
+     */
+    public TaskEdit inverse() {
+        return switch (kind) {
+            case ADD, INSERT -> new TaskEdit(Kind.DELETE, indices, tasks);
+            case DELETE -> new TaskEdit(Kind.INSERT, indices, tasks);
+            case MARK -> new TaskEdit(Kind.UNMARK, indices, tasks);
+            case UNMARK -> new TaskEdit(Kind.MARK, indices, tasks);
+        };
+    }
+
+    /**
+     * Returns the kind of change.
+     * 
+     * @return the kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the positions the change touched.
+     * 
+     * @return the 0-based positions
+     */
+    public IndexRanges getIndices() {
+        return indices;
+    }
+
+    /**
+     * Returns the tasks the change touched.
+     * 
+     * @return the tasks, in the same order as the positions
+     */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+}
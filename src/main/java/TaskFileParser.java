@@ -0,0 +1,313 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses task records of the data file format directly from bytes.
+ * Fields are located by scanning for the " | " delimiter, so no line String, regex
+ * or String[] is created per record; only the field values themselves become Strings.
+ * Field values are looked up in {@link StringPool#SHARED}, so repeated descriptions and dates share one String.
+ * A parser reuses its scratch buffers and must not be shared between threads.
+ */
+public class TaskFileParser {
+    private static final int MAX_FIELDS = 5;
+    private static final int INITIAL_SCRATCH_SIZE = 256;
+
+    private final int[] fieldStarts;
+    private final int[] fieldEnds;
+    private byte[] scratch;
+
+    /**
+     * Constructs a TaskFileParser with empty scratch buffers.
+     */
+    public TaskFileParser() {
+        this.fieldStarts = new int[MAX_FIELDS];
+        this.fieldEnds = new int[MAX_FIELDS];
+        this.scratch = new byte[INITIAL_SCRATCH_SIZE];
+    }
+
+    /**
+     * Parses the record held in the given byte range.
+     * Accepts the same records as splitting the trimmed line on " | ", including its handling of
+     * surrounding whitespace and of extra trailing fields.
+     * 
+     * @param buffer the buffer holding the record
+     * @param start the position of the first byte of the record
+     * @param end the position just past the last byte of the record, excluding the line separator
+     * @return the parsed task, or null if the record is blank
+     * @throws IllegalArgumentException if the record format is invalid
+     */
+    public Task parse(ByteBuffer buffer, int start, int end) {
+        int fieldCount = locateFields(buffer, start, end);
+        if (fieldCount == 0) {
+            return null;
+        }
+        String problem = checkFields(buffer, fieldCount);
+        if (problem != null) {
+            throw new IllegalArgumentException(problem + ": " + decode(buffer, start, end).trim());
+        }
+
+        String taskType = decodeField(buffer, 0);
+        String doneFlag = decodeField(buffer, 1);
+        String description = decodeField(buffer, 2);
+        String first = fieldCount > 3 ? decodeField(buffer, 3) : null;
+        String second = fieldCount > 4 ? decodeField(buffer, 4) : null;
+        return createTask(taskType, doneFlag, description, first, second);
+    }
+
+    /**
+     * Creates a task from the trimmed fields of a record.
+     * 
+     * @param taskType the task type field ("T", "D" or "E")
+     * @param doneFlag the done flag field, "1" if the task is done
+     * @param description the task description field
+     * @param first the "by" field of a deadline or the "from" field of an event, or null if absent
+     * @param second the "to" field of an event, or null if absent
+     * @return the created task
+     * @throws IllegalArgumentException if the fields do not describe a valid task
+     */
+    public static Task createTask(String taskType, String doneFlag, String description, String first, String second) {
+        int isDone = Integer.parseInt(doneFlag);
+
+        Task task = switch (taskType) {
+            case "T" -> new ToDo(description);
+            case "D" -> {
+                if (first == null) {
+                    throw new IllegalArgumentException("Deadline task missing 'by' parameter");
+                }
+                yield new Deadline(description, first);
+            }
+            case "E" -> {
+                if (first == null || second == null) {
+                    throw new IllegalArgumentException("Event task missing 'from' or 'to' parameter");
+                }
+                yield new Event(description, first, second);
+            }
+            default -> throw new IllegalArgumentException("Unknown task type: " + taskType);
+        };
+
+        // Set the done status
+        if (isDone == 1) {
+            task.markDone();
+        }
+
+        return task;
+    }
+
+    /**
+     * Checks the located fields of a record against everything {@link #createTask} and the task constructors
+     * require: a whole-number done flag, a known type, and non-blank description and times.
+     * 
+     * @param buffer the buffer holding the record
+     * @param fieldCount the number of located fields, at least one
+     * @return null if the fields make a valid task, or what is wrong with them
+     */
+    private String checkFields(ByteBuffer buffer, int fieldCount) {
+        if (fieldCount < 3) {
+            return "Invalid task format";
+        }
+        try {
+            Integer.parseInt(decodeField(buffer, 1));
+        } catch (NumberFormatException e) {
+            return "Invalid done flag";
+        }
+        if (!isBlankFree(buffer, 2)) {
+            return "Task description cannot be null or empty";
+        }
+
+        int typeStart = trimmedStart(buffer, 0);
+        byte type = trimmedEnd(buffer, 0) - typeStart == 1 ? buffer.get(typeStart) : 0;
+        return switch (type) {
+            case 'T' -> null;
+            case 'D' -> fieldCount > 3 && isBlankFree(buffer, 3) ? null : "Deadline task missing 'by' parameter";
+            case 'E' -> fieldCount > 4 && isBlankFree(buffer, 3) && isBlankFree(buffer, 4)
+                    ? null : "Event task missing 'from' or 'to' parameter";
+            default -> "Unknown task type: " + decodeField(buffer, 0);
+        };
+    }
+
+    /**
+     * Finds the done flag of a record if it is a single '0' or '1' byte, which can be overwritten in place
+     * to mark or unmark the task without changing the length of the record.
+     * 
+     * @param buffer the buffer holding the record
+     * @param start the position of the first byte of the record
+     * @param end the position just past the last byte of the record, excluding the line separator
+     * @return the position of the done flag, or -1 if the record has no done flag written as a single digit
+     */
+    public int findDoneFlag(ByteBuffer buffer, int start, int end) {
+        if (locateFields(buffer, start, end) < 2) {
+            return -1;
+        }
+        int flagStart = trimmedStart(buffer, 1);
+        if (trimmedEnd(buffer, 1) - flagStart != 1) {
+            return -1;
+        }
+        byte flag = buffer.get(flagStart);
+        return flag == '0' || flag == '1' ? flagStart : -1;
+    }
+
+    /**
+     * Finds the fields of a record, storing their bounds for {@link #decodeField(ByteBuffer, int)}.
+     * 
+     * @param buffer the buffer holding the record
+     * @param start the position of the first byte of the record
+     * @param end the position just past the last byte of the record, excluding the line separator
+     * @return the number of fields, or 0 if the record is blank
+     */
+    private int locateFields(ByteBuffer buffer, int start, int end) {
+        while (start < end && isTrimmable(buffer.get(start))) {
+            start++;
+        }
+        while (end > start && isTrimmable(buffer.get(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return 0;
+        }
+
+        int fieldCount = 0;
+        int fieldStart = start;
+        for (int i = start; i + 2 < end && fieldCount < MAX_FIELDS - 1; i++) {
+            if (buffer.get(i) == ' ' && buffer.get(i + 1) == '|' && buffer.get(i + 2) == ' ') {
+                fieldStarts[fieldCount] = fieldStart;
+                fieldEnds[fieldCount] = i;
+                fieldCount++;
+                fieldStart = i + 3;
+                i += 2;
+            }
+        }
+        fieldStarts[fieldCount] = fieldStart;
+        fieldEnds[fieldCount] = findFieldEnd(buffer, fieldStart, end, fieldCount);
+        return fieldCount + 1;
+    }
+
+    /**
+     * Checks whether a located field holds anything besides whitespace.
+     * 
+     * @param buffer the buffer holding the record
+     * @param fieldIndex the index of the field
+     * @return true if the trimmed field is not empty
+     */
+    private boolean isBlankFree(ByteBuffer buffer, int fieldIndex) {
+        return trimmedEnd(buffer, fieldIndex) > trimmedStart(buffer, fieldIndex);
+    }
+
+    /**
+     * Returns where a located field starts once leading whitespace is trimmed.
+     * 
+     * @param buffer the buffer holding the record
+     * @param fieldIndex the index of the field
+     * @return the position of the first non-whitespace byte, or the field end if there is none
+     */
+    private int trimmedStart(ByteBuffer buffer, int fieldIndex) {
+        int start = fieldStarts[fieldIndex];
+        int end = fieldEnds[fieldIndex];
+        while (start < end && isTrimmable(buffer.get(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Returns where a located field ends once trailing whitespace is trimmed.
+     * 
+     * @param buffer the buffer holding the record
+     * @param fieldIndex the index of the field
+     * @return the position just past the last non-whitespace byte, or the trimmed start if the field is blank,
+     *     so that a blank field trims to an empty range as with {@link String#trim()}
+     */
+    private int trimmedEnd(ByteBuffer buffer, int fieldIndex) {
+        int start = trimmedStart(buffer, fieldIndex);
+        int end = fieldEnds[fieldIndex];
+        while (end > start && isTrimmable(buffer.get(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Decodes a byte range as UTF-8 text.
+     * 
+     * @param buffer the buffer holding the bytes
+     * @param start the position of the first byte
+     * @param end the position just past the last byte
+     * @return the decoded text
+     */
+    public String decode(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        ensureScratch(length);
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Grows the scratch buffer to hold at least the given number of bytes.
+     * 
+     * @param length the number of bytes needed
+     */
+    private void ensureScratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+    }
+
+    /**
+     * Returns where a field ends: the last field runs to the end of the record,
+     * while the fifth field stops at the next delimiter so that extra fields are ignored.
+     * 
+     * @param buffer the buffer holding the record
+     * @param fieldStart the position of the first byte of the field
+     * @param end the end of the record
+     * @param fieldIndex the index of the field
+     * @return the position just past the last byte of the field
+     */
+    private int findFieldEnd(ByteBuffer buffer, int fieldStart, int end, int fieldIndex) {
+        if (fieldIndex < MAX_FIELDS - 1) {
+            return end;
+        }
+        for (int i = fieldStart; i + 2 < end; i++) {
+            if (buffer.get(i) == ' ' && buffer.get(i + 1) == '|' && buffer.get(i + 2) == ' ') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Decodes a located field, trimmed the same way as {@link String#trim()}.
+     * The common single-byte fields are returned without copying, and other values come from the string pool.
+     * 
+     * @param buffer the buffer holding the record
+     * @param fieldIndex the index of the field
+     * @return the trimmed field value
+     */
+    private String decodeField(ByteBuffer buffer, int fieldIndex) {
+        int start = trimmedStart(buffer, fieldIndex);
+        int end = trimmedEnd(buffer, fieldIndex);
+        if (end - start == 1) {
+            switch (buffer.get(start)) {
+                case 'T': return "T";
+                case 'D': return "D";
+                case 'E': return "E";
+                case '0': return "0";
+                case '1': return "1";
+                default: break;
+            }
+        }
+        int length = end - start;
+        ensureScratch(length);
+        buffer.get(start, scratch, 0, length);
+        return StringPool.SHARED.intern(scratch, length);
+    }
+
+    /**
+     * Returns whether a byte is removed by {@link String#trim()}.
+     * Multi-byte UTF-8 sequences never contain such bytes, so trimming bytes matches trimming characters.
+     * 
+     * @param b the byte to check
+     * @return true if the byte is a control character or space
+     */
+    private static boolean isTrimmable(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+}
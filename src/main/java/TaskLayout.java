@@ -0,0 +1,40 @@
+import java.util.ArrayList;
+
+/**
+ * The in-memory layouts a {@link TaskList} can hold its tasks in.
+ */
+public enum TaskLayout {
+    /** One Task object per task in an ArrayList. */
+    OBJECTS,
+    /** Primitive columns with Task objects built on demand, see {@link ColumnarTaskStore}. */
+    COLUMNAR,
+    /** Line offsets into the mapped data file with a bounded cache of decoded tasks, see {@link LazyTaskList}. */
+    LAZY;
+
+    private static final int LAZY_CACHE_CAPACITY = 10_000;
+
+    /**
+     * Loads the stored tasks into a TaskList with this layout.
+     * 
+     * @param storage the storage component used to load and persist tasks
+     * @return the loaded task list
+     * @throws MontyException if there is an error loading tasks
+     */
+    public TaskList load(Storage storage) throws MontyException {
+        return switch (this) {
+            case LAZY -> new TaskList(storage.loadLazily(LAZY_CACHE_CAPACITY), storage);
+            case COLUMNAR -> new TaskList(storage.load(), storage, true);
+            default -> new TaskList(storage.load(), storage);
+        };
+    }
+
+    /**
+     * Creates an empty TaskList with this layout, for when the stored tasks cannot be loaded.
+     * 
+     * @param storage the storage component used to persist tasks
+     * @return the empty task list
+     */
+    public TaskList createEmpty(Storage storage) {
+        return new TaskList(new ArrayList<>(), storage, this == COLUMNAR);
+    }
+}
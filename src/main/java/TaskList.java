@@ -1,21 +1,64 @@
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
 
 /**
  * Manages a collection of tasks and provides operations for task manipulation.
  * Handles task persistence through the Storage component.
+ * <p>
+ * A TaskList is safe to share between threads, e.g. between several front ends over one task store.
+ * Reads take a shared read lock, so they run side by side and only wait while a change is being applied,
+ * and changes take the write lock one at a time. Every operation is atomic: a task number refers to the task
+ * at that position when the operation runs, after every earlier operation and before every later one,
+ * and an operation on several task numbers checks all of them before changing anything.
+ * To show or walk through the list while other threads may be deleting from it, take a {@link #snapshot()},
+ * whose positions cannot shift.
+ * <p>
+ * The most recent edits are kept in an {@link EditLog}, each as just the positions and tasks it changed,
+ * so that they can be undone and redone. The same edits are what journaling mode appends to the journal.
+ * <p>
+ * Tasks are held either as objects in an ArrayList or, for very large lists, in a {@link ColumnarTaskStore}
+ * or a {@link LazyTaskList}.
  */
 public class TaskList {
+    // Rough heap cost of each task in each layout, and of its share of the search index, measured on typical lists
+    private static final int OBJECT_BYTES_PER_TASK = 100;
+    private static final int COLUMNAR_BYTES_PER_TASK = 60;
+    private static final int LAZY_BYTES_PER_TASK = 8;
+    private static final int SEARCH_INDEX_BYTES_PER_TASK = 360;
+    private static final int UNDO_DEPTH = 100;
+
     private final List<Task> tasks;
+    private final ColumnarTaskStore columnarTasks;
+    private final LazyTaskList lazyTasks;
     private final Storage storage;
+    private SearchIndex searchIndex;
+    private TimeIndex timeIndex;
+    // The Task objects the indexes hold, by list position: the list itself, or for a columnar or lazy list,
+    // whose reads return copies, objects built once for the indexes. Null while neither index is built.
+    private List<Task> indexedTasks;
+    private final ReentrantReadWriteLock lock;
+    private final EditLog editLog;
+    private volatile WriteBehindPersister persister;
+    private boolean isAutoSaving = true;
+    private boolean hasUnsavedChanges;
 
     /**
      * Constructs an empty TaskList with default storage.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
-        this.storage = new Storage();
+        this(new ArrayList<>(), new Storage());
     }
 
     /**
@@ -24,8 +67,7 @@ public class TaskList {
      * @param storage the storage component for task persistence
      */
     public TaskList(Storage storage) {
-        this.tasks = new ArrayList<>();
-        this.storage = storage;
+        this(new ArrayList<>(), storage);
     }
 
     /**
@@ -34,8 +76,48 @@ public class TaskList {
      * @param initialTasks the initial list of tasks to populate the task list
      */
     public TaskList(List<Task> initialTasks) {
-        this.tasks = new ArrayList<>(initialTasks);
-        this.storage = new Storage();
+        this(initialTasks, new Storage());
+    }
+
+    /**
+     * Constructs a TaskList with initial tasks and the specified storage component.
+     * 
+     * @param initialTasks the initial list of tasks to populate the task list
+     * @param storage the storage component for task persistence
+     */
+    public TaskList(List<Task> initialTasks, Storage storage) {
+        this(initialTasks, storage, false);
+    }
+
+    /**
+     * Constructs a TaskList with initial tasks, the specified storage component and a choice of backing.
+     * The columnar backing keeps tasks in primitive arrays and builds Task objects only when they are read,
+     * which saves memory for very large lists. Because those objects are copies, the search and time indexes,
+     * once built, hold Task objects of their own for every position, which each change updates in place.
+     * A {@link LazyTaskList} from {@link Storage#loadLazily(int)}, or a {@link ColumnarTaskStore}, is adopted
+     * as it is rather than copied, so that its tasks stay in their compact form; the choice of backing is then ignored.
+     * 
+     * @param initialTasks the initial list of tasks to populate the task list
+     * @param storage the storage component for task persistence
+     * @param isColumnar true to keep the tasks in columnar form, false to keep them as objects
+     */
+    public TaskList(List<Task> initialTasks, Storage storage, boolean isColumnar) {
+        this.lazyTasks = initialTasks instanceof LazyTaskList lazy ? lazy : null;
+        if (initialTasks instanceof ColumnarTaskStore columnar) {
+            this.columnarTasks = columnar;
+        } else {
+            this.columnarTasks = isColumnar && lazyTasks == null ? new ColumnarTaskStore(initialTasks) : null;
+        }
+        if (lazyTasks != null) {
+            this.tasks = lazyTasks;
+        } else if (columnarTasks != null) {
+            this.tasks = columnarTasks;
+        } else {
+            this.tasks = new ArrayList<>(initialTasks);
+        }
+        this.storage = storage;
+        this.lock = new ReentrantReadWriteLock();
+        this.editLog = new EditLog(UNDO_DEPTH);
     }
 
     /**
@@ -46,6 +128,22 @@ public class TaskList {
      * @throws MontyException if the index is out of bounds
      */
     public Task getTask(int index) throws MontyException {
+        lock.readLock().lock();
+        try {
+            return taskAt(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves a task at the specified index while a lock is already held.
+     * 
+     * @param index the 0-based index of the task to retrieve
+     * @return the task at the specified index
+     * @throws MontyException if the index is out of bounds
+     */
+    private Task taskAt(int index) throws MontyException {
         if (index < 0 || index >= tasks.size()) {
             throw new MontyException("OOPS!!! Task number " + (index + 1) + " does not exist. Please check your task list.");
         }
@@ -58,7 +156,12 @@ public class TaskList {
      * @return the number of tasks
      */
     public int getSize() {
-        return tasks.size();
+        lock.readLock().lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -67,7 +170,51 @@ public class TaskList {
      * @return true if the task list is empty, false otherwise
      */
     public boolean isEmpty() {
-        return tasks.isEmpty();
+        lock.readLock().lock();
+        try {
+            return tasks.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a copy of the task list as it is at this instant, which can be read task by task
+     * while other threads keep changing the original. Columnar and lazy lists are copied in their compact form.
+     * The copy holds the same task objects, so a task marked later may show as marked, but positions never shift.
+     * The copy is meant for reading and is not saved to storage.
+     * 
+     * @return a new TaskList holding the current tasks
+     */
+    public TaskList snapshot() {
+        lock.readLock().lock();
+        try {
+            if (columnarTasks != null) {
+                return new TaskList(columnarTasks.copy(), new Storage());
+            }
+            if (lazyTasks != null) {
+                return new TaskList(lazyTasks.copy(), new Storage());
+            }
+            return new TaskList(tasks, new Storage());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a copy of the tasks for a background compaction. Columnar and lazy lists are copied
+     * in their compact form, so that no task is built while the write lock is held.
+     * 
+     * @return a list holding the current tasks, which later changes to this list do not shift
+     */
+    private List<Task> copyTasks() {
+        if (columnarTasks != null) {
+            return columnarTasks.copy();
+        }
+        if (lazyTasks != null) {
+            return lazyTasks.copy();
+        }
+        return new ArrayList<>(tasks);
     }
 
     /**
@@ -76,7 +223,141 @@ public class TaskList {
      * @return a new list containing all tasks
      */
     public List<Task> getAllTasks() {
-        return new ArrayList<>(tasks);
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(tasks);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Switches full saves to a background writer that coalesces changes made within the given delay.
+     * Has no effect in journaling mode, where each change is already a small append.
+     * 
+     * @param maxDelayMillis the longest time a change may wait before it is saved
+     */
+    public void enableWriteBehind(long maxDelayMillis) {
+        lock.writeLock().lock();
+        try {
+            if (persister == null && !storage.isJournaling()) {
+                persister = new WriteBehindPersister(storage, this::getAllTasks, maxDelayMillis);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets whether each mutation is persisted as it happens.
+     * With auto-save off, changes are only written by {@link #save()} or {@link #flush()},
+     * which lets bulk work persist once instead of after every command.
+     * 
+     * @param isAutoSaving true to persist every mutation, false to defer persistence
+     */
+    public void setAutoSave(boolean isAutoSaving) {
+        lock.writeLock().lock();
+        try {
+            this.isAutoSaving = isAutoSaving;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saves the whole task list to storage now.
+     * Errors are logged to stderr but do not propagate.
+     */
+    public void save() {
+        lock.writeLock().lock();
+        try {
+            try {
+                storage.saveTasks(tasks);
+                hasUnsavedChanges = false;
+            } catch (IOException e) {
+                System.err.println("Error saving tasks: " + e.getMessage());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the storage component this list persists to.
+     * 
+     * @return the storage
+     */
+    public Storage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Estimates how much heap the list holds, including its search index if one has been built
+     * and the tasks kept for undo.
+     * The estimate uses typical per-task costs rather than measuring the tasks, so it takes constant time.
+     * 
+     * @return the estimated number of bytes
+     */
+    public long estimateMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytesPerTask = lazyTasks != null ? LAZY_BYTES_PER_TASK
+                    : columnarTasks != null ? COLUMNAR_BYTES_PER_TASK : OBJECT_BYTES_PER_TASK;
+            if (searchIndex != null) {
+                bytesPerTask += SEARCH_INDEX_BYTES_PER_TASK;
+            }
+            if (indexedTasks != null && indexedTasks != tasks) {
+                bytesPerTask += OBJECT_BYTES_PER_TASK;
+            }
+            long bytes = tasks.size() * bytesPerTask;
+            if (lazyTasks != null) {
+                bytes += (long) lazyTasks.getCachedCount() * OBJECT_BYTES_PER_TASK;
+            }
+            // Deleted tasks are only held by the edit log; the rest are counted twice, which errs on the safe side
+            bytes += editLog.getTaskCount() * OBJECT_BYTES_PER_TASK;
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes every change to storage and stops the background writer and compactor, if any.
+     * The list should not be used afterwards.
+     */
+    public void close() {
+        WriteBehindPersister closingPersister;
+        lock.writeLock().lock();
+        try {
+            closingPersister = persister;
+            persister = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Outside the lock, since the background writer needs the read lock to take its last snapshot
+        if (closingPersister != null) {
+            closingPersister.close();
+        }
+        flush();
+        storage.close();
+    }
+
+    /**
+     * Makes sure every change so far has been written to storage, waiting for any pending background save
+     * and saving any changes deferred while auto-save was off.
+     */
+    public void flush() {
+        if (persister != null) {
+            persister.flush();
+        }
+        lock.writeLock().lock();
+        try {
+            if (hasUnsavedChanges) {
+                save();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -87,33 +368,149 @@ public class TaskList {
      * @throws MontyException if the index is out of bounds
      */
     public Task markTaskNotDone(int index) throws MontyException {
-        Task task = getTask(index - 1);
-        task.markNotDone();
-        saveTasks();
-        return task;
+        lock.writeLock().lock();
+        try {
+            Task task = taskAt(index - 1);
+            changeDone(new int[] {index - 1}, List.of(task), false);
+            return task;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
-     * Loads tasks from storage and replaces the current task list.
+     * Loads tasks from storage and replaces the current task list. Edits made before cannot be undone afterwards.
      */
     public void loadTasks() {
-        List<Task> loadedTasks = storage.loadTasks();
-        tasks.clear();
-        tasks.addAll(loadedTasks);
+        lock.writeLock().lock();
+        try {
+            List<Task> loadedTasks = storage.loadTasks();
+            tasks.clear();
+            tasks.addAll(loadedTasks);
+            dropIndexes();
+            editLog.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
-     * Saves the current task list to storage.
+     * Sets the done flag of a task and writes it back to a columnar or lazy backing, whose tasks are copies,
+     * to the indexed copy of the task, and to the time index, which keeps deadlines that are not done apart
+     * for the overdue query.
+     * 
+     * @param index the 0-based index of the task
+     * @param task the task object read from the list at that index
+     * @param isDone true to mark the task as done, false to mark it as not done
+     */
+    private void setDone(int index, Task task, boolean isDone) {
+        if (isDone) {
+            task.markDone();
+        } else {
+            task.markNotDone();
+        }
+        if (columnarTasks != null) {
+            columnarTasks.setDone(index, isDone);
+        } else if (lazyTasks != null) {
+            lazyTasks.setDone(index, isDone);
+        }
+        if (indexedTasks != null && indexedTasks != tasks) {
+            Task indexedTask = indexedTasks.get(index);
+            if (isDone) {
+                indexedTask.markDone();
+            } else {
+                indexedTask.markNotDone();
+            }
+        }
+        if (timeIndex != null) {
+            timeIndex.updateDone(indexedTasks.get(index));
+        }
+    }
+
+    /**
+     * Returns the Task objects to build an index from, by list position. For a columnar or lazy list they are
+     * built once and shared by both indexes, so that later changes can find the exact objects the indexes hold.
+     * 
+     * @return the tasks to index
+     */
+    private List<Task> getIndexedTasks() {
+        if (indexedTasks == null) {
+            indexedTasks = columnarTasks != null || lazyTasks != null ? new ArrayList<>(tasks) : tasks;
+        }
+        return indexedTasks;
+    }
+
+    /**
+     * Drops the search and time indexes, so the next query rebuilds them.
+     */
+    private void dropIndexes() {
+        searchIndex = null;
+        timeIndex = null;
+        indexedTasks = null;
+    }
+
+    /**
+     * Records an edit that has just been applied to the task list, so that it can be undone, and persists it.
+     * 
+     * @param edit the edit
+     */
+    private void record(TaskEdit edit) {
+        editLog.record(edit);
+        persist(edit);
+    }
+
+    /**
+     * Persists an edit that has just been applied to the task list.
+     * In journaling mode only the edit's journal record is appended; otherwise the whole list is saved,
+     * in the background if write-behind is enabled, unless the edit can be patched in place.
+     * Nothing is written while auto-save is off.
      * Errors are logged to stderr but do not propagate.
+     * 
+     * @param edit the edit
      */
-    private void saveTasks() {
+    private void persist(TaskEdit edit) {
+        if (!isAutoSaving) {
+            hasUnsavedChanges = true;
+            return;
+        }
+        if (!storage.isJournaling() && patchDoneFlags(edit)) {
+            return;
+        }
         try {
-            storage.saveTasks(tasks);
+            if (storage.isJournaling()) {
+                storage.appendEdit(edit);
+                storage.compactIfNeeded(this::copyTasks);
+            } else if (persister != null) {
+                persister.requestSave();
+            } else {
+                storage.saveTasks(tasks);
+            }
         } catch (IOException e) {
             System.err.println("Error saving tasks: " + e.getMessage());
         }
     }
 
+    /**
+     * Patches a change to done flags into the data file in place, when the file is otherwise up to date,
+     * so that the cost does not grow with the list.
+     * 
+     * @param edit the edit
+     * @return true if the edit was written, false if it is not a change to done flags or still needs saving
+     */
+    private boolean patchDoneFlags(TaskEdit edit) {
+        boolean isDoneEdit = edit.getKind() == TaskEdit.Kind.MARK || edit.getKind() == TaskEdit.Kind.UNMARK;
+        boolean isFileCurrent = !hasUnsavedChanges && (persister == null || !persister.hasPendingSave());
+        if (!isDoneEdit || !isFileCurrent) {
+            return false;
+        }
+        try {
+            return storage.patchDoneFlags(edit.getIndices(), edit.getKind() == TaskEdit.Kind.MARK);
+        } catch (IOException e) {
+            System.err.println("Error updating tasks in place: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Adds a task to the task list and saves to storage.
      * 
@@ -121,11 +518,16 @@ public class TaskList {
      * @throws IllegalArgumentException if task is null
      */
     public void addTask(Task task) {
-        if (task == null) {
-            throw new IllegalArgumentException("Task cannot be null");
+        lock.writeLock().lock();
+        try {
+            if (task == null) {
+                throw new IllegalArgumentException("Task cannot be null");
+            }
+            appendTask(task);
+            record(TaskEdit.add(tasks.size() - 1, task));
+        } finally {
+            lock.writeLock().unlock();
         }
-        tasks.add(task);
-        saveTasks();
     }
 
     /**
@@ -136,10 +538,14 @@ public class TaskList {
      * @throws MontyException if the index is out of bounds
      */
     public Task markTaskDone(int index) throws MontyException {
-        Task task = getTask(index - 1);
-        task.markDone();
-        saveTasks();
-        return task;
+        lock.writeLock().lock();
+        try {
+            Task task = taskAt(index - 1);
+            changeDone(new int[] {index - 1}, List.of(task), true);
+            return task;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -150,35 +556,464 @@ public class TaskList {
      * @throws MontyException if the index is out of bounds
      */
     public Task deleteTask(int index) throws MontyException {
-        Task task = getTask(index - 1);
-        tasks.remove(index - 1);
-        saveTasks();
-        return task;
+        lock.writeLock().lock();
+        try {
+            checkIndices(IndexRanges.of(index));
+            IndexRanges listIndices = IndexRanges.of(index - 1);
+            List<Task> deleted = removeTasks(listIndices);
+            record(TaskEdit.delete(listIndices, deleted));
+            return deleted.get(0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks several tasks as done in one pass and saves to storage once.
+     * 
+     * @param indices the 1-based indices of the tasks to mark as done
+     * @return the tasks that were marked as done, in list order
+     * @throws MontyException if any index is out of bounds, in which case no task is changed
+     */
+    public List<Task> markTasksDone(IndexRanges indices) throws MontyException {
+        lock.writeLock().lock();
+        try {
+            List<Task> marked = getTasks(indices);
+            changeDone(indices.shift(-1).toArray(), marked, true);
+            return marked;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks several tasks as not done in one pass and saves to storage once.
+     * 
+     * @param indices the 1-based indices of the tasks to mark as not done
+     * @return the tasks that were marked as not done, in list order
+     * @throws MontyException if any index is out of bounds, in which case no task is changed
+     */
+    public List<Task> markTasksNotDone(IndexRanges indices) throws MontyException {
+        lock.writeLock().lock();
+        try {
+            List<Task> unmarked = getTasks(indices);
+            changeDone(indices.shift(-1).toArray(), unmarked, false);
+            return unmarked;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes several tasks, compacting the list in a single pass, and saves to storage once.
+     * 
+     * @param indices the 1-based indices of the tasks to delete
+     * @return the tasks that were deleted, in their original order
+     * @throws MontyException if any index is out of bounds, in which case no task is deleted
+     */
+    public List<Task> deleteTasks(IndexRanges indices) throws MontyException {
+        lock.writeLock().lock();
+        try {
+            checkIndices(indices);
+            IndexRanges listIndices = indices.shift(-1);
+            List<Task> deleted = removeTasks(listIndices);
+            record(TaskEdit.delete(listIndices, deleted));
+            return deleted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Undoes the most recent edit that has not been undone yet, and saves to storage.
+     * Edits are kept per list rather than per session, so on a list shared by several sessions
+     * this undoes the latest edit made by any of them. Up to {@value #UNDO_DEPTH} edits can be undone.
+     * 
+     * @return the edit that was undone
+     * @throws MontyException if there is nothing to undo
+     */
+    public TaskEdit undo() throws MontyException {
+        lock.writeLock().lock();
+        try {
+            TaskEdit edit = editLog.undo();
+            if (edit == null) {
+                throw new MontyException("OOPS!!! There is nothing to undo.");
+            }
+            applyEdit(edit.inverse());
+            return edit;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Makes again the edit most recently undone, and saves to storage.
+     * Once a new edit is made, the edits undone before it can no longer be redone.
+     * 
+     * @return the edit that was made again
+     * @throws MontyException if there is nothing to redo
+     */
+    public TaskEdit redo() throws MontyException {
+        lock.writeLock().lock();
+        try {
+            TaskEdit edit = editLog.redo();
+            if (edit == null) {
+                throw new MontyException("OOPS!!! There is nothing to redo.");
+            }
+            applyEdit(edit);
+            return edit;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies an edit from the edit log and persists it, without recording it again.
+     * Since edits are undone and redone strictly in reverse order of how they were made,
+     * the list is in the same state as when the edit was recorded, so its positions still apply.
+     * 
+     * @param edit the edit to apply
+     */
+    private void applyEdit(TaskEdit edit) {
+        IndexRanges listIndices = edit.getIndices();
+        switch (edit.getKind()) {
+            case ADD -> appendTask(edit.getTasks().get(0));
+            case INSERT -> insertTasks(listIndices, edit.getTasks());
+            case DELETE -> removeTasks(listIndices);
+            case MARK, UNMARK -> {
+                int[] indices = listIndices.toArray();
+                for (int i = 0; i < indices.length; i++) {
+                    setDone(indices[i], edit.getTasks().get(i), edit.getKind() == TaskEdit.Kind.MARK);
+                }
+            }
+        }
+        persist(edit);
+    }
+
+    /**
+     * Appends a task to the list and to any built indexes.
+     * 
+     * @param task the task to append
+     */
+    private void appendTask(Task task) {
+        tasks.add(task);
+        if (indexedTasks != null && indexedTasks != tasks) {
+            indexedTasks.add(task);
+        }
+        if (searchIndex != null) {
+            searchIndex.add(task);
+        }
+        if (timeIndex != null) {
+            timeIndex.add(task);
+        }
+    }
+
+    /**
+     * Puts tasks back at the positions they were deleted from.
+     * The indexes are dropped to be rebuilt by the next query, since they give results in the order
+     * tasks were added to them, and tasks put back in the middle of the list would come out of order.
+     * 
+     * @param listIndices the 0-based positions the tasks should end up at
+     * @param restored the tasks, one for each position in ascending order
+     */
+    private void insertTasks(IndexRanges listIndices, List<Task> restored) {
+        listIndices.insertInto(tasks, restored);
+        dropIndexes();
+    }
+
+    /**
+     * Removes the tasks at several positions from the list and from any built indexes.
+     * For a columnar or lazy list, the indexed copies at the same positions are what gets removed from the indexes.
+     * 
+     * @param listIndices the 0-based positions of the tasks, which must all exist
+     * @return the removed tasks, in their original order
+     */
+    private List<Task> removeTasks(IndexRanges listIndices) {
+        List<Task> deleted;
+        if (lazyTasks != null) {
+            deleted = lazyTasks.removeAt(listIndices);
+        } else if (columnarTasks != null) {
+            deleted = columnarTasks.removeAt(listIndices);
+        } else {
+            deleted = listIndices.removeFrom(tasks);
+        }
+        List<Task> unindexed = deleted;
+        if (indexedTasks != null && indexedTasks != tasks) {
+            unindexed = listIndices.removeFrom(indexedTasks);
+        }
+        for (Task task : unindexed) {
+            if (searchIndex != null) {
+                searchIndex.remove(task);
+            }
+            if (timeIndex != null) {
+                timeIndex.remove(task);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Sets the done flag of several tasks, then records and persists the change for the tasks whose flag
+     * actually changed, so that undoing it restores exactly the earlier flags.
+     * Nothing is recorded or saved if every task already had the flag.
+     * 
+     * @param listIndices the 0-based indices of the tasks, in ascending order
+     * @param selected the tasks read from the list at those indices
+     * @param isDone true to mark the tasks as done, false to mark them as not done
+     */
+    private void changeDone(int[] listIndices, List<Task> selected, boolean isDone) {
+        int[] changedIndices = new int[listIndices.length];
+        List<Task> changedTasks = new ArrayList<>();
+        for (int i = 0; i < listIndices.length; i++) {
+            Task task = selected.get(i);
+            if (task.isDone() != isDone) {
+                setDone(listIndices[i], task, isDone);
+                changedIndices[changedTasks.size()] = listIndices[i];
+                changedTasks.add(task);
+            }
+        }
+        if (!changedTasks.isEmpty()) {
+            record(TaskEdit.setDone(IndexRanges.ofSorted(changedIndices, changedTasks.size()), changedTasks, isDone));
+        }
+    }
+
+    /**
+     * Returns the tasks at several indices after checking that all of them exist.
+     * 
+     * @param indices the 1-based indices of the tasks
+     * @return the tasks in list order
+     * @throws MontyException if any index is out of bounds
+     */
+    private List<Task> getTasks(IndexRanges indices) throws MontyException {
+        checkIndices(indices);
+        List<Task> selected = new ArrayList<>(Math.toIntExact(indices.count()));
+        for (int index : indices.toArray()) {
+            selected.add(tasks.get(index - 1));
+        }
+        return selected;
+    }
+
+    /**
+     * Checks that every index in a set refers to an existing task.
+     * 
+     * @param indices the 1-based indices to check
+     * @throws MontyException if any index is out of bounds
+     */
+    private void checkIndices(IndexRanges indices) throws MontyException {
+        taskAt(indices.getMin() - 1);
+        taskAt(indices.getMax() - 1);
+    }
+
+    /**
+     * Visits the tasks matching a query, in the query's order, one page's worth.
+     * The filters are applied task by task as the list is scanned: for a columnar list the type and done columns
+     * are checked first and only the tasks passing them are built, and in list order the scan stops at the first
+     * match past the page, so showing the first page of a long list never reads the rest of it.
+     * Sorting has to see every match, but keeps only the best matches up to the end of the page, in a bounded heap.
+     * <p>
+     * The visitor runs under the read lock, which holds up changes to the list; to write out a long listing
+     * as it is visited, visit a {@link #snapshot()} instead.
+     * 
+     * @param query the filters, order and page
+     * @param visitor called with each task on the page and its 1-based task number
+     * @return true if more matches follow the page
+     */
+    public boolean forEachMatch(TaskQuery query, ObjIntConsumer<Task> visitor) {
+        lock.readLock().lock();
+        try {
+            long pageEnd = query.hasLimit() ? query.getOffset() + query.getLimit() : Long.MAX_VALUE;
+            if (query.getOrder() != null) {
+                return visitSorted(query, pageEnd, visitor);
+            }
+
+            // Matches before the page only need counting, which the columns alone can do if there is no keyword
+            boolean canCountByFlags = columnarTasks != null && query.hasFlagFiltersOnly();
+            long matchCount = 0;
+            for (int i = 0; i < tasks.size(); i++) {
+                if (columnarTasks != null
+                        && !query.matchesFlags(columnarTasks.getTaskType(i), columnarTasks.isDone(i))) {
+                    continue;
+                }
+                boolean isBeforePage = matchCount < query.getOffset();
+                if (isBeforePage && canCountByFlags) {
+                    matchCount++;
+                    continue;
+                }
+                Task task = tasks.get(i);
+                if (!query.matches(task)) {
+                    continue;
+                }
+                if (matchCount == pageEnd) {
+                    return true;
+                }
+                if (!isBeforePage) {
+                    visitor.accept(task, i + 1);
+                }
+                matchCount++;
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits a page of matches in sorted order, keeping only the best matches up to the end of the page
+     * while scanning. The last of them is at the head of the heap, so a better match can replace it.
+     * 
+     * @param query the filters, order and page
+     * @param pageEnd how many of the best matches to keep: those before the page and those on it
+     * @param visitor called with each task on the page and its 1-based task number
+     * @return true if more matches follow the page
+     */
+    private boolean visitSorted(TaskQuery query, long pageEnd, ObjIntConsumer<Task> visitor) {
+        Comparator<Match> order = Comparator.comparing((Match match) -> match.task, query.getOrder())
+                .thenComparingInt(match -> match.number);
+        PriorityQueue<Match> best = new PriorityQueue<>(order.reversed());
+        long matchCount = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (columnarTasks != null
+                    && !query.matchesFlags(columnarTasks.getTaskType(i), columnarTasks.isDone(i))) {
+                continue;
+            }
+            Task task = tasks.get(i);
+            if (!query.matches(task)) {
+                continue;
+            }
+            matchCount++;
+            Match match = new Match(i + 1, task);
+            if (best.size() < pageEnd) {
+                best.add(match);
+            } else if (order.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+
+        Match[] kept = best.toArray(new Match[0]);
+        Arrays.sort(kept, order);
+        for (int i = (int) Math.min(query.getOffset(), kept.length); i < kept.length; i++) {
+            visitor.accept(kept[i].task, kept[i].number);
+        }
+        return matchCount > pageEnd;
     }
 
     /**
      * Finds tasks that contain the given keyword in their description.
-     * The search is case-insensitive.
+     * The search is case-insensitive. The search index is built on the first search
+     * and kept up to date by later additions and deletions.
      * 
      * @param keyword the keyword to search for
      * @return a new TaskList containing matching tasks
      */
     public TaskList findTasks(String keyword) {
-        TaskList matchingTasks = new TaskList();
-        String searchKeyword = keyword.toLowerCase();
-        
-        for (Task task : tasks) {
-            if (task.getDescription().toLowerCase().contains(searchKeyword)) {
-                matchingTasks.addTaskDirectly(task);
+        return queryIndex(() -> searchIndex != null, () -> searchIndex = new SearchIndex(getIndexedTasks()),
+                () -> toTaskList(searchIndex.find(keyword)));
+    }
+
+    /**
+     * Finds the deadlines due on the given date, earliest first.
+     * Only deadlines with a parsed date/time are considered. The time index is built on the first
+     * time-based query and kept up to date by later additions and deletions.
+     * 
+     * @param date the date the deadlines are due on
+     * @return a new TaskList containing the matching deadlines
+     */
+    public TaskList findTasksDue(LocalDate date) {
+        return queryTimeIndex(index -> toTaskList(index.findDeadlinesDue(date.atStartOfDay(), date.atTime(LocalTime.MAX))));
+    }
+
+    /**
+     * Finds the deadlines that are not done and were due before the given time, earliest first.
+     * 
+     * @param now the current time
+     * @return a new TaskList containing the overdue deadlines
+     */
+    public TaskList findOverdueTasks(LocalDateTime now) {
+        return queryTimeIndex(index -> toTaskList(index.findOverdue(now)));
+    }
+
+    /**
+     * Finds the deadlines due and the events overlapping a time range, in time order.
+     * 
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, inclusive
+     * @return a new TaskList containing the matching tasks
+     */
+    public TaskList findTasksBetween(LocalDateTime from, LocalDateTime to) {
+        return queryTimeIndex(index -> toTaskList(index.findBetween(from, to)));
+    }
+
+    /**
+     * Finds every pair of events whose time ranges overlap. Events with free-form times are not checked.
+     * 
+     * @return the clashing pairs, each with the earlier-starting event first
+     */
+    public List<List<Event>> findConflicts() {
+        return queryTimeIndex(TimeIndex::findConflicts);
+    }
+
+    /**
+     * Runs a query against the time index, building the index on first use.
+     * 
+     * @param query the query to run
+     * @param <T> the type of the query result
+     * @return the query result
+     */
+    private <T> T queryTimeIndex(Function<TimeIndex, T> query) {
+        return queryIndex(() -> timeIndex != null, () -> timeIndex = new TimeIndex(getIndexedTasks()),
+                () -> query.apply(timeIndex));
+    }
+
+    /**
+     * Runs a query that needs an index. Once the index is built, queries share the read lock;
+     * the query that finds it missing builds it under the write lock instead, so that concurrent
+     * readers never build it twice or see it half-built.
+     * 
+     * @param isBuilt tells whether the index is built
+     * @param build builds the index
+     * @param query the query to run once the index is built
+     * @param <T> the type of the query result
+     * @return the query result
+     */
+    private <T> T queryIndex(BooleanSupplier isBuilt, Runnable build, Supplier<T> query) {
+        lock.readLock().lock();
+        try {
+            if (isBuilt.getAsBoolean()) {
+                return query.get();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (!isBuilt.getAsBoolean()) {
+                build.run();
             }
+            return query.get();
+        } finally {
+            lock.writeLock().unlock();
         }
-        
-        return matchingTasks;
+    }
+
+    /**
+     * Wraps query results in a TaskList without saving to storage.
+     * 
+     * @param results the tasks to wrap
+     * @return a new TaskList containing the results
+     */
+    private static TaskList toTaskList(List<Task> results) {
+        TaskList resultList = new TaskList();
+        for (Task task : results) {
+            resultList.addTaskDirectly(task);
+        }
+        return resultList;
     }
 
     /**
      * Helper method to add tasks directly without saving to storage.
-     * Used internally by findTasks method to avoid unnecessary persistence.
+     * Used internally to fill result lists, which are not shared until they are returned.
      * 
      * @param task the task to add (null tasks are ignored)
      */
@@ -188,4 +1023,22 @@ public class TaskList {
         }
     }
 
+    /**
+     * A task found by a sorted query, with its task number.
+     */
+    private static class Match {
+        private final int number;
+        private final Task task;
+
+        /**
+         * Constructs a Match.
+         * 
+         * @param number the 1-based task number
+         * @param task the task
+         */
+        private Match(int number, Task task) {
+            this.number = number;
+            this.task = task;
+        }
+    }
 }
@@ -0,0 +1,193 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps named task lists, each in its own data file next to the default list's, e.g. "data/alice.txt"
+ * beside "data/tasks.txt". A named list is loaded when it is first used and stays in memory while it is in use.
+ * Once idle, it stays resident only while the estimated memory of all resident named lists fits the budget;
+ * beyond that, the least recently used idle lists are flushed to disk and dropped, to be reloaded when next used.
+ * The default list is always resident and does not count towards the budget.
+ * <p>
+ * The registry is safe to share between threads. Loading a list holds up other threads' switches between lists,
+ * but not commands on lists already in use.
+ */
+public class TaskListRegistry implements AutoCloseable {
+    private static final Pattern LIST_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final TaskList defaultTasks;
+    private final String defaultName;
+    private final TaskLayout layout;
+    private final long memoryBudgetBytes;
+    private final long writeBehindDelayMillis;
+    // In access order, so iteration starts from the least recently used list
+    private final LinkedHashMap<String, Entry> residentLists;
+
+    private long residentBytes;
+    private long evictionCount;
+
+    /**
+     * Constructs a TaskListRegistry around an already loaded default list.
+     * 
+     * @param defaultTasks the default list, whose storage decides where the named lists are kept and in what format
+     * @param layout how to hold the named lists in memory
+     * @param memoryBudgetBytes the estimated memory the resident named lists may hold before idle ones are dropped
+     * @param writeBehindDelayMillis the write-behind delay for named lists, or 0 to save them on every change
+     */
+    public TaskListRegistry(TaskList defaultTasks, TaskLayout layout, long memoryBudgetBytes,
+            long writeBehindDelayMillis) {
+        this.defaultTasks = defaultTasks;
+        this.defaultName = defaultTasks.getStorage().getListName();
+        this.layout = layout;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.writeBehindDelayMillis = writeBehindDelayMillis;
+        this.residentLists = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the name of the default list.
+     * 
+     * @return the default list's name, e.g. "tasks"
+     */
+    public String getDefaultName() {
+        return defaultName;
+    }
+
+    /**
+     * Returns the default list, which is always resident.
+     * 
+     * @return the default list
+     */
+    public TaskList getDefault() {
+        return defaultTasks;
+    }
+
+    /**
+     * Returns a list by name, loading it if it is not resident, and keeps it in memory until it is released.
+     * Each call must be matched by a call to {@link #release(String)}.
+     * 
+     * @param name the list name: letters, digits, '-' and '_' only
+     * @return the list
+     * @throws MontyException if the name is not valid or the list cannot be loaded
+     */
+    public synchronized TaskList acquire(String name) throws MontyException {
+        if (name.equals(defaultName)) {
+            return defaultTasks;
+        }
+        if (!LIST_NAME.matcher(name).matches()) {
+            throw new MontyException("OOPS!!! A list name can only have letters, digits, '-' and '_'.");
+        }
+
+        Entry entry = residentLists.get(name);
+        if (entry == null) {
+            TaskList tasks = layout.load(defaultTasks.getStorage().forList(name));
+            if (writeBehindDelayMillis > 0) {
+                tasks.enableWriteBehind(writeBehindDelayMillis);
+            }
+            entry = new Entry(tasks);
+            residentLists.put(name, entry);
+        }
+        entry.useCount++;
+        updateEstimate(entry);
+        evictIdleLists();
+        return entry.tasks;
+    }
+
+    /**
+     * Releases a list acquired with {@link #acquire(String)}. Once no one is using it,
+     * it may be flushed and dropped from memory to keep within the budget.
+     * 
+     * @param name the list name
+     */
+    public synchronized void release(String name) {
+        Entry entry = residentLists.get(name);
+        if (entry == null || entry.useCount == 0) {
+            return;
+        }
+        entry.useCount--;
+        updateEstimate(entry);
+        evictIdleLists();
+    }
+
+    /**
+     * Flushes and drops every idle named list, e.g. before the process exits.
+     */
+    @Override
+    public synchronized void close() {
+        Iterator<Entry> entries = residentLists.values().iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry.useCount == 0) {
+                evict(entry);
+                entries.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns a one-line summary of the resident lists.
+     * 
+     * @return the summary, e.g. "Lists: 12 resident, ~3.1 of 256.0 MB budget, 40 evicted"
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("Lists: %d resident, ~%.1f of %.1f MB budget, %d evicted", residentLists.size(),
+                residentBytes / (1024.0 * 1024.0), memoryBudgetBytes / (1024.0 * 1024.0), evictionCount);
+    }
+
+    /**
+     * Re-estimates the memory a list holds, since it may have grown or built an index while in use.
+     * 
+     * @param entry the list's entry
+     */
+    private void updateEstimate(Entry entry) {
+        long bytes = entry.tasks.estimateMemoryBytes();
+        residentBytes += bytes - entry.estimatedBytes;
+        entry.estimatedBytes = bytes;
+    }
+
+    /**
+     * Flushes and drops the least recently used idle lists until the resident lists fit the budget.
+     * Lists in use are skipped, so the resident lists may exceed the budget while many are in use at once.
+     */
+    private void evictIdleLists() {
+        Iterator<Entry> entries = residentLists.values().iterator();
+        while (residentBytes > memoryBudgetBytes && entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry.useCount == 0) {
+                evict(entry);
+                entries.remove();
+            }
+        }
+    }
+
+    /**
+     * Writes a list's changes to storage and stops its background work, accounting for the memory freed.
+     * The caller removes the entry.
+     * 
+     * @param entry the list's entry
+     */
+    private void evict(Entry entry) {
+        entry.tasks.close();
+        residentBytes -= entry.estimatedBytes;
+        evictionCount++;
+    }
+
+    /**
+     * A resident named list, how many users hold it, and its last memory estimate.
+     */
+    private static class Entry {
+        private final TaskList tasks;
+        private int useCount;
+        private long estimatedBytes;
+
+        /**
+         * Constructs an Entry for a freshly loaded list.
+         * 
+         * @param tasks the list
+         */
+        private Entry(TaskList tasks) {
+            this.tasks = tasks;
+        }
+    }
+}
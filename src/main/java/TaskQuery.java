@@ -0,0 +1,171 @@
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * What the {@code list} command shows: which tasks, in what order, and which page of them.
+ * Tasks can be filtered by type, by whether they are done, and by a keyword in their description,
+ * and sorted by one or more keys, with ties kept in list order. See {@link TaskList#forEachMatch}.
+ */
+public class TaskQuery {
+    /** The query for the whole list in list order, as a bare {@code list} shows it. */
+    public static final TaskQuery ALL = new TaskQuery(null, null, null, List.of(), 1, 0);
+
+    /**
+     * The keys tasks can be sorted by.
+     */
+    public enum SortKey {
+        /** Alphabetically by description, ignoring case. */
+        DESCRIPTION(Comparator.comparing(Task::getDescription, String.CASE_INSENSITIVE_ORDER)),
+        /** By deadline due time or event start time; to-dos and free-form times come last. */
+        DATE(Comparator.comparing(TaskQuery::dateOf, Comparator.nullsLast(Comparator.naturalOrder()))),
+        /** Deadlines, then events, then to-dos. */
+        TYPE(Comparator.comparing(Task::getTaskType)),
+        /** Tasks not done yet first. */
+        DONE(Comparator.comparing(Task::isDone));
+
+        private final Comparator<Task> order;
+
+        /**
+         * Constructs a SortKey.
+         * 
+         * @param order the order the key sorts tasks in
+         */
+        SortKey(Comparator<Task> order) {
+            this.order = order;
+        }
+    }
+
+    private final String taskType;
+    private final Boolean isDone;
+    private final String keyword;
+    private final Comparator<Task> order;
+    private final int page;
+    private final int limit;
+
+    /**
+     * Constructs a TaskQuery.
+     * 
+     * @param taskType the task type identifier ("T", "D" or "E") to keep, or null for every type
+     * @param isDone true to keep only done tasks, false to keep only tasks not done yet, or null for both
+     * @param keyword the text descriptions must contain, ignoring case, or null for any description
+     * @param sortKeys the keys to sort by, most significant first, or an empty list to keep list order
+     * @param page the 1-based page to show
+     * @param limit the number of tasks per page, or 0 to show every match on one page
+     */
+    public TaskQuery(String taskType, Boolean isDone, String keyword, List<SortKey> sortKeys, int page, int limit) {
+        this.taskType = taskType;
+        this.isDone = isDone;
+        this.keyword = keyword == null ? null : keyword.toLowerCase();
+        Comparator<Task> combinedOrder = null;
+        for (SortKey key : sortKeys) {
+            combinedOrder = combinedOrder == null ? key.order : combinedOrder.thenComparing(key.order);
+        }
+        this.order = combinedOrder;
+        this.page = page;
+        this.limit = limit;
+    }
+
+    /**
+     * Checks whether a task passes the filters that can be decided without building it from a compact layout:
+     * its type and done flag.
+     * 
+     * @param type the task's type identifier
+     * @param isTaskDone whether the task is done
+     * @return true if the task passes those filters
+     */
+    public boolean matchesFlags(String type, boolean isTaskDone) {
+        return (taskType == null || taskType.equals(type)) && (isDone == null || isDone == isTaskDone);
+    }
+
+    /**
+     * Checks whether a task passes every filter.
+     * 
+     * @param task the task to check
+     * @return true if the task is to be shown
+     */
+    public boolean matches(Task task) {
+        return matchesFlags(task.getTaskType(), task.isDone())
+                && (keyword == null || task.getDescription().toLowerCase().contains(keyword));
+    }
+
+    /**
+     * Returns whether the query leaves out any tasks.
+     * 
+     * @return true if a filter is set, false if every task matches
+     */
+    public boolean isFiltered() {
+        return taskType != null || isDone != null || keyword != null;
+    }
+
+    /**
+     * Returns whether the query only checks the type and done flag, so that a compact layout can decide
+     * which tasks match without building any.
+     * 
+     * @return true if no keyword is set
+     */
+    public boolean hasFlagFiltersOnly() {
+        return keyword == null;
+    }
+
+    /**
+     * Returns the order to show matches in.
+     * 
+     * @return the comparator, or null to keep list order
+     */
+    public Comparator<Task> getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns the page to show.
+     * 
+     * @return the 1-based page number
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Returns whether matches are shown a page at a time.
+     * 
+     * @return true if there is a page size, false if every match is shown
+     */
+    public boolean hasLimit() {
+        return limit > 0;
+    }
+
+    /**
+     * Returns the number of tasks per page.
+     * 
+     * @return the page size, or 0 if every match is shown
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns how many matches come before the page.
+     * 
+     * @return the number of matches to skip
+     */
+    public long getOffset() {
+        return (long) (page - 1) * limit;
+    }
+
+    /**
+     * Returns the time a task is sorted by: a deadline's due time or an event's start time.
+     * 
+     * @param task the task
+     * @return the time, or null for a to-do or a free-form time
+     */
+    private static LocalDateTime dateOf(Task task) {
+        if (task instanceof Deadline deadline) {
+            return deadline.getDueDateTime();
+        }
+        if (task instanceof Event event) {
+            return event.getStartDateTime();
+        }
+        return null;
+    }
+}
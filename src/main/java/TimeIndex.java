@@ -0,0 +1,194 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A sorted index of deadlines by due date/time, and an interval tree of events by their time ranges.
+ * Only tasks whose times parse into java.time values are indexed; free-form times are left out.
+ * Range lookups cost a logarithmic search plus the size of the result, instead of a scan of the whole list.
+ * Deadlines that are not done are also kept in a map of their own, so that finding overdue deadlines
+ * never passes over done ones; {@link #updateDone(Task)} must be called whenever a deadline is marked or unmarked.
+ */
+public class TimeIndex {
+    private final TreeMap<LocalDateTime, List<Deadline>> deadlinesByDue;
+    // The deadlines of deadlinesByDue that are not done, in the same order within each bucket
+    private final TreeMap<LocalDateTime, List<Deadline>> undoneDeadlinesByDue;
+    private final IntervalTree<Event> eventsByRange;
+
+    /**
+     * Constructs a TimeIndex over the given tasks.
+     * 
+     * @param tasks the tasks to index
+     */
+    public TimeIndex(List<Task> tasks) {
+        this.deadlinesByDue = new TreeMap<>();
+        this.undoneDeadlinesByDue = new TreeMap<>();
+        this.eventsByRange = new IntervalTree<>();
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Adds a task to the index if it has a parsed date/time.
+     * 
+     * @param task the task to index
+     */
+    public void add(Task task) {
+        if (task instanceof Deadline deadline && deadline.getDueDateTime() != null) {
+            deadlinesByDue.computeIfAbsent(deadline.getDueDateTime(), key -> new ArrayList<>()).add(deadline);
+            if (!deadline.isDone()) {
+                undoneDeadlinesByDue.computeIfAbsent(deadline.getDueDateTime(), key -> new ArrayList<>()).add(deadline);
+            }
+        } else if (task instanceof Event event && event.getStartDateTime() != null) {
+            eventsByRange.add(event, event.getStartDateTime(), event.getEndDateTime());
+        }
+    }
+
+    /**
+     * Removes a task that was deleted from the task list.
+     * 
+     * @param task the task to remove from the index
+     */
+    public void remove(Task task) {
+        if (task instanceof Deadline deadline && deadline.getDueDateTime() != null) {
+            removeEntry(deadlinesByDue, deadline.getDueDateTime(), deadline);
+            removeEntry(undoneDeadlinesByDue, deadline.getDueDateTime(), deadline);
+        } else if (task instanceof Event event) {
+            eventsByRange.remove(event);
+        }
+    }
+
+    /**
+     * Brings the index up to date after an indexed task has been marked or unmarked.
+     * Only the bucket of deadlines due at the same time as the task is looked at.
+     * 
+     * @param task the indexed task whose done flag has just been set
+     */
+    public void updateDone(Task task) {
+        if (!(task instanceof Deadline deadline) || deadline.getDueDateTime() == null) {
+            return;
+        }
+        LocalDateTime due = deadline.getDueDateTime();
+        List<Deadline> undone = new ArrayList<>();
+        for (Deadline sameTime : deadlinesByDue.getOrDefault(due, List.of())) {
+            if (!sameTime.isDone()) {
+                undone.add(sameTime);
+            }
+        }
+        if (undone.isEmpty()) {
+            undoneDeadlinesByDue.remove(due);
+        } else {
+            undoneDeadlinesByDue.put(due, undone);
+        }
+    }
+
+    /**
+     * Finds the deadlines due within a time range, earliest first.
+     * 
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, inclusive
+     * @return the matching deadlines
+     */
+    public List<Task> findDeadlinesDue(LocalDateTime from, LocalDateTime to) {
+        return collect(deadlinesByDue.subMap(from, true, to, true));
+    }
+
+    /**
+     * Finds the deadlines that are not done and were due before the given time, earliest first.
+     * Done deadlines are not indexed here, so the cost is a logarithmic search plus the number of overdue deadlines.
+     * 
+     * @param now the current time
+     * @return the overdue deadlines
+     */
+    public List<Task> findOverdue(LocalDateTime now) {
+        return collect(undoneDeadlinesByDue.headMap(now, false));
+    }
+
+    /**
+     * Finds the deadlines due and the events taking place within a time range, in time order.
+     * An event takes place within the range if any part of it overlaps the range.
+     * 
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, inclusive
+     * @return the matching tasks
+     */
+    public List<Task> findBetween(LocalDateTime from, LocalDateTime to) {
+        List<Task> deadlines = findDeadlinesDue(from, to);
+        List<Task> events = new ArrayList<>(eventsByRange.findOverlapping(from, to));
+        return mergeByTime(deadlines, events);
+    }
+
+    /**
+     * Finds every pair of events whose time ranges overlap.
+     * 
+     * @return the clashing pairs, each with the earlier-starting event first, ordered by that event's start
+     */
+    public List<List<Event>> findConflicts() {
+        return eventsByRange.findOverlappingPairs();
+    }
+
+    /**
+     * Flattens the buckets of a map view into one list, in key order.
+     * 
+     * @param buckets the map view to flatten
+     * @return the tasks in the view
+     */
+    private static List<Task> collect(NavigableMap<LocalDateTime, ? extends List<? extends Task>> buckets) {
+        List<Task> result = new ArrayList<>();
+        for (List<? extends Task> bucket : buckets.values()) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+
+    /**
+     * Merges deadlines and events, each already in time order, into one time-ordered list.
+     * Events are placed by their start date/time.
+     * A deadline and an event at the same time keep the deadline first.
+     * 
+     * @param deadlines the deadlines, ordered by due date/time
+     * @param events the events, ordered by start date/time
+     * @return the merged list
+     */
+    private static List<Task> mergeByTime(List<Task> deadlines, List<Task> events) {
+        List<Task> merged = new ArrayList<>(deadlines.size() + events.size());
+        int d = 0;
+        int e = 0;
+        while (d < deadlines.size() && e < events.size()) {
+            LocalDateTime due = ((Deadline) deadlines.get(d)).getDueDateTime();
+            LocalDateTime start = ((Event) events.get(e)).getStartDateTime();
+            merged.add(!start.isBefore(due) ? deadlines.get(d++) : events.get(e++));
+        }
+        merged.addAll(deadlines.subList(d, deadlines.size()));
+        merged.addAll(events.subList(e, events.size()));
+        return merged;
+    }
+
+    /**
+     * Removes one task from its bucket, dropping the bucket once it is empty.
+     * Tasks are matched by identity, since equal-looking tasks may both be in the list.
+     * 
+     * @param buckets the map holding the bucket
+     * @param key the bucket key
+     * @param task the task to remove
+     * @param <T> the task type of the buckets
+     */
+    private static <T extends Task> void removeEntry(TreeMap<LocalDateTime, List<T>> buckets, LocalDateTime key, T task) {
+        List<T> bucket = buckets.get(key);
+        if (bucket == null) {
+            return;
+        }
+        for (int i = 0; i < bucket.size(); i++) {
+            if (bucket.get(i) == task) {
+                bucket.remove(i);
+                break;
+            }
+        }
+        if (bucket.isEmpty()) {
+            buckets.remove(key);
+        }
+    }
+}
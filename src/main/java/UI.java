@@ -1,19 +1,64 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.List;
 import java.util.Scanner;
 
 /**
  * Handles all user interface operations for the Monty chatbot.
  * Provides methods for displaying messages, reading user input, and formatting output.
+ * Output is rendered into a reusable buffer and written out in one flush before the next command is read,
+ * instead of one console write per line. Long listings are streamed out whenever the buffer fills up,
+ * so memory stays bounded however many tasks are shown.
  */
 public class UI {
     private static final String DIVIDER = "____________________________________________________________";
+    private static final int STREAM_THRESHOLD_CHARS = 32 * 1024;
+    private static final String END_OF_RESPONSE = ".";
     
     private final Scanner scanner;
+    private final Writer writer;
+    private final StringBuilder buffer;
+    private final char[] chunk;
+    private final int streamThresholdChars;
 
     /**
-     * Constructs a new UI instance with a Scanner for reading user input.
+     * Constructs a new UI instance reading from standard input and writing to standard output.
      */
     public UI() {
-        this.scanner = new Scanner(System.in);
+        this(System.in, System.out);
+    }
+
+    /**
+     * Constructs a new UI instance with a Scanner for reading user input from the given stream
+     * and a buffered renderer writing to the given stream.
+     * 
+     * @param in the stream to read commands from
+     * @param out the stream to write responses to
+     */
+    public UI(InputStream in, OutputStream out) {
+        this(in, out, STREAM_THRESHOLD_CHARS);
+    }
+
+    /**
+     * Constructs a new UI instance that streams output out whenever the given number of characters is pending.
+     * A small threshold keeps the footprint of each UI low when many are open at once, e.g. one per connection.
+     * 
+     * @param in the stream to read commands from
+     * @param out the stream to write responses to
+     * @param streamThresholdChars how many characters of output to gather before streaming them out
+     */
+    public UI(InputStream in, OutputStream out, int streamThresholdChars) {
+        this.scanner = new Scanner(in);
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()),
+                streamThresholdChars * 2);
+        this.buffer = new StringBuilder(streamThresholdChars);
+        this.chunk = new char[streamThresholdChars];
+        this.streamThresholdChars = streamThresholdChars;
     }
 
     /**
@@ -27,20 +72,45 @@ public class UI {
                 | |  | | (_) | | | | |_| |_| | 
                 |_|  |_|\\___/|_| |_|\\__|\\__,_| 
                 """;
-        System.out.println("Hello from\n" + logo);
-        System.out.println("Hello! I'm Monty");
-        System.out.println("What can I do for you?");
+        appendLine("Hello from\n" + logo);
+        appendLine("Hello! I'm Monty");
+        appendLine("What can I do for you?");
     }
 
     /**
      * Reads a command from the user input.
+     * Any pending output is flushed first so the user sees the full response before being prompted.
      * 
      * @return the command entered by the user
      */
     public String readCommand() {
+        flush();
         return scanner.nextLine();
     }
 
+    /**
+     * Checks whether there is another command to read, waiting for one if necessary.
+     * Any pending output is flushed first so the user sees the full response before being prompted.
+     * 
+     * @return true if a command can be read, false if the input has ended
+     */
+    public boolean hasNextCommand() {
+        flush();
+        return scanner.hasNextLine();
+    }
+
+    /**
+     * Writes all pending output and flushes it to the underlying stream.
+     */
+    public void flush() {
+        try {
+            writeBuffer();
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing output: " + e.getMessage());
+        }
+    }
+
     /**
      * Displays a goodbye message to the user.
      */
@@ -54,9 +124,9 @@ public class UI {
      * @param message the message to display
      */
     public void showMessage(String message) {
-        System.out.println(DIVIDER);
-        System.out.println(" " + message);
-        System.out.println(DIVIDER);
+        appendLine(DIVIDER);
+        appendLine(" " + message);
+        appendLine(DIVIDER);
     }
 
     /**
@@ -66,33 +136,83 @@ public class UI {
      * @param totalTasks the total number of tasks in the list
      */
     public void showTaskAdded(Task task, int totalTasks) {
-        System.out.println(DIVIDER);
-        System.out.println(" Got it. I've added this task:");
-        System.out.println("   " + task);
-        System.out.println(" Now you have " + totalTasks + " tasks in the list.");
-        System.out.println(DIVIDER);
+        appendLine(DIVIDER);
+        appendLine(" Got it. I've added this task:");
+        appendLine("   " + task);
+        appendLine(" Now you have " + totalTasks + " tasks in the list.");
+        appendLine(DIVIDER);
     }
 
     /**
-     * Displays all tasks in the task list.
+     * Displays the tasks matching a query, each with its task number, followed by a hint if more matches follow.
+     * Tasks are written out as they are visited, so a long listing is never held in memory all at once.
+     * Since the visit holds the list's read lock, pass a {@link TaskList#snapshot()} unless the list is not shared.
      * 
      * @param tasks the task list to display
+     * @param query the filters, order and page to show
      */
-    public void showTaskList(TaskList tasks) {
-        System.out.println(DIVIDER);
-        if (tasks.isEmpty()) {
-            System.out.println(" Your task list is empty.");
-        } else {
-            System.out.println(" Here are the tasks in your list:");
-            for (int i = 0; i < tasks.getSize(); i++) {
-                try {
-                    System.out.println(" " + (i + 1) + "." + tasks.getTask(i));
-                } catch (MontyException e) {
-                    System.out.println(" " + (i + 1) + ". [Error loading task: " + e.getMessage() + "]");
-                }
+    public void showTaskList(TaskList tasks, TaskQuery query) {
+        appendLine(DIVIDER);
+        int[] shownCount = new int[1];
+        boolean hasMore = tasks.forEachMatch(query, (task, number) -> appendMatch(task, number, shownCount[0]++, query));
+        appendListEnd(shownCount[0], hasMore, query);
+    }
+
+    /**
+     * Displays a page of matching tasks that has already been collected from the list,
+     * each with its task number, followed by a hint if more matches follow.
+     * 
+     * @param tasks the tasks on the page, in the order to show them
+     * @param numbers the 1-based task number of each task on the page
+     * @param hasMore true if more matches follow the page
+     * @param query the filters, order and page the tasks were collected with
+     */
+    public void showTaskPage(List<Task> tasks, List<Integer> numbers, boolean hasMore, TaskQuery query) {
+        appendLine(DIVIDER);
+        for (int i = 0; i < tasks.size(); i++) {
+            appendMatch(tasks.get(i), numbers.get(i), i, query);
+        }
+        appendListEnd(tasks.size(), hasMore, query);
+    }
+
+    /**
+     * Appends one task of a listing, preceded by the heading if it is the first.
+     * 
+     * @param task the task
+     * @param number the 1-based task number
+     * @param position the 0-based position of the task in the listing
+     * @param query the filters, order and page being shown
+     */
+    private void appendMatch(Task task, int number, int position, TaskQuery query) {
+        if (position == 0) {
+            appendLine(query.isFiltered()
+                    ? " Here are the matching tasks in your list:"
+                    : " Here are the tasks in your list:");
+        }
+        appendTaskLine(number, task);
+    }
+
+    /**
+     * Appends the end of a listing: a note if nothing was shown, and a hint if more matches follow.
+     * 
+     * @param shownCount the number of tasks shown
+     * @param hasMore true if more matches follow the page
+     * @param query the filters, order and page being shown
+     */
+    private void appendListEnd(int shownCount, boolean hasMore, TaskQuery query) {
+        if (shownCount == 0) {
+            if (query.getPage() > 1) {
+                appendLine(" There are no tasks on page " + query.getPage() + ".");
+            } else if (query.isFiltered()) {
+                appendLine(" None of your tasks match.");
+            } else {
+                appendLine(" Your task list is empty.");
             }
         }
-        System.out.println(DIVIDER);
+        if (hasMore) {
+            appendLine(" There are more; use --page " + (query.getPage() + 1) + " to see them.");
+        }
+        appendLine(DIVIDER);
     }
 
     /**
@@ -101,10 +221,10 @@ public class UI {
      * @param task the task that was marked as done
      */
     public void showTaskMarkedDone(Task task) {
-        System.out.println(DIVIDER);
-        System.out.println(" Nice! I've marked this task as done:");
-        System.out.println("   " + task);
-        System.out.println(DIVIDER);
+        appendLine(DIVIDER);
+        appendLine(" Nice! I've marked this task as done:");
+        appendLine("   " + task);
+        appendLine(DIVIDER);
     }
 
     /**
@@ -113,10 +233,10 @@ public class UI {
      * @param task the task that was marked as not done
      */
     public void showTaskMarkedNotDone(Task task) {
-        System.out.println(DIVIDER);
-        System.out.println(" OK, I've marked this task as not done yet:");
-        System.out.println("   " + task);
-        System.out.println(DIVIDER);
+        appendLine(DIVIDER);
+        appendLine(" OK, I've marked this task as not done yet:");
+        appendLine("   " + task);
+        appendLine(DIVIDER);
     }
 
     /**
@@ -126,11 +246,98 @@ public class UI {
      * @param remainingTasks the number of tasks remaining in the list
      */
     public void showTaskDeleted(Task task, int remainingTasks) {
-        System.out.println(DIVIDER);
-        System.out.println(" Noted. I've removed this task:");
-        System.out.println("   " + task);
-        System.out.println(" Now you have " + remainingTasks + " tasks in the list.");
-        System.out.println(DIVIDER);
+        appendLine(DIVIDER);
+        appendLine(" Noted. I've removed this task:");
+        appendLine("   " + task);
+        appendLine(" Now you have " + remainingTasks + " tasks in the list.");
+        appendLine(DIVIDER);
+    }
+
+    /**
+     * Displays a message confirming that several tasks have been marked as done.
+     * 
+     * @param tasks the tasks that were marked as done
+     */
+    public void showTasksMarkedDone(List<Task> tasks) {
+        showTaskBatch(" Nice! I've marked these " + tasks.size() + " tasks as done:", tasks);
+        appendLine(DIVIDER);
+    }
+
+    /**
+     * Displays a message confirming that several tasks have been marked as not done.
+     * 
+     * @param tasks the tasks that were marked as not done
+     */
+    public void showTasksMarkedNotDone(List<Task> tasks) {
+        showTaskBatch(" OK, I've marked these " + tasks.size() + " tasks as not done yet:", tasks);
+        appendLine(DIVIDER);
+    }
+
+    /**
+     * Displays a message confirming that several tasks have been deleted.
+     * 
+     * @param tasks the tasks that were deleted
+     * @param remainingTasks the number of tasks remaining in the list
+     */
+    public void showTasksDeleted(List<Task> tasks, int remainingTasks) {
+        showTaskBatch(" Noted. I've removed these " + tasks.size() + " tasks:", tasks);
+        appendLine(" Now you have " + remainingTasks + " tasks in the list.");
+        appendLine(DIVIDER);
+    }
+
+    /**
+     * Displays a message confirming that an edit has been undone.
+     * 
+     * @param edit the edit that was undone
+     * @param totalTasks the total number of tasks in the list afterwards
+     */
+    public void showEditUndone(TaskEdit edit, int totalTasks) {
+        int count = edit.getTasks().size();
+        String tasksNoun = count == 1 ? "this task" : "these " + count + " tasks";
+        String heading = switch (edit.getKind()) {
+            case ADD, INSERT -> " Undone. I've removed " + tasksNoun + " again:";
+            case DELETE -> " Undone. I've put back " + tasksNoun + ":";
+            case MARK -> " Undone. I've marked " + tasksNoun + " as not done again:";
+            case UNMARK -> " Undone. I've marked " + tasksNoun + " as done again:";
+        };
+        showTaskBatch(heading, edit.getTasks());
+        appendLine(" Now you have " + totalTasks + " tasks in the list.");
+        appendLine(DIVIDER);
+    }
+
+    /**
+     * Displays a message confirming that an undone edit has been made again.
+     * 
+     * @param edit the edit that was made again
+     * @param totalTasks the total number of tasks in the list afterwards
+     */
+    public void showEditRedone(TaskEdit edit, int totalTasks) {
+        int count = edit.getTasks().size();
+        String tasksNoun = count == 1 ? "this task" : "these " + count + " tasks";
+        String heading = switch (edit.getKind()) {
+            case ADD, INSERT -> " Redone. I've added " + tasksNoun + " back:";
+            case DELETE -> " Redone. I've removed " + tasksNoun + " again:";
+            case MARK -> " Redone. I've marked " + tasksNoun + " as done:";
+            case UNMARK -> " Redone. I've marked " + tasksNoun + " as not done:";
+        };
+        showTaskBatch(heading, edit.getTasks());
+        appendLine(" Now you have " + totalTasks + " tasks in the list.");
+        appendLine(DIVIDER);
+    }
+
+    /**
+     * Appends the opening divider, a heading and one indented line per task.
+     * 
+     * @param heading the heading line
+     * @param tasks the tasks to show
+     */
+    private void showTaskBatch(String heading, List<Task> tasks) {
+        appendLine(DIVIDER);
+        appendLine(heading);
+        for (Task task : tasks) {
+            buffer.append("   ").append(task).append(System.lineSeparator());
+            streamIfFull();
+        }
     }
 
     /**
@@ -139,16 +346,24 @@ public class UI {
      * @param error the error message to display
      */
     public void showError(String error) {
-        System.out.println(DIVIDER);
-        System.out.println(" " + error);
-        System.out.println(DIVIDER);
+        appendLine(DIVIDER);
+        appendLine(" " + error);
+        appendLine(DIVIDER);
     }
 
     /**
      * Displays a divider line.
      */
     public void showLine() {
-        System.out.println(DIVIDER);
+        appendLine(DIVIDER);
+    }
+
+    /**
+     * Marks the end of a response with a line holding a single dot, so that a client reading over a socket
+     * knows when to send its next command. No other line of output consists of just a dot.
+     */
+    public void showEndOfResponse() {
+        appendLine(END_OF_RESPONSE);
     }
 
     /**
@@ -165,26 +380,152 @@ public class UI {
      * @param keyword the keyword that was searched for
      */
     public void showFoundTasks(TaskList matchingTasks, String keyword) {
-        System.out.println(DIVIDER);
+        showMatchingTasks(matchingTasks, " Here are the matching tasks in your list:",
+                " No tasks found containing the keyword: \"" + keyword + "\"");
+    }
+
+    /**
+     * Displays the deadlines due on a date.
+     * 
+     * @param dueTasks the deadlines due on the date
+     * @param date the date as entered by the user
+     */
+    public void showTasksDue(TaskList dueTasks, String date) {
+        showMatchingTasks(dueTasks, " Here are the tasks due on " + date + ":", " Nothing is due on " + date + ".");
+    }
+
+    /**
+     * Displays the deadlines that are overdue.
+     * 
+     * @param overdueTasks the overdue deadlines
+     */
+    public void showOverdueTasks(TaskList overdueTasks) {
+        showMatchingTasks(overdueTasks, " These tasks are overdue:", " Nothing is overdue. Well done!");
+    }
+
+    /**
+     * Displays the tasks falling within a time range.
+     * 
+     * @param matchingTasks the tasks within the range
+     * @param from the start of the range as entered by the user
+     * @param to the end of the range as entered by the user
+     */
+    public void showTasksBetween(TaskList matchingTasks, String from, String to) {
+        showMatchingTasks(matchingTasks, " Here are the tasks between " + from + " and " + to + ":",
+                " No tasks found between " + from + " and " + to + ".");
+    }
+
+    /**
+     * Displays pairs of events whose times clash.
+     * 
+     * @param conflicts the clashing pairs, each with the earlier-starting event first
+     */
+    public void showConflicts(List<List<Event>> conflicts) {
+        appendLine(DIVIDER);
+        if (conflicts.isEmpty()) {
+            appendLine(" None of your events clash.");
+        } else {
+            appendLine(" These events clash:");
+            for (int i = 0; i < conflicts.size(); i++) {
+                List<Event> pair = conflicts.get(i);
+                appendLine(" " + (i + 1) + "." + pair.get(0));
+                appendLine("   " + pair.get(1));
+            }
+        }
+        appendLine(DIVIDER);
+    }
+
+    /**
+     * Displays the recorded metrics, one line per command type and subsystem.
+     * 
+     * @param lines the summary lines
+     */
+    public void showStatistics(List<String> lines) {
+        appendLine(DIVIDER);
+        appendLine(" Here is where the time went so far:");
+        for (String line : lines) {
+            appendLine("   " + line);
+        }
+        appendLine(DIVIDER);
+    }
+
+    /**
+     * Displays a numbered list of query results, or a message if there are none.
+     * 
+     * @param matchingTasks the tasks to display
+     * @param heading the line shown above the results
+     * @param emptyMessage the line shown when there are no results
+     */
+    private void showMatchingTasks(TaskList matchingTasks, String heading, String emptyMessage) {
+        appendLine(DIVIDER);
         if (matchingTasks.isEmpty()) {
-            System.out.println(" No tasks found containing the keyword: \"" + keyword + "\"");
+            appendLine(emptyMessage);
         } else {
-            System.out.println(" Here are the matching tasks in your list:");
+            appendLine(heading);
             for (int i = 0; i < matchingTasks.getSize(); i++) {
                 try {
-                    System.out.println(" " + (i + 1) + "." + matchingTasks.getTask(i));
+                    appendTaskLine(i + 1, matchingTasks.getTask(i));
                 } catch (MontyException e) {
-                    System.out.println(" " + (i + 1) + ". [Error loading task: " + e.getMessage() + "]");
+                    appendLine(" " + (i + 1) + ". [Error loading task: " + e.getMessage() + "]");
                 }
             }
         }
-        System.out.println(DIVIDER);
+        appendLine(DIVIDER);
     }
 
     /**
-     * Closes the scanner and releases system resources.
+     * Flushes pending output, closes the scanner and releases system resources.
      */
     public void close() {
+        flush();
         scanner.close();
     }
+
+    /**
+     * Appends a line to the output buffer.
+     * 
+     * @param line the line to append, without a line separator
+     */
+    private void appendLine(String line) {
+        buffer.append(line).append(System.lineSeparator());
+        streamIfFull();
+    }
+
+    /**
+     * Appends a numbered task line, e.g. " 3.[T][ ] read book", without building an intermediate string.
+     * 
+     * @param number the 1-based number to show
+     * @param task the task to show
+     */
+    private void appendTaskLine(int number, Task task) {
+        buffer.append(' ').append(number).append('.').append(task).append(System.lineSeparator());
+        streamIfFull();
+    }
+
+    /**
+     * Streams the output buffer out if it has grown past the threshold, keeping memory bounded for long listings.
+     */
+    private void streamIfFull() {
+        if (buffer.length() >= streamThresholdChars) {
+            try {
+                writeBuffer();
+            } catch (IOException e) {
+                System.err.println("Error writing output: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Moves the contents of the output buffer into the writer and clears the buffer.
+     * 
+     * @throws IOException if there is an error writing the output
+     */
+    private void writeBuffer() throws IOException {
+        for (int start = 0; start < buffer.length(); start += chunk.length) {
+            int end = Math.min(start + chunk.length, buffer.length());
+            buffer.getChars(start, end, chunk, 0);
+            writer.write(chunk, 0, end - start);
+        }
+        buffer.setLength(0);
+    }
 }
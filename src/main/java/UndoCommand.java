@@ -0,0 +1,18 @@
+/**
+ * Command to undo the most recent change to the task list.
+ */
+public class UndoCommand extends Command {
+    /**
+     * Executes the undo command by reverting the most recent edit and showing what was reverted.
+     * 
+     * @param tasks the task list to undo the edit in
+     * @param ui the user interface for displaying confirmation
+     * @param storage the storage component (not used in this command)
+     * @throws MontyException if there is nothing to undo
+     */
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) throws MontyException {
+        TaskEdit edit = tasks.undo();
+        ui.showEditUndone(edit, tasks.getSize());
+    }
+}
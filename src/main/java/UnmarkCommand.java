@@ -1,8 +1,10 @@
+import java.util.List;
+
 /**
- * Command to mark a task as not completed.
+ * Command to mark one or more tasks as not completed.
  */
 public class UnmarkCommand extends Command {
-    private final int taskIndex;
+    private final IndexRanges taskIndices;
 
     /**
      * Constructs an UnmarkCommand with the index of the task to mark as not done.
@@ -10,7 +12,16 @@ public class UnmarkCommand extends Command {
      * @param taskIndex the 1-based index of the task to mark as not done
      */
     public UnmarkCommand(int taskIndex) {
-        this.taskIndex = taskIndex;
+        this(IndexRanges.of(taskIndex));
+    }
+
+    /**
+     * Constructs an UnmarkCommand with the indices of several tasks to mark as not done.
+     * 
+     * @param taskIndices the 1-based indices of the tasks to mark as not done
+     */
+    public UnmarkCommand(IndexRanges taskIndices) {
+        this.taskIndices = taskIndices;
     }
 
     /**
@@ -23,7 +34,12 @@ public class UnmarkCommand extends Command {
      */
     @Override
     public void execute(TaskList tasks, UI ui, Storage storage) throws MontyException {
-        Task task = tasks.markTaskNotDone(taskIndex);
-        ui.showTaskMarkedNotDone(task);
+        if (taskIndices.isSingle()) {
+            Task task = tasks.markTaskNotDone(taskIndices.getMin());
+            ui.showTaskMarkedNotDone(task);
+            return;
+        }
+        List<Task> unmarked = tasks.markTasksNotDone(taskIndices);
+        ui.showTasksMarkedNotDone(unmarked);
     }
 }
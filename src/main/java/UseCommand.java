@@ -0,0 +1,39 @@
+/**
+ * Command to switch the session to another named task list, or to show which list it is working on.
+ */
+public class UseCommand extends Command {
+    private final String listName;
+
+    /**
+     * Constructs a UseCommand.
+     * 
+     * @param listName the name of the list to switch to, or null to stay on the current list
+     */
+    public UseCommand(String listName) {
+        this.listName = listName;
+    }
+
+    /**
+     * Executes the use command by showing the list the session is now working on.
+     * The switch itself has already happened by the time the command runs.
+     * 
+     * @param tasks the task list now in use
+     * @param ui the user interface for displaying the message
+     * @param storage the storage of the list now in use
+     */
+    @Override
+    public void execute(TaskList tasks, UI ui, Storage storage) {
+        ui.showMessage("Now working on the list \"" + storage.getListName() + "\", which has "
+                + tasks.getSize() + " tasks.");
+    }
+
+    /**
+     * Returns the list to switch to before this command runs.
+     * 
+     * @return the list name, or null to stay on the current list
+     */
+    @Override
+    public String getListToUse() {
+        return listName;
+    }
+}
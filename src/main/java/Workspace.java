@@ -0,0 +1,61 @@
+/**
+ * The task list one session is working on, chosen by name from a {@link TaskListRegistry}.
+ * A session starts on the default list and switches with the {@code use} command; the list it is on
+ * stays in memory until it switches away or the workspace is closed.
+ * A Workspace belongs to a single session and is not safe to share between threads.
+ */
+public class Workspace implements AutoCloseable {
+    private final TaskListRegistry registry;
+    private String listName;
+    private TaskList tasks;
+
+    /**
+     * Constructs a Workspace on the registry's default list.
+     * 
+     * @param registry the registry to take lists from
+     */
+    public Workspace(TaskListRegistry registry) {
+        this.registry = registry;
+        this.listName = registry.getDefaultName();
+        this.tasks = registry.getDefault();
+    }
+
+    /**
+     * Returns the list the session is working on.
+     * 
+     * @return the current task list
+     */
+    public TaskList getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Returns the storage of the list the session is working on.
+     * 
+     * @return the current list's storage
+     */
+    public Storage getStorage() {
+        return tasks.getStorage();
+    }
+
+    /**
+     * Switches to another list, loading it if needed. The list switched away from may then be dropped from memory.
+     * 
+     * @param name the name of the list to work on
+     * @throws MontyException if the name is not valid or the list cannot be loaded; the current list is kept
+     */
+    public void use(String name) throws MontyException {
+        TaskList next = registry.acquire(name);
+        registry.release(listName);
+        listName = name;
+        tasks = next;
+    }
+
+    /**
+     * Releases the current list, so that it may be dropped from memory once no other session is using it.
+     */
+    @Override
+    public void close() {
+        registry.release(listName);
+    }
+}
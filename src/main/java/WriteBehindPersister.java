@@ -0,0 +1,160 @@
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Saves tasks on a background thread so that commands do not wait for the disk.
+ * Save requests arriving within the maximum delay of the first unsaved change are coalesced
+ * into a single write of the latest snapshot. {@link #flush()} forces an immediate save and waits for it,
+ * and a shutdown hook flushes any pending changes when the JVM exits.
+ */
+public class WriteBehindPersister {
+    private final Storage storage;
+    private final Supplier<List<Task>> snapshotSupplier;
+    private final long maxDelayNanos;
+    private final Object lock;
+    private final Thread writerThread;
+    private final Thread shutdownHook;
+
+    private long requestedGeneration;
+    private long savedGeneration;
+    private long firstUnsavedAt;
+    private boolean isFlushRequested;
+    private boolean isClosed;
+
+    /**
+     * Constructs and starts a WriteBehindPersister.
+     * 
+     * @param storage the storage to save to
+     * @param snapshotSupplier supplies a consistent copy of the tasks to save; called on the writer thread
+     * @param maxDelayMillis the longest time a change may wait before it is saved
+     */
+    public WriteBehindPersister(Storage storage, Supplier<List<Task>> snapshotSupplier, long maxDelayMillis) {
+        this.storage = storage;
+        this.snapshotSupplier = snapshotSupplier;
+        this.maxDelayNanos = maxDelayMillis * 1_000_000L;
+        this.lock = new Object();
+        this.writerThread = new Thread(this::runWriter, "write-behind-persister");
+        this.writerThread.setDaemon(true);
+        this.shutdownHook = new Thread(this::close, "write-behind-shutdown");
+        this.writerThread.start();
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Records that the tasks have changed and need saving. Returns immediately.
+     */
+    public void requestSave() {
+        synchronized (lock) {
+            if (requestedGeneration == savedGeneration) {
+                firstUnsavedAt = System.nanoTime();
+            }
+            requestedGeneration++;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Returns whether a requested save has not finished yet, including one that is being written right now.
+     * 
+     * @return true if the file on disk may not reflect every requested change
+     */
+    public boolean hasPendingSave() {
+        synchronized (lock) {
+            return requestedGeneration != savedGeneration;
+        }
+    }
+
+    /**
+     * Saves any pending changes now and waits until they are on disk.
+     */
+    public void flush() {
+        synchronized (lock) {
+            long target = requestedGeneration;
+            isFlushRequested = true;
+            lock.notifyAll();
+            while (savedGeneration < target && writerThread.isAlive()) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Flushes pending changes and stops the writer thread.
+     */
+    public void close() {
+        flush();
+        synchronized (lock) {
+            isClosed = true;
+            lock.notifyAll();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down, which is when the hook itself calls close
+        }
+    }
+
+    /**
+     * Waits for changes, lets them coalesce until the maximum delay has passed or a flush is requested,
+     * then saves the latest snapshot.
+     */
+    private void runWriter() {
+        while (true) {
+            long generation;
+            synchronized (lock) {
+                try {
+                    while (!isClosed && !hasDueChanges()) {
+                        if (requestedGeneration == savedGeneration) {
+                            lock.wait();
+                        } else {
+                            long remainingNanos = firstUnsavedAt + maxDelayNanos - System.nanoTime();
+                            lock.wait(Math.max(1, remainingNanos / 1_000_000L));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (requestedGeneration == savedGeneration) {
+                    isFlushRequested = false;
+                    lock.notifyAll();
+                    if (isClosed) {
+                        return;
+                    }
+                    continue;
+                }
+                generation = requestedGeneration;
+                isFlushRequested = false;
+            }
+
+            try {
+                storage.saveTasks(snapshotSupplier.get());
+            } catch (IOException e) {
+                System.err.println("Error saving tasks: " + e.getMessage());
+            }
+
+            synchronized (lock) {
+                savedGeneration = Math.max(savedGeneration, generation);
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Returns whether the writer should act now: a flush was requested or the oldest unsaved change is due.
+     * Must be called while holding the lock.
+     * 
+     * @return true if there is something for the writer to do
+     */
+    private boolean hasDueChanges() {
+        if (isFlushRequested) {
+            return true;
+        }
+        return requestedGeneration != savedGeneration && System.nanoTime() - firstUnsavedAt >= maxDelayNanos;
+    }
+}
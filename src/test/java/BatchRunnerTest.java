@@ -0,0 +1,138 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for running command files with {@link BatchRunner}.
+ */
+public class BatchRunnerTest {
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that blank and failing lines are skipped while the other commands are applied and saved.
+     */
+    @Test
+    public void run_blankAndFailingLines_appliesTheRestAndSaves() throws IOException {
+        String file = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(file);
+
+        run(storage, 0, script("todo read book\n\n   \ndeadline return book /by 2024-12-01\nfrobnicate\nmark 9\n"
+                + "mark 1\ntodo buy milk\n"));
+
+        assertEquals(List.of("[T][X] read book", "[D][ ] return book (by: 2024-12-01)", "[T][ ] buy milk"),
+                describe(new Storage(file).loadTasks()));
+    }
+
+    /**
+     * Checks that an exit command ends the run, leaving the commands after it unread.
+     */
+    @Test
+    public void run_exitCommand_stopsBeforeLaterLines() throws IOException {
+        String file = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(file);
+
+        run(storage, 0, script("todo read book\nbye\ntodo buy milk\n"));
+
+        assertEquals(List.of("[T][ ] read book"), describe(new Storage(file).loadTasks()));
+    }
+
+    /**
+     * Checks that a save interval writes the file every n commands, while without one the file
+     * is only written at the end.
+     */
+    @Test
+    public void run_saveInterval_savesEveryNCommands() throws IOException {
+        String script = "todo one\ntodo two\ntodo three\ntodo four\ntodo five\n";
+        Path everyTwo = tempDir.resolve("every-two.txt");
+        Path atEnd = tempDir.resolve("at-end.txt");
+        List<Integer> savedBeforeLine = new ArrayList<>();
+        List<Boolean> existedBeforeLine = new ArrayList<>();
+
+        run(new Storage(everyTwo.toString()), 2, watching(script, () -> savedBeforeLine.add(Files.exists(everyTwo)
+                ? new Storage(everyTwo.toString()).loadTasks().size() : 0)));
+        run(new Storage(atEnd.toString()), 0, watching(script, () -> existedBeforeLine.add(Files.exists(atEnd))));
+
+        assertEquals(List.of(0, 0, 2, 2, 4, 4), savedBeforeLine);
+        assertFalse(existedBeforeLine.contains(true));
+        assertEquals(5, new Storage(everyTwo.toString()).loadTasks().size());
+        assertEquals(5, new Storage(atEnd.toString()).loadTasks().size());
+    }
+
+    /**
+     * Checks that percentiles are picked by nearest rank.
+     */
+    @Test
+    public void formatPercentiles_hundredSamples_nearestRank() {
+        LatencySamples latencies = new LatencySamples();
+        for (int i = 100; i >= 1; i--) {
+            latencies.record(i * 1_000L);
+        }
+
+        assertEquals(String.format("p50 %.1f us, p90 %.1f us, p99 %.1f us, max %.1f us", 50.0, 90.0, 99.0, 100.0),
+                latencies.formatPercentiles());
+    }
+
+    /**
+     * Runs a script against the tasks loaded from the given storage.
+     * 
+     * @param storage the storage to load from and save to
+     * @param saveInterval save after this many commands, or 0 to save only at the end
+     * @param reader the commands, one per line
+     * @throws IOException if the script cannot be read
+     */
+    private static void run(Storage storage, int saveInterval, BufferedReader reader) throws IOException {
+        new BatchRunner(new TaskList(storage.loadTasks(), storage), storage, saveInterval).run(reader);
+    }
+
+    /**
+     * Returns a reader over a script.
+     * 
+     * @param script the commands, one per line
+     * @return the reader
+     */
+    private static BufferedReader script(String script) {
+        return new BufferedReader(new StringReader(script));
+    }
+
+    /**
+     * Returns a reader over a script that runs a check before handing out each line, and once more at the end.
+     * 
+     * @param script the commands, one per line
+     * @param check the check to run
+     * @return the reader
+     */
+    private static BufferedReader watching(String script, Runnable check) {
+        return new BufferedReader(new StringReader(script)) {
+            @Override
+            public String readLine() throws IOException {
+                check.run();
+                return super.readLine();
+            }
+        };
+    }
+
+    /**
+     * Returns the tasks as shown to the user.
+     * 
+     * @param tasks the tasks
+     * @return the string form of each task, in order
+     */
+    private static List<String> describe(List<Task> tasks) {
+        List<String> described = new ArrayList<>();
+        for (Task task : tasks) {
+            described.add(task.toString());
+        }
+        return described;
+    }
+}
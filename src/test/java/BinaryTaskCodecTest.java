@@ -0,0 +1,121 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the binary data file format: parity with the text format, and recovery from damaged files.
+ */
+public class BinaryTaskCodecTest {
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that converting a text file to binary and back keeps exactly the tasks the text file loads to.
+     */
+    @Test
+    public void convert_textToBinaryAndBack_sameTasksAsTextLoad() throws IOException {
+        Random random = new Random(5);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            content.append(TaskFileParserTest.generateLine(random)).append('\n');
+        }
+        String text = tempDir.resolve("tasks.txt").toString();
+        String binary = tempDir.resolve("tasks.bin").toString();
+        String back = tempDir.resolve("back.txt").toString();
+        Files.writeString(Path.of(text), content);
+
+        List<String> expected = describe(new Storage(text).loadTasks());
+        StorageConverter.convert(text, StorageFormat.TEXT, binary, StorageFormat.BINARY);
+        StorageConverter.convert(binary, StorageFormat.BINARY, back, StorageFormat.TEXT);
+
+        assertEquals(expected, describe(new Storage(binary, StorageFormat.BINARY).loadTasks()));
+        assertEquals(expected, describe(new Storage(back).loadTasks()));
+    }
+
+    /**
+     * Checks that a file cut off inside its last record keeps the records before it and reports the lost one.
+     */
+    @Test
+    public void read_truncatedLastRecord_keepsEarlierRecords() throws IOException {
+        Path file = tempDir.resolve("tasks.bin");
+        BinaryTaskCodec.write(sampleTasks(), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        List<Task> tasks = new ArrayList<>();
+        LoadReport report = new LoadReport(file.toString());
+        BinaryTaskCodec.read(file, tasks, report);
+
+        assertEquals(describe(sampleTasks().subList(0, 2)), describe(tasks));
+        assertEquals(1, report.getSkippedCount());
+    }
+
+    /**
+     * Checks that a corrupt record count far beyond the file size is reported rather than allocated for.
+     */
+    @Test
+    public void read_hugeRecordCount_reportsMissingRecords() throws IOException {
+        Path file = tempDir.resolve("tasks.bin");
+        BinaryTaskCodec.write(sampleTasks(), file);
+        byte[] bytes = Files.readAllBytes(file);
+        // The count follows the four magic bytes and the version byte
+        bytes[5] = 0x7f;
+        bytes[6] = (byte) 0xff;
+        bytes[7] = (byte) 0xff;
+        bytes[8] = (byte) 0xff;
+        Files.write(file, bytes);
+
+        List<Task> tasks = new ArrayList<>();
+        LoadReport report = new LoadReport(file.toString());
+        BinaryTaskCodec.read(file, tasks, report);
+
+        assertEquals(describe(sampleTasks()), describe(tasks));
+        assertEquals(Integer.MAX_VALUE - 3L, report.getSkippedCount());
+    }
+
+    /**
+     * Checks that a file without the binary header is refused.
+     */
+    @Test
+    public void read_textFile_throwsIOException() throws IOException {
+        Path file = tempDir.resolve("tasks.bin");
+        Files.writeString(file, "T | 0 | read book\n");
+
+        assertThrows(IOException.class, () -> BinaryTaskCodec.read(file, new ArrayList<>(), new LoadReport("")));
+    }
+
+    /**
+     * Returns one task of each type, the last one done.
+     * 
+     * @return the tasks
+     */
+    private static List<Task> sampleTasks() {
+        Event event = new Event("talk", "2024-12-01 1400", "1600");
+        event.markDone();
+        return List.of(new ToDo("read book"), new Deadline("return book", "2024-12-01"), event);
+    }
+
+    /**
+     * Describes tasks by their display text and done status.
+     * 
+     * @param tasks the tasks
+     * @return the description of each task, in order
+     */
+    private static List<String> describe(List<Task> tasks) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(TaskFileParserTest.describe(task));
+        }
+        return descriptions;
+    }
+}
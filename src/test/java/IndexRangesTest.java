@@ -0,0 +1,156 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link IndexRanges}: parsing, merging, and removing and reinserting list elements.
+ */
+public class IndexRangesTest {
+    /**
+     * Checks that items in any order are sorted, and overlapping or adjacent ones merged.
+     */
+    @Test
+    public void parse_unorderedOverlappingItems_mergesIntoSortedRanges() {
+        IndexRanges ranges = IndexRanges.parse("9, 3-5,1,4-6,7-7,20-22", 0);
+
+        assertEquals("1,3-7,9,20-22", ranges.toString());
+        assertEquals(10, ranges.count());
+        assertEquals(1, ranges.getMin());
+        assertEquals(22, ranges.getMax());
+        assertArrayEquals(new int[] {1, 3, 4, 5, 6, 7, 9, 20, 21, 22}, ranges.toArray());
+    }
+
+    /**
+     * Checks that parsing starts at the given position, so a command word can be skipped without a substring.
+     */
+    @Test
+    public void parse_startPosition_skipsLeadingText() {
+        IndexRanges ranges = IndexRanges.parse("delete 2-3", 7);
+
+        assertEquals("2-3", ranges.toString());
+    }
+
+    /**
+     * Checks that a single number is recognised as such, and a range of one number too.
+     */
+    @Test
+    public void isSingle_singleNumberOrOneNumberRange_true() {
+        assertTrue(IndexRanges.parse("4", 0).isSingle());
+        assertTrue(IndexRanges.parse("4-4", 0).isSingle());
+        assertFalse(IndexRanges.parse("4-5", 0).isSingle());
+        assertFalse(IndexRanges.parse("4,6", 0).isSingle());
+    }
+
+    /**
+     * Checks that malformed lists are rejected.
+     */
+    @Test
+    public void parse_malformedList_throws() {
+        for (String text : new String[] {"", "1,", "a", "-3", "1-", "5-2", "1--3", "2,x-4", "99999999999"}) {
+            assertThrows(NumberFormatException.class, () -> IndexRanges.parse(text, 0), text);
+        }
+    }
+
+    /**
+     * Checks that runs of consecutive numbers become ranges.
+     */
+    @Test
+    public void ofSorted_consecutiveRuns_mergedIntoRanges() {
+        int[] sorted = {0, 1, 2, 5, 7, 8, 100};
+
+        assertEquals("0-2,5,7-8", IndexRanges.ofSorted(sorted, 6).toString());
+    }
+
+    /**
+     * Checks that shifting moves every range by the same amount.
+     */
+    @Test
+    public void shift_negativeOffset_movesEveryRange() {
+        assertEquals("0,2-4", IndexRanges.parse("1,3-5", 0).shift(-1).toString());
+    }
+
+    /**
+     * Checks that removal takes out exactly the positions in the set and keeps the rest in order.
+     */
+    @Test
+    public void removeFrom_severalRanges_removesThemAndKeepsOrder() {
+        List<Integer> list = numbers(10);
+
+        List<Integer> removed = IndexRanges.parse("0,2-3,9", 0).removeFrom(list);
+
+        assertEquals(List.of(0, 2, 3, 9), removed);
+        assertEquals(List.of(1, 4, 5, 6, 7, 8), list);
+    }
+
+    /**
+     * Checks that compacting moves each kept element down once, never upwards, and returns the new length.
+     */
+    @Test
+    public void compact_severalRanges_movesEachKeptElementOnce() {
+        int[] elements = {10, 11, 12, 13, 14, 15, 16};
+        List<Integer> moved = new ArrayList<>();
+
+        int size = IndexRanges.parse("1,3-4", 0).compact(elements.length, (from, to) -> {
+            assertTrue(to < from);
+            moved.add(from);
+            elements[to] = elements[from];
+        });
+
+        assertEquals(4, size);
+        assertEquals(List.of(2, 5, 6), moved);
+        assertArrayEquals(new int[] {10, 12, 15, 16}, Arrays.copyOf(elements, size));
+    }
+
+    /**
+     * Checks that inserting the removed elements back restores the list, for random sets of positions.
+     */
+    @Test
+    public void insertInto_afterRemoveFrom_restoresList() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 200; trial++) {
+            int size = 1 + random.nextInt(50);
+            int[] positions = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (random.nextInt(3) == 0) {
+                    positions[count++] = i;
+                }
+            }
+            if (count == 0) {
+                continue;
+            }
+            IndexRanges ranges = IndexRanges.ofSorted(positions, count);
+            List<Integer> list = numbers(size);
+
+            List<Integer> removed = ranges.removeFrom(list);
+            assertEquals(count, removed.size());
+            assertEquals(size - count, list.size());
+            ranges.insertInto(list, removed);
+
+            assertEquals(numbers(size), list);
+        }
+    }
+
+    /**
+     * Returns the list 0, 1, ..., size - 1.
+     * 
+     * @param size the length of the list
+     * @return the list
+     */
+    private static List<Integer> numbers(int size) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,185 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link IntervalTree}, checked against a brute-force scan of the same ranges.
+ */
+public class IntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 12, 1, 0, 0);
+
+    /**
+     * Checks that ranges touching the query at either end count as overlapping, and ranges beside it do not.
+     */
+    @Test
+    public void findOverlapping_closedRanges_includesTouchingEnds() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.add("before", at(0), at(9));
+        tree.add("touchesStart", at(5), at(10));
+        tree.add("inside", at(12), at(13));
+        tree.add("touchesEnd", at(20), at(30));
+        tree.add("after", at(21), at(25));
+
+        assertEquals(List.of("touchesStart", "inside", "touchesEnd"), tree.findOverlapping(at(10), at(20)));
+    }
+
+    /**
+     * Checks overlap queries and overlapping pairs against a brute-force scan while ranges are added and removed,
+     * with many equal and touching times.
+     */
+    @Test
+    public void queries_randomAddsAndRemoves_matchBruteForce() {
+        Random random = new Random(7);
+        IntervalTree<String> tree = new IntervalTree<>();
+        List<Range> ranges = new ArrayList<>();
+        long sequence = 0;
+        for (int step = 0; step < 2000; step++) {
+            if (ranges.isEmpty() || random.nextInt(3) > 0) {
+                int start = random.nextInt(200);
+                Range range = new Range("r" + step, at(start), at(start + random.nextInt(20)), sequence++);
+                tree.add(range.value, range.start, range.end);
+                ranges.add(range);
+            } else {
+                Range range = ranges.remove(random.nextInt(ranges.size()));
+                tree.remove(range.value);
+            }
+
+            assertEquals(ranges.size(), tree.size());
+            int from = random.nextInt(220);
+            LocalDateTime queryFrom = at(from);
+            LocalDateTime queryTo = at(from + random.nextInt(15));
+            assertEquals(overlappingByScan(ranges, queryFrom, queryTo), tree.findOverlapping(queryFrom, queryTo));
+            if (step % 50 == 0) {
+                assertEquals(pairsByScan(ranges), tree.findOverlappingPairs());
+            }
+        }
+    }
+
+    /**
+     * Checks that ranges that only touch are not a conflict, unless one of them is a single instant.
+     */
+    @Test
+    public void findOverlappingPairs_touchingRanges_onlyInstantsClash() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.add("morning", at(60), at(120));
+        tree.add("noon", at(120), at(180));
+        tree.add("instant", at(180), at(180));
+
+        List<List<String>> pairs = tree.findOverlappingPairs();
+
+        assertEquals(List.of(List.of("noon", "instant")), pairs);
+    }
+
+    /**
+     * Checks that a removed value no longer shows up, while an equal-looking value added separately stays.
+     */
+    @Test
+    public void remove_equalLookingValues_removesOnlyTheSameObject() {
+        IntervalTree<Event> tree = new IntervalTree<>();
+        Event first = new Event("standup", "2024-12-01 0900", "2024-12-01 0915");
+        Event second = new Event("standup", "2024-12-01 0900", "2024-12-01 0915");
+        tree.add(first, first.getStartDateTime(), first.getEndDateTime());
+        tree.add(second, second.getStartDateTime(), second.getEndDateTime());
+
+        tree.remove(first);
+
+        List<Event> found = tree.findOverlapping(at(0), at(24 * 60));
+        assertEquals(1, found.size());
+        assertSame(second, found.get(0));
+    }
+
+    /**
+     * Returns a time a number of minutes after the start of the test day.
+     * 
+     * @param minutes the minutes after midnight
+     * @return the time
+     */
+    private static LocalDateTime at(int minutes) {
+        return BASE.plusMinutes(minutes);
+    }
+
+    /**
+     * Finds the overlapping ranges by checking every range, in the tree's order.
+     * 
+     * @param ranges the ranges in the tree
+     * @param from the start of the query range
+     * @param to the end of the query range
+     * @return the values of the overlapping ranges
+     */
+    private static List<String> overlappingByScan(List<Range> ranges, LocalDateTime from, LocalDateTime to) {
+        List<String> result = new ArrayList<>();
+        for (Range range : sorted(ranges)) {
+            if (!range.start.isAfter(to) && !range.end.isBefore(from)) {
+                result.add(range.value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the overlapping pairs by checking every pair of ranges, in the tree's order.
+     * 
+     * @param ranges the ranges in the tree
+     * @return the overlapping pairs
+     */
+    private static List<List<String>> pairsByScan(List<Range> ranges) {
+        List<Range> ordered = sorted(ranges);
+        List<List<String>> pairs = new ArrayList<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            Range earlier = ordered.get(i);
+            for (int j = i + 1; j < ordered.size(); j++) {
+                Range later = ordered.get(j);
+                boolean isInstant = earlier.start.equals(earlier.end) || later.start.equals(later.end);
+                if (later.start.isBefore(earlier.end) || (isInstant && !later.start.isAfter(earlier.end))) {
+                    pairs.add(List.of(earlier.value, later.value));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Returns the ranges in the tree's order: by start, then by when they were added.
+     * 
+     * @param ranges the ranges
+     * @return a sorted copy
+     */
+    private static List<Range> sorted(List<Range> ranges) {
+        List<Range> ordered = new ArrayList<>(ranges);
+        ordered.sort(Comparator.comparing((Range range) -> range.start).thenComparingLong(range -> range.sequence));
+        return ordered;
+    }
+
+    /**
+     * A range added to the tree under test.
+     */
+    private static class Range {
+        private final String value;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final long sequence;
+
+        /**
+         * Constructs a Range.
+         * 
+         * @param value the value attached to the range
+         * @param start the start of the range
+         * @param end the end of the range
+         * @param sequence the order in which the range was added
+         */
+        Range(String value, LocalDateTime start, LocalDateTime end, long sequence) {
+            this.value = value;
+            this.start = start;
+            this.end = end;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link LazyTaskList}, checked against the tasks an eager load of the same file produces.
+ */
+public class LazyTaskListTest {
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that corrupted and blank lines, including ones with whitespace-only fields, are skipped
+     * exactly as by an eager load, and that every kept line can be read.
+     */
+    @Test
+    public void open_corruptedLines_sameTasksAsEagerLoad() throws IOException {
+        Path file = tempDir.resolve("tasks.txt");
+        Files.writeString(file, String.join("\n",
+                "T | 0 | alpha |   | x",
+                "garbage",
+                "",
+                "D | 1 | report |   ",
+                "T | 1 | bravo",
+                "E | 0 | talk | 2024-12-01 1400 | 1600",
+                "X | 0 | unknown",
+                "T | 0 | charlie") + "\n");
+        Storage storage = new Storage(file.toString());
+
+        List<String> expected = describe(storage.loadTasks());
+        long expectedSkipped = storage.getLastLoadReport().getSkippedCount();
+        LazyTaskList lazy = LazyTaskList.open(file, 2, new LoadReport(file.toString()));
+        Storage lazyStorage = new Storage(file.toString());
+        lazyStorage.loadLazily(2);
+
+        assertEquals(4, expected.size());
+        assertEquals(3, expectedSkipped);
+        assertEquals(expected, describe(lazy));
+        assertEquals(expectedSkipped, lazyStorage.getLastLoadReport().getSkippedCount());
+    }
+
+    /**
+     * Checks that random inserts, marks, replacements and removals leave the lazy list holding the same
+     * tasks as an ArrayList given the same edits, while its cache stays within capacity.
+     */
+    @Test
+    public void edits_randomSequence_matchArrayList() throws IOException {
+        Path file = tempDir.resolve("tasks.txt");
+        List<Task> seed = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            seed.add(i % 3 == 0 ? new Deadline("due " + i, "2024-12-01 1800") : new ToDo("task " + i));
+        }
+        new Storage(file.toString()).saveTasks(seed);
+
+        LazyTaskList lazy = LazyTaskList.open(file, 16, new LoadReport(file.toString()));
+        List<Task> expected = new Storage(file.toString()).loadTasks();
+        Random random = new Random(7);
+        for (int step = 0; step < 2000; step++) {
+            int index = random.nextInt(expected.size());
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    Task task = new ToDo("added " + step);
+                    lazy.add(index, task);
+                    expected.add(index, new ToDo("added " + step));
+                }
+                case 1 -> {
+                    boolean isDone = random.nextBoolean();
+                    lazy.setDone(index, isDone);
+                    setDone(expected.get(index), isDone);
+                }
+                case 2 -> {
+                    Task task = lazy.get(index);
+                    setDone(task, !task.isDone());
+                    lazy.set(index, task);
+                    setDone(expected.get(index), !expected.get(index).isDone());
+                }
+                case 3 -> assertEquals(expected.remove(index).toString(), lazy.remove(index).toString());
+                default -> {
+                    int to = Math.min(expected.size(), index + 1 + random.nextInt(3));
+                    lazy.removeAt(IndexRanges.parse((index + 1) + "-" + to, 0).shift(-1));
+                    expected.subList(index, to).clear();
+                }
+            }
+            if (expected.isEmpty()) {
+                Task task = new ToDo("refill " + step);
+                lazy.add(task);
+                expected.add(new ToDo("refill " + step));
+            }
+        }
+
+        assertEquals(describe(expected), describe(lazy));
+        assertTrue(lazy.getCachedCount() <= 16);
+    }
+
+    /**
+     * Marks a task as done or not done.
+     * 
+     * @param task the task
+     * @param isDone true to mark it as done
+     */
+    private static void setDone(Task task, boolean isDone) {
+        if (isDone) {
+            task.markDone();
+        } else {
+            task.markNotDone();
+        }
+    }
+
+    /**
+     * Returns the tasks as shown to the user, for comparing lists of separately built tasks.
+     * 
+     * @param tasks the tasks
+     * @return the string form of each task, in order
+     */
+    private static List<String> describe(List<Task> tasks) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(task.toString());
+        }
+        return descriptions;
+    }
+}
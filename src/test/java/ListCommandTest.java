@@ -0,0 +1,193 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the list command's filters, sorting and paging, in every layout.
+ */
+public class ListCommandTest {
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that filters and a sort pick the matching tasks in order, keeping their numbers in the full list.
+     */
+    @Test
+    public void execute_typeDoneFiltersAndDateSort_showsMatchesInOrder() throws MontyException {
+        List<Task> seed = new ArrayList<>();
+        seed.add(new ToDo("read book"));
+        seed.add(new Deadline("submit assignment", "2024-12-31"));
+        seed.add(new Event("team meeting", "2024-12-01 1400", "1500"));
+        seed.add(new Deadline("return book", "2024-11-30"));
+        seed.add(new Deadline("file taxes", "2025-04-30"));
+        seed.get(3).markDone();
+        TaskList tasks = new TaskList(seed, storage());
+
+        String output = run(tasks, "list --type deadline --undone --sort date --limit 1");
+
+        assertEquals(List.of(" 2.[D][ ] submit assignment (by: 2024-12-31)"), taskLines(output));
+        assertTrue(output.contains("use --page 2"));
+        assertEquals(List.of(" 5.[D][ ] file taxes (by: 2025-04-30)"),
+                taskLines(run(tasks, "list --type deadline --undone --sort date --limit 1 --page 2")));
+        assertEquals(List.of(" 1.[T][ ] read book", " 4.[D][X] return book (by: 2024-11-30)"),
+                taskLines(run(tasks, "list --find book")));
+    }
+
+    /**
+     * Checks that pages split the list in order, with a hint only while more tasks follow.
+     */
+    @Test
+    public void execute_pages_splitListWithHint() throws MontyException {
+        TaskList tasks = new TaskList(todos(45), storage());
+
+        String second = run(tasks, "list --page 2");
+        String third = run(tasks, "list --page 3");
+
+        assertEquals(20, taskLines(second).size());
+        assertEquals(" 21.[T][ ] task 21", taskLines(second).get(0));
+        assertTrue(second.contains("use --page 3"));
+        assertEquals(List.of(" 41.[T][ ] task 41", " 42.[T][ ] task 42", " 43.[T][ ] task 43",
+                " 44.[T][ ] task 44", " 45.[T][ ] task 45"), taskLines(third));
+        assertFalse(third.contains("use --page"));
+        assertTrue(run(tasks, "list --page 4").contains("There are no tasks on page 4."));
+    }
+
+    /**
+     * Checks that columnar and lazy lists show the same listings as a list of task objects.
+     */
+    @Test
+    public void execute_everyLayout_sameListings() throws MontyException, IOException {
+        List<Task> seed = new ArrayList<>();
+        for (int i = 1; i <= 60; i++) {
+            Task task = switch (i % 3) {
+                case 0 -> new ToDo("task " + i);
+                case 1 -> new Deadline("due " + i, "2024-12-" + (10 + i % 20));
+                default -> new Event("meet " + i, "2024-11-" + (10 + i % 15) + " 1400", "1500");
+            };
+            if (i % 4 == 0) {
+                task.markDone();
+            }
+            seed.add(task);
+        }
+        String file = tempDir.resolve("tasks.txt").toString();
+        new Storage(file).saveTasks(seed);
+        String[] commands = {"list", "list --page 3", "list --done", "list --type event --sort date --limit 7",
+            "list --undone --sort done,description --page 2", "list --find 1 --sort type,date"};
+
+        TaskList objects = TaskLayout.OBJECTS.load(new Storage(file));
+        for (TaskLayout layout : TaskLayout.values()) {
+            TaskList tasks = layout.load(new Storage(file));
+            for (String command : commands) {
+                assertEquals(run(objects, command), run(tasks, command), layout + ": " + command);
+            }
+        }
+    }
+
+    /**
+     * Checks that a page is written out only after the list's read lock is released, so that a change
+     * from another thread can finish while the output is still being written.
+     */
+    @Test
+    public void execute_smallPage_writtenAfterReadLockReleased() throws MontyException {
+        List<Task> seed = new ArrayList<>();
+        for (int i = 1; i <= 30; i++) {
+            // Long enough that a page overflows the output encoder's buffer and reaches the stream mid-listing
+            seed.add(new ToDo("task " + i + " " + "x".repeat(1000)));
+        }
+        TaskList tasks = new TaskList(seed, storage());
+        AtomicBoolean wasChangeHeldUp = new AtomicBoolean();
+        OutputStream slowClient = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                Thread writer = new Thread(() -> tasks.addTask(new ToDo("added while listing")));
+                writer.start();
+                try {
+                    writer.join(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (writer.isAlive()) {
+                    wasChangeHeldUp.set(true);
+                }
+            }
+        };
+        UI ui = new UI(new ByteArrayInputStream(new byte[0]), slowClient, 16);
+
+        Parser.parse("list --limit 20").execute(tasks, ui, tasks.getStorage());
+        ui.flush();
+
+        assertFalse(wasChangeHeldUp.get());
+    }
+
+    /**
+     * Runs a command against a list and returns everything it wrote.
+     * 
+     * @param tasks the task list
+     * @param command the command line
+     * @return the output of the command
+     * @throws MontyException if the command fails
+     */
+    private static String run(TaskList tasks, String command) throws MontyException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UI ui = new UI(new ByteArrayInputStream(new byte[0]), out);
+        Parser.parse(command).execute(tasks, ui, tasks.getStorage());
+        ui.flush();
+        return out.toString();
+    }
+
+    /**
+     * Returns the numbered task lines of a listing.
+     * 
+     * @param output the output of a list command
+     * @return the lines that show a task
+     */
+    private static List<String> taskLines(String output) {
+        List<String> lines = new ArrayList<>();
+        for (String line : output.split(System.lineSeparator())) {
+            if (line.matches(" \\d+\\..*")) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Returns to-dos named "task 1" to "task n".
+     * 
+     * @param count the number of to-dos
+     * @return the to-dos in order
+     */
+    private static List<Task> todos(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns a storage for a data file in the test directory.
+     * 
+     * @return the storage
+     */
+    private Storage storage() {
+        return new Storage(tempDir.resolve("tasks.txt").toString());
+    }
+}
@@ -0,0 +1,141 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link Metrics} and its {@link Histogram}s.
+ */
+public class MetricsTest {
+    private static final Pattern SAMPLE_LINE =
+            Pattern.compile("monty_[a-z_]+(\\{[a-z]+=\"[^\"]*\"(,[a-z]+=\"[^\"]*\")*\\})? [0-9.E+-]+");
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that percentiles are the top of the power-of-two bucket holding them, capped at the largest value,
+     * and that negative values count as zero.
+     */
+    @Test
+    public void getPercentile_recordedValues_upperBucketBound() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+
+        assertEquals(1001, histogram.getCount());
+        assertEquals(500_500, histogram.getSum());
+        assertEquals(511, histogram.getPercentile(0.50));
+        assertEquals(1000, histogram.getPercentile(0.99));
+        assertEquals(0, histogram.getPercentile(0.0001));
+        assertEquals(0, new Histogram().getPercentile(0.5));
+    }
+
+    /**
+     * Checks that a histogram is exported with cumulative buckets from the lowest to the highest non-empty one.
+     */
+    @Test
+    public void appendPrometheus_fewValues_cumulativeBuckets() {
+        Histogram histogram = new Histogram();
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(3);
+        histogram.record(3);
+        StringBuilder sb = new StringBuilder();
+
+        histogram.appendPrometheus(sb, "monty_test", "command=\"add\"", 1);
+
+        assertEquals("monty_test_bucket{command=\"add\",le=\"0\"} 1\n"
+                + "monty_test_bucket{command=\"add\",le=\"1\"} 2\n"
+                + "monty_test_bucket{command=\"add\",le=\"3\"} 4\n"
+                + "monty_test_bucket{command=\"add\",le=\"+Inf\"} 4\n"
+                + "monty_test_sum{command=\"add\"} 7\n"
+                + "monty_test_count{command=\"add\"} 4\n", sb.toString());
+    }
+
+    /**
+     * Checks that the exposition text labels figures by command type, counts failures and invalid input,
+     * and holds nothing but comments and well-formed samples.
+     */
+    @Test
+    public void toPrometheusText_recordedCommands_labelledAndWellFormed() {
+        Metrics metrics = new Metrics();
+        metrics.recordParse(new MarkCommand(1), 1_500);
+        metrics.recordExecute(new MarkCommand(1), 3_000, true);
+        metrics.recordExecute(new MarkCommand(2), 2_000, false);
+        metrics.recordParse(null, 100);
+        metrics.recordSave(2048, 1_000_000);
+        metrics.recordJournalAppend(40);
+
+        String text = metrics.toPrometheusText();
+
+        assertTrue(text.contains("monty_command_execute_seconds_count{command=\"mark\"} 2\n"));
+        assertTrue(text.contains("monty_command_failures_total{command=\"mark\"} 1\n"));
+        assertTrue(text.contains("monty_command_failures_total{command=\"invalid\"} 1\n"));
+        assertTrue(text.contains("monty_save_bytes_sum 2048\n"));
+        assertTrue(text.contains("monty_journal_bytes_total 40\n"));
+        for (String line : text.split("\n")) {
+            assertTrue(line.startsWith("# HELP ") || line.startsWith("# TYPE ") || SAMPLE_LINE.matcher(line).matches(),
+                    line);
+        }
+    }
+
+    /**
+     * Checks that exporting creates missing directories and replaces the file without leaving a temporary file.
+     */
+    @Test
+    public void exportPrometheus_missingDirectory_writesWholeFile() throws IOException {
+        Metrics metrics = new Metrics();
+        metrics.recordFind(10, 2);
+        Path file = tempDir.resolve("metrics").resolve("monty.prom");
+
+        metrics.exportPrometheus(file);
+        metrics.exportPrometheus(file);
+
+        assertEquals(metrics.toPrometheusText(), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        assertFalse(Files.exists(tempDir.resolve("metrics").resolve("monty.prom.tmp")));
+    }
+
+    /**
+     * Checks that values recorded by several threads at once are all counted.
+     */
+    @Test
+    public void record_manyThreads_countsEveryValue() throws Exception {
+        Histogram histogram = new Histogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        histogram.record(i);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(4L * 9_999 * 10_000 / 2, histogram.getSum());
+        assertEquals(9_999, histogram.getMax());
+    }
+}
@@ -0,0 +1,200 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the {@link MontyServer} protocol, talking to a server on a Unix-domain socket as a client would.
+ */
+public class MontyServerTest {
+    private static final String END_OF_RESPONSE = ".";
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that every response ends with a dot line, and that sessions share the default list
+     * but keep a named list to the sessions using it.
+     */
+    @Test
+    public void serve_twoSessions_shareDefaultListAndSeparateNamedLists() throws Exception {
+        try (TaskListRegistry registry = createRegistry(); MontyServer server = startServer(registry);
+                Client alice = new Client(); Client bob = new Client()) {
+            assertFalse(alice.readResponse().isEmpty());
+            assertFalse(bob.readResponse().isEmpty());
+
+            alice.send("todo shared task");
+            assertTrue(contains(bob.send("list"), "shared task"));
+
+            bob.send("use bob");
+            bob.send("todo private task");
+            assertTrue(contains(bob.send("list"), "private task"));
+            assertFalse(contains(alice.send("list"), "private task"));
+        }
+    }
+
+    /**
+     * Checks that a session cannot export statistics outside the data directory or over a data file,
+     * while a plain .prom file name is written next to the data file.
+     */
+    @Test
+    public void serve_statsExport_confinedToDataDirectory() throws Exception {
+        try (TaskListRegistry registry = createRegistry(); MontyServer server = startServer(registry);
+                Client client = new Client()) {
+            client.readResponse();
+
+            assertTrue(contains(client.send("stats export ../escaped.prom"), "OOPS!!!"));
+            assertTrue(contains(client.send("stats export " + tempDir.resolve("absolute.prom")), "OOPS!!!"));
+            assertTrue(contains(client.send("stats export tasks.txt"), "OOPS!!!"));
+            assertTrue(contains(client.send("stats export monty.prom"), "monty.prom"));
+
+            assertFalse(Files.exists(tempDir.resolve("escaped.prom")));
+            assertFalse(Files.exists(tempDir.resolve("absolute.prom")));
+            assertTrue(Files.exists(tempDir.resolve("data").resolve("monty.prom")));
+        }
+    }
+
+    /**
+     * Checks that the server closes the connection after answering bye.
+     */
+    @Test
+    public void serve_bye_closesConnectionAfterResponse() throws Exception {
+        try (TaskListRegistry registry = createRegistry(); MontyServer server = startServer(registry);
+                Client client = new Client()) {
+            client.readResponse();
+
+            assertFalse(client.send("bye").isEmpty());
+            assertNull(client.reader.readLine());
+        }
+    }
+
+    /**
+     * Creates a registry around an empty default list in the test directory.
+     * 
+     * @return the registry
+     */
+    private TaskListRegistry createRegistry() {
+        Storage storage = new Storage(tempDir.resolve("data").resolve("tasks.txt").toString());
+        return new TaskListRegistry(new TaskList(storage.loadTasks(), storage), TaskLayout.OBJECTS,
+                Long.MAX_VALUE, 0);
+    }
+
+    /**
+     * Starts a server on a socket in the test directory, accepting connections on a background thread.
+     * 
+     * @param registry the task lists to serve
+     * @return the running server
+     * @throws IOException if the socket cannot be opened
+     */
+    private MontyServer startServer(TaskListRegistry registry) throws IOException {
+        MontyServer server = new MontyServer(registry, socketAddress());
+        Thread acceptor = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                // The server was closed while accepting
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return server;
+    }
+
+    /**
+     * Returns the address of the socket in the test directory.
+     * 
+     * @return the socket address
+     */
+    private UnixDomainSocketAddress socketAddress() {
+        return UnixDomainSocketAddress.of(tempDir.resolve("monty.sock"));
+    }
+
+    /**
+     * Checks whether any line of a response contains the given text.
+     * 
+     * @param response the lines of the response
+     * @param text the text to look for
+     * @return true if some line contains the text
+     */
+    private static boolean contains(List<String> response, String text) {
+        return response.stream().anyMatch(line -> line.contains(text));
+    }
+
+    /**
+     * A client connection that sends one command at a time and reads its whole response.
+     */
+    private class Client implements AutoCloseable {
+        private final SocketChannel channel;
+        private final BufferedReader reader;
+        private final PrintWriter writer;
+
+        /**
+         * Connects to the server in the test directory.
+         * 
+         * @throws IOException if the connection fails
+         */
+        Client() throws IOException {
+            channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.connect(socketAddress());
+            reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            writer = new PrintWriter(Channels.newOutputStream(channel), true, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Sends a command and reads the response to it.
+         * 
+         * @param command the command line
+         * @return the lines of the response, without the closing dot line
+         * @throws IOException if the connection fails or is closed mid-response
+         */
+        List<String> send(String command) throws IOException {
+            writer.println(command);
+            return readResponse();
+        }
+
+        /**
+         * Reads lines up to the dot line that ends a response.
+         * 
+         * @return the lines of the response, without the closing dot line
+         * @throws IOException if the connection fails or is closed mid-response
+         */
+        List<String> readResponse() throws IOException {
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.equals(END_OF_RESPONSE)) {
+                    return lines;
+                }
+                lines.add(line);
+            }
+            throw new IOException("Connection closed by server");
+        }
+
+        /**
+         * Closes the connection.
+         * 
+         * @throws IOException if the connection cannot be closed
+         */
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for dispatching commands through {@link Parser} and its {@link CommandTrie}.
+ */
+public class ParserTest {
+    private static final String UNKNOWN = "I'm sorry, but I don't know what that means :-(";
+
+    /**
+     * Checks that each command is dispatched as by the original chain of startsWith checks: bare keywords
+     * must make up the whole command, and keywords taking arguments must be followed by a space.
+     */
+    @Test
+    public void parse_originalCommands_dispatchedAsBefore() {
+        String[][] cases = {
+            {"list", "ListCommand"},
+            {"  list  ", "ListCommand"},
+            {"bye", "ExitCommand"},
+            {"mark 1", "MarkCommand"},
+            {"mark  2", "MarkCommand"},
+            {"unmark 3", "UnmarkCommand"},
+            {"delete 2", "DeleteCommand"},
+            {"find book", "FindCommand"},
+            {"todo read book", "AddCommand"},
+            {"deadline return book /by 2024-12-01", "AddCommand"},
+            {"event talk /from 2024-12-02 1400 /to 1600", "AddCommand"},
+            {"bye now", UNKNOWN},
+            {"lis", UNKNOWN},
+            {"listing", UNKNOWN},
+            {"mark", UNKNOWN},
+            {"mark\t1", UNKNOWN},
+            {"markx 1", UNKNOWN},
+            {"find", UNKNOWN},
+            {"todo", UNKNOWN},
+            {"todo   ", UNKNOWN},
+            {"Todo read book", UNKNOWN},
+            {"ev talk", UNKNOWN},
+            {"mark x", "OOPS!!! Please provide a valid task number for the mark command."},
+            {"deadline report", "OOPS!!! The deadline command requires a '/by' parameter. "
+                    + "Please specify when the task is due."},
+        };
+
+        for (String[] testCase : cases) {
+            assertEquals(testCase[1], dispatch(testCase[0]), testCase[0]);
+        }
+    }
+
+    /**
+     * Checks that an empty or blank command is rejected.
+     */
+    @Test
+    public void parse_blankCommand_throws() {
+        assertEquals("Command cannot be empty", dispatch("   "));
+        assertEquals("Command cannot be empty", dispatch(null));
+    }
+
+    /**
+     * Checks that a keyword can have separate parsers for its bare and argument forms, and that prefixes
+     * and extensions of a keyword are not matched.
+     */
+    @Test
+    public void find_bareAndArgumentForms_matchedSeparately() {
+        CommandParser bare = (command, start) -> new ListCommand();
+        CommandParser withArguments = (command, start) -> new FindCommand(command.substring(start));
+        CommandTrie trie = new CommandTrie();
+        trie.register("stats", false, bare);
+        trie.register("stats", true, withArguments);
+        trie.register("st", true, withArguments);
+
+        assertSame(bare, trie.find("stats", 5, false));
+        assertSame(withArguments, trie.find("stats export", 5, true));
+        assertSame(withArguments, trie.find("st x", 2, true));
+        assertNull(trie.find("st", 2, false));
+        assertNull(trie.find("stat", 4, false));
+        assertNull(trie.find("statsx", 6, false));
+        assertNull(trie.find("stätš", 5, false));
+    }
+
+    /**
+     * Checks that keywords which could never be typed as a single word are rejected when registered.
+     */
+    @Test
+    public void register_invalidKeyword_throwsIllegalArgument() {
+        CommandTrie trie = new CommandTrie();
+        CommandParser parser = (command, start) -> new ListCommand();
+
+        assertThrows(IllegalArgumentException.class, () -> trie.register("", false, parser));
+        assertThrows(IllegalArgumentException.class, () -> trie.register("two words", false, parser));
+        assertThrows(IllegalArgumentException.class, () -> trie.register("café", false, parser));
+    }
+
+    /**
+     * Parses a command and names the resulting command class, or the message of the error it raised.
+     * 
+     * @param command the command text
+     * @return the simple class name of the parsed command, or the error message
+     */
+    private static String dispatch(String command) {
+        try {
+            return Parser.parse(command).getClass().getSimpleName();
+        } catch (MontyException e) {
+            return e.getMessage();
+        }
+    }
+}
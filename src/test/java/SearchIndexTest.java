@@ -0,0 +1,130 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SearchIndex}, checked against a scan of every description for the keyword.
+ */
+public class SearchIndexTest {
+    private static final String[] WORDS = {"read", "book", "Return", "bo", "ok", "a", "b", "ab", "BA", "café"};
+    private static final String[] SHORT_KEYWORDS = {
+        "a", "B", "o", "ok", "k ", " b", "d ", "ab", "é", " ", "  ", "", "x",
+    };
+    private static final String[] LONG_KEYWORDS = {
+        "ook", "read book", "d bo", "k r", "ok ok", "BOOK", "caf", "afé", "   ", "a  b", "turn bo", "xyz", "aba",
+    };
+
+    /**
+     * Checks that short keywords, which are answered from the word index, find part of a word, a word
+     * followed by a space, and the same tasks in any case.
+     */
+    @Test
+    public void find_shortKeywords_matchesPartsOfWords() {
+        Task book = new ToDo("read book");
+        Task ok = new ToDo("OK");
+        Task abba = new ToDo("abba");
+        SearchIndex index = new SearchIndex(List.of(book, ok, abba));
+
+        assertEquals(List.of(book, ok), index.find("ok"));
+        assertEquals(List.of(book), index.find("d "));
+        assertEquals(List.of(abba), index.find("BB"));
+        assertEquals(List.of(book, ok, abba), index.find(""));
+    }
+
+    /**
+     * Checks that short keywords find the same tasks, in the same order, as scanning every description,
+     * while tasks are added and removed.
+     */
+    @Test
+    public void find_shortKeywordsAfterEdits_matchesScan() {
+        Random random = new Random(7);
+        List<Task> tasks = new ArrayList<>();
+        SearchIndex index = new SearchIndex(List.of());
+        for (int i = 0; i < 2000; i++) {
+            if (!tasks.isEmpty() && random.nextInt(4) == 0) {
+                index.remove(tasks.remove(random.nextInt(tasks.size())));
+            } else {
+                Task task = new ToDo(generateDescription(random));
+                tasks.add(task);
+                index.add(task);
+            }
+            String keyword = SHORT_KEYWORDS[random.nextInt(SHORT_KEYWORDS.length)];
+            assertEquals(scan(tasks, keyword), index.find(keyword), keyword);
+        }
+    }
+
+    /**
+     * Checks that keywords of three or more characters, which are answered from the trigram index, still find
+     * text across word boundaries and runs of spaces.
+     */
+    @Test
+    public void find_longKeywords_matchesAcrossWords() {
+        Task book = new ToDo("read book");
+        Task spaced = new ToDo("a  b");
+        Task ok = new ToDo("OK");
+        SearchIndex index = new SearchIndex(List.of(book, spaced, ok));
+
+        assertEquals(List.of(book), index.find("Ad bOo"));
+        assertEquals(List.of(spaced), index.find("a  b"));
+        assertEquals(List.of(), index.find("a b"));
+        assertEquals(List.of(), index.find("okk"));
+    }
+
+    /**
+     * Checks that long keywords find the same tasks, in the same order, as scanning every description,
+     * while tasks are added and removed.
+     */
+    @Test
+    public void find_longKeywordsAfterEdits_matchesScan() {
+        Random random = new Random(11);
+        List<Task> tasks = new ArrayList<>();
+        SearchIndex index = new SearchIndex(List.of());
+        for (int i = 0; i < 2000; i++) {
+            if (!tasks.isEmpty() && random.nextInt(4) == 0) {
+                index.remove(tasks.remove(random.nextInt(tasks.size())));
+            } else {
+                Task task = new ToDo(generateDescription(random));
+                tasks.add(task);
+                index.add(task);
+            }
+            String keyword = LONG_KEYWORDS[random.nextInt(LONG_KEYWORDS.length)];
+            assertEquals(scan(tasks, keyword), index.find(keyword), keyword);
+        }
+    }
+
+    /**
+     * Builds a description of a few words, some of them repeated, with single or double spaces between them.
+     * 
+     * @param random the source of randomness
+     * @return the generated description
+     */
+    private static String generateDescription(Random random) {
+        StringBuilder description = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        int wordCount = random.nextInt(4);
+        for (int i = 0; i < wordCount; i++) {
+            description.append(random.nextInt(5) == 0 ? "  " : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return description.toString();
+    }
+
+    /**
+     * Finds the tasks whose description contains the keyword, ignoring case, by checking every task.
+     * 
+     * @param tasks the tasks in list order
+     * @param keyword the keyword to search for
+     * @return the matching tasks in list order
+     */
+    private static List<Task> scan(List<Task> tasks, String keyword) {
+        List<Task> matches = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.getDescription().toLowerCase().contains(keyword.toLowerCase())) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+}
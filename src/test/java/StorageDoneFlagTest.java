@@ -0,0 +1,124 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for patching done flags into the text data file in place with {@link Storage#patchDoneFlags}.
+ */
+public class StorageDoneFlagTest {
+    private static final String FILE_WITH_SKIPPED_LINES = String.join("\n",
+            "T | 0 | alpha |   | x",
+            "garbage",
+            "",
+            "T | 0 | bravo",
+            "D | 1 | report |",
+            "T | 0 | charlie") + "\n";
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that after an eager load of a file with skipped lines, patching the second task flips the
+     * record that was loaded second, leaving the skipped lines in place.
+     */
+    @Test
+    public void patchDoneFlags_afterLoadWithSkippedLines_patchesLoadedRecord() throws IOException {
+        Path file = tempDir.resolve("tasks.txt");
+        Files.writeString(file, FILE_WITH_SKIPPED_LINES);
+        Storage storage = new Storage(file.toString());
+        storage.loadTasks();
+
+        assertTrue(storage.patchDoneFlags(IndexRanges.parse("3", 0).shift(-1), true));
+
+        assertEquals(List.of("[T][ ] alpha", "[T][ ] bravo", "[T][X] charlie"),
+                describe(new Storage(file.toString()).loadTasks()));
+        assertTrue(Files.readString(file).contains("garbage"));
+    }
+
+    /**
+     * Checks the same for a lazy load, whose flags are recorded while its lines are indexed.
+     */
+    @Test
+    public void patchDoneFlags_afterLazyLoadWithSkippedLines_patchesLoadedRecord() throws IOException {
+        Path file = tempDir.resolve("tasks.txt");
+        Files.writeString(file, FILE_WITH_SKIPPED_LINES);
+        Storage storage = new Storage(file.toString());
+        storage.loadLazily(16);
+
+        assertTrue(storage.patchDoneFlags(IndexRanges.parse("2-3", 0).shift(-1), true));
+        assertTrue(storage.patchDoneFlags(IndexRanges.parse("2", 0).shift(-1), false));
+
+        assertEquals(List.of("[T][ ] alpha", "[T][ ] bravo", "[T][X] charlie"),
+                describe(new Storage(file.toString()).loadTasks()));
+    }
+
+    /**
+     * Checks that marks and unmarks made through a task list, patched in place after a full save,
+     * reload to the same tasks as the list holds.
+     */
+    @Test
+    public void markTasksDone_afterFullSave_reloadMatchesList() throws IOException, MontyException {
+        Path file = tempDir.resolve("tasks.txt");
+        Files.writeString(file, FILE_WITH_SKIPPED_LINES);
+        Storage storage = new Storage(file.toString());
+        TaskList list = new TaskList(storage.loadTasks(), storage);
+        list.addTask(new Event("talk", "2024-12-01 1400", "1600"));
+        list.markTasksDone(IndexRanges.parse("1,4", 0));
+        list.markTasksNotDone(IndexRanges.parse("1", 0));
+        list.markTaskDone(2);
+
+        assertEquals(describe(list.getAllTasks()), describe(new Storage(file.toString()).loadTasks()));
+    }
+
+    /**
+     * Checks that nothing is patched when the file was missing at load, so no offsets are known.
+     */
+    @Test
+    public void patchDoneFlags_offsetsUnknown_returnsFalse() throws IOException {
+        Path file = tempDir.resolve("tasks.txt");
+        Storage storage = new Storage(file.toString());
+        storage.loadTasks();
+        Files.writeString(file, "T | 0 | alpha\n");
+
+        assertFalse(storage.patchDoneFlags(IndexRanges.parse("1", 0).shift(-1), true));
+        assertEquals("T | 0 | alpha\n", Files.readString(file));
+    }
+
+    /**
+     * Checks that nothing is patched once the file no longer holds a flag at a recorded offset.
+     */
+    @Test
+    public void patchDoneFlags_fileChangedSinceLoad_returnsFalse() throws IOException {
+        Path file = tempDir.resolve("tasks.txt");
+        Files.writeString(file, "T | 0 | alpha\nT | 0 | bravo\n");
+        Storage storage = new Storage(file.toString());
+        storage.loadTasks();
+        Files.writeString(file, "T | 0 | bravo and more\nT | 0 | x\n");
+
+        assertFalse(storage.patchDoneFlags(IndexRanges.parse("2", 0).shift(-1), true));
+        assertEquals("T | 0 | bravo and more\nT | 0 | x\n", Files.readString(file));
+    }
+
+    /**
+     * Returns the tasks as shown to the user, for comparing lists of separately built tasks.
+     * 
+     * @param tasks the tasks
+     * @return the string form of each task, in order
+     */
+    private static List<String> describe(List<Task> tasks) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(task.toString());
+        }
+        return descriptions;
+    }
+}
@@ -0,0 +1,165 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for journaling mode in {@link Storage}: replaying the journal on load, and recovering
+ * from a compaction that was cut short at each point where a crash can leave files behind.
+ */
+public class StorageJournalTest {
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that records appended to the journal are replayed on top of an empty data file.
+     */
+    @Test
+    public void loadTasks_journalOnly_replaysEveryRecord() throws MontyException {
+        String file = dataFile();
+        TaskList list = new TaskList(journaling(file).loadTasks(), journaling(file));
+        list.addTask(new ToDo("read book"));
+        list.addTask(new Deadline("return book", "2024-12-01"));
+        list.addTask(new ToDo("write notes"));
+        list.markTasksDone(IndexRanges.parse("1-2", 0));
+        list.deleteTask(1);
+
+        assertEquals(describe(list.getAllTasks()), describe(journaling(file).loadTasks()));
+    }
+
+    /**
+     * Checks a crash after the journal was rotated but before the compacted file was complete:
+     * the partial compacted file is discarded, and the rotated journal is replayed before the new one.
+     */
+    @Test
+    public void loadTasks_partialCompaction_discardedAndBothJournalsReplayed() throws IOException, MontyException {
+        String file = dataFile();
+        List<String> expected = writeRotatedJournals(file);
+        Files.writeString(Path.of(file + ".compact"), "T | 0 | read book\nT | 1 | ret");
+
+        assertEquals(expected, describe(journaling(file).loadTasks()));
+        assertFalse(Files.exists(Path.of(file + ".compact")));
+    }
+
+    /**
+     * Checks a crash after the compacted file was complete and the rotated journal deleted,
+     * but before the compacted file was moved over the data file: it is moved into place,
+     * and only the new journal is replayed on top.
+     */
+    @Test
+    public void loadTasks_compactionNotMovedIntoPlace_finishedOnLoad() throws IOException, MontyException {
+        String file = dataFile();
+        Storage rotatedOnly = journaling(file);
+        TaskList beforeRotation = new TaskList(rotatedOnly.loadTasks(), rotatedOnly);
+        beforeRotation.addTask(new ToDo("read book"));
+        beforeRotation.addTask(new Event("talk", "2024-12-01 1400", "1600"));
+        beforeRotation.markTaskDone(2);
+        List<Task> compacted = beforeRotation.getAllTasks();
+        Files.move(Path.of(file + ".journal"), Path.of(file + ".journal.old"));
+
+        Storage afterRotation = journaling(file);
+        TaskList list = new TaskList(afterRotation.loadTasks(), afterRotation);
+        list.addTask(new ToDo("write notes"));
+        new Storage(file + ".compact").saveTasks(compacted);
+        Files.delete(Path.of(file + ".journal.old"));
+
+        assertEquals(describe(list.getAllTasks()), describe(journaling(file).loadTasks()));
+        assertFalse(Files.exists(Path.of(file + ".compact")));
+    }
+
+    /**
+     * Checks that a journal compacted in the background while edits keep coming in loads back
+     * to the same tasks, for every layout.
+     */
+    @Test
+    public void compactIfNeeded_editsDuringCompaction_reloadMatchesList() throws IOException, MontyException {
+        for (TaskLayout layout : TaskLayout.values()) {
+            String file = tempDir.resolve(layout + ".txt").toString();
+            List<Task> seed = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                seed.add(new ToDo("seed " + i));
+            }
+            new Storage(file).saveTasks(seed);
+
+            Storage storage = new Storage(file, true, 512);
+            TaskList list = layout.load(storage);
+            for (int i = 0; i < 300; i++) {
+                list.addTask(new ToDo("task " + i));
+                list.markTaskDone(1 + i % list.getSize());
+                if (i % 3 == 0) {
+                    list.deleteTasks(IndexRanges.parse("2-3", 0));
+                }
+            }
+            storage.waitForCompaction();
+
+            assertEquals(describe(list.getAllTasks()), describe(new Storage(file, true, 512).loadTasks()),
+                    layout.toString());
+        }
+    }
+
+    /**
+     * Leaves behind the files of a compaction cut short right after the journal was rotated:
+     * a rotated journal holding the older records and a new journal holding the later ones.
+     * 
+     * @param file the data file path
+     * @return the tasks the records add up to, as shown to the user
+     * @throws MontyException if an edit refers to a missing task
+     * @throws IOException if the journal cannot be moved
+     */
+    private List<String> writeRotatedJournals(String file) throws MontyException, IOException {
+        Storage beforeRotation = journaling(file);
+        TaskList list = new TaskList(beforeRotation.loadTasks(), beforeRotation);
+        list.addTask(new ToDo("read book"));
+        list.addTask(new ToDo("return book"));
+        list.addTask(new ToDo("write notes"));
+        list.markTaskDone(2);
+        Files.move(Path.of(file + ".journal"), Path.of(file + ".journal.old"));
+
+        Storage afterRotation = journaling(file);
+        list = new TaskList(afterRotation.loadTasks(), afterRotation);
+        list.deleteTask(1);
+        list.addTask(new Deadline("essay", "2024-12-01 1800"));
+        list.markTasksNotDone(IndexRanges.parse("1", 0));
+        return describe(list.getAllTasks());
+    }
+
+    /**
+     * Returns the path of the data file in the test directory.
+     * 
+     * @return the data file path
+     */
+    private String dataFile() {
+        return tempDir.resolve("tasks.txt").toString();
+    }
+
+    /**
+     * Returns a journaling storage that never compacts on its own.
+     * 
+     * @param file the data file path
+     * @return the storage
+     */
+    private static Storage journaling(String file) {
+        return new Storage(file, true, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the tasks as shown to the user, for comparing lists of separately built tasks.
+     * 
+     * @param tasks the tasks
+     * @return the string form of each task, in order
+     */
+    private static List<String> describe(List<Task> tasks) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(task.toString());
+        }
+        return descriptions;
+    }
+}
@@ -0,0 +1,125 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for loading the text data file, checked against the original loader that read it line by line.
+ */
+public class StorageLoadTest {
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that a file of generated lines, with mixed line endings and no final line separator,
+     * loads the same tasks as the original loader, skipping the same number of lines.
+     */
+    @Test
+    public void loadTasks_generatedFile_matchesOriginalLoader() throws IOException {
+        Random random = new Random(11);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            content.append(i % 50 == 0 ? "   " : TaskFileParserTest.generateLine(random));
+            content.append(random.nextInt(4) == 0 ? "\r\n" : "\n");
+        }
+        content.append("T | 1 | last line");
+        Path file = tempDir.resolve("tasks.txt");
+        Files.writeString(file, content);
+
+        assertLoadsLikeOriginal(file);
+    }
+
+    /**
+     * Checks that a file spanning several parse chunks loads in file order, with corrupted lines on either side
+     * of the chunk boundaries reported under their line numbers in the whole file.
+     */
+    @Test
+    public void loadTasks_severalChunks_keepsOrderAndLineNumbers() throws IOException {
+        StringBuilder content = new StringBuilder();
+        List<Integer> corruptedLines = new ArrayList<>();
+        int lineNumber = 0;
+        while (content.length() < 3 * 1024 * 1024) {
+            lineNumber++;
+            if (lineNumber % 20000 == 0 || lineNumber % 20000 == 1) {
+                corruptedLines.add(lineNumber);
+                content.append("corrupted ").append(lineNumber).append('\n');
+            } else {
+                content.append("T | ").append(lineNumber % 2).append(" | task ").append(lineNumber)
+                        .append(" with some padding text").append('\n');
+            }
+        }
+        Path file = tempDir.resolve("tasks.txt");
+        Files.writeString(file, content);
+
+        assertLoadsLikeOriginal(file);
+        Storage storage = new Storage(file.toString());
+        storage.loadTasks();
+        String report = storage.getLastLoadReport().toString();
+        for (int corrupted : corruptedLines.subList(0, 5)) {
+            assertTrue(report.contains("line " + corrupted + ": corrupted " + corrupted), report);
+        }
+    }
+
+    /**
+     * Checks that text outside ASCII survives a save and a load unchanged.
+     */
+    @Test
+    public void loadTasks_multiByteText_roundTrips() throws IOException {
+        List<Task> tasks = List.of(new ToDo("café ☕ 日本語"), new Deadline("Übung", "nächste Woche"),
+                new Event("会議", "2024-12-01 1400", "1500"));
+        Path file = tempDir.resolve("tasks.txt");
+        new Storage(file.toString()).saveTasks(tasks);
+
+        List<String> expected = new ArrayList<>();
+        for (Task task : tasks) {
+            expected.add(TaskFileParserTest.describe(task));
+        }
+        assertEquals(expected, describe(new Storage(file.toString()).loadTasks()));
+    }
+
+    /**
+     * Checks that loading a file gives the same tasks and skipped count as the original loader.
+     * 
+     * @param file the data file
+     * @throws IOException if the file cannot be read
+     */
+    static void assertLoadsLikeOriginal(Path file) throws IOException {
+        List<String> expected = new ArrayList<>();
+        long expectedSkipped = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String result = TaskFileParserTest.parseLikeOriginal(line);
+            if (result.equals("rejected")) {
+                expectedSkipped++;
+            } else if (!result.equals("blank")) {
+                expected.add(result);
+            }
+        }
+
+        Storage storage = new Storage(file.toString());
+        assertEquals(expected, describe(storage.loadTasks()));
+        assertEquals(expectedSkipped, storage.getLastLoadReport().getSkippedCount());
+    }
+
+    /**
+     * Describes loaded tasks the same way as {@link TaskFileParserTest#parseLikeOriginal(String)}.
+     * 
+     * @param tasks the tasks
+     * @return the description of each task, in order
+     */
+    private static List<String> describe(List<Task> tasks) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(TaskFileParserTest.describe(task));
+        }
+        return descriptions;
+    }
+}
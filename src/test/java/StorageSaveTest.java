@@ -0,0 +1,99 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for saving the data file atomically and for the summary of skipped data on load.
+ */
+public class StorageSaveTest {
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that saving a shorter list replaces the whole file and leaves no temporary file behind.
+     */
+    @Test
+    public void saveTasks_shorterList_replacesFileAndRemovesTemp() throws IOException {
+        Path file = tempDir.resolve("tasks.txt");
+        Storage storage = new Storage(file.toString());
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+        storage.saveTasks(tasks);
+
+        List<Task> remaining = List.of(new ToDo("read book"), new Deadline("return book", "2024-12-01"));
+        storage.saveTasks(remaining);
+
+        assertEquals(describe(remaining), describe(new Storage(file.toString()).loadTasks()));
+        assertFalse(Files.exists(tempDir.resolve("tasks.txt.tmp")));
+    }
+
+    /**
+     * Checks that a save which fails before the new file is complete leaves the previous file untouched.
+     */
+    @Test
+    public void saveTasks_tempFileCannotBeWritten_keepsPreviousFile() throws IOException {
+        Path file = tempDir.resolve("tasks.txt");
+        Storage storage = new Storage(file.toString());
+        storage.saveTasks(List.of(new ToDo("read book")));
+        String before = Files.readString(file);
+        Files.createDirectory(tempDir.resolve("tasks.txt.tmp"));
+
+        assertThrows(IOException.class, () -> storage.saveTasks(List.of(new ToDo("other"))));
+
+        assertEquals(before, Files.readString(file));
+    }
+
+    /**
+     * Checks that text is saved as UTF-8, whatever the platform's default charset.
+     */
+    @Test
+    public void saveTasks_multiByteText_writtenAsUtf8() throws IOException {
+        Path file = tempDir.resolve("tasks.txt");
+        new Storage(file.toString()).saveTasks(List.of(new ToDo("café 日本 😀")));
+
+        assertEquals("T | 0 | café 日本 😀" + System.lineSeparator(),
+                new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks that corrupted lines are counted in one load report instead of stopping the load.
+     */
+    @Test
+    public void loadTasks_corruptedLines_countedInReport() throws IOException {
+        Path file = tempDir.resolve("tasks.txt");
+        Files.writeString(file, "T | 0 | read book\nX | 0 | bad type\nD | 0 | no by\n\nT | 1 | buy milk\n");
+        Storage storage = new Storage(file.toString());
+
+        List<Task> tasks = storage.loadTasks();
+
+        assertEquals(List.of("[T][ ] read book done=false", "[T][X] buy milk done=true"), describe(tasks));
+        assertEquals(2, storage.getLastLoadReport().getLoadedCount());
+        assertEquals(2, storage.getLastLoadReport().getSkippedCount());
+    }
+
+    /**
+     * Returns the tasks as shown to the user, with their done status.
+     * 
+     * @param tasks the tasks
+     * @return the string form of each task, in order
+     */
+    private static List<String> describe(List<Task> tasks) {
+        List<String> described = new ArrayList<>();
+        for (Task task : tasks) {
+            described.add(task + " done=" + task.isDone());
+        }
+        return described;
+    }
+}
@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link StringPool}.
+ */
+public class StringPoolTest {
+    /**
+     * Checks that equal strings, whether given as Strings or as ASCII bytes, come back as one instance.
+     */
+    @Test
+    public void intern_repeatedText_sharesOneInstance() {
+        StringPool pool = new StringPool(64, 32);
+        String first = pool.intern(new String("standup"));
+
+        assertSame(first, pool.intern(new String("standup")));
+        assertSame(first, intern(pool, "standup"));
+        assertEquals(3, pool.getLookupCount());
+        assertEquals(2, pool.getHitCount());
+    }
+
+    /**
+     * Checks that multi-byte text is decoded as UTF-8 and pooled like any other text.
+     */
+    @Test
+    public void intern_multiByteBytes_decodedAndPooled() {
+        StringPool pool = new StringPool(64, 32);
+        String first = intern(pool, "café 日本");
+
+        assertEquals("café 日本", first);
+        assertSame(first, intern(pool, "café 日本"));
+        assertSame(first, pool.intern(new String("café 日本")));
+    }
+
+    /**
+     * Checks that text longer than the limit is returned as it is, without being pooled or counted.
+     */
+    @Test
+    public void intern_longerThanLimit_notPooled() {
+        StringPool pool = new StringPool(64, 4);
+
+        assertNotSame(pool.intern(new String("meeting")), pool.intern(new String("meeting")));
+        assertEquals("meeting", intern(pool, "meeting"));
+        assertEquals(0, pool.getLookupCount());
+        assertEquals(0, pool.getPooledCount());
+    }
+
+    /**
+     * Checks that many unique strings never grow the pool past its capacity, that strings whose hashes
+     * collide replace each other, and that every lookup still returns text equal to what was given.
+     */
+    @Test
+    public void intern_manyUniqueAndCollidingStrings_staysBoundedAndCorrect() {
+        StringPool pool = new StringPool(16, 32);
+        for (int i = 0; i < 10_000; i++) {
+            String text = "task " + i;
+            assertEquals(text, i % 2 == 0 ? pool.intern(text) : intern(pool, text));
+        }
+        assertTrue(pool.getPooledCount() <= 16);
+
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Aa", intern(pool, "Aa"));
+            assertEquals("BB", pool.intern("BB"));
+        }
+    }
+
+    /**
+     * Checks that threads interning overlapping text at once always get back text equal to what they gave.
+     */
+    @Test
+    public void intern_manyThreads_returnsEqualText() throws Exception {
+        StringPool pool = new StringPool(64, 32);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        String text = "task " + (i % 200);
+                        if (!text.equals(i % 3 == 0 ? pool.intern(text) : intern(pool, text))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Interns text through the byte-based lookup, as the data file loader does.
+     * 
+     * @param pool the pool
+     * @param text the text to intern
+     * @return the pooled string
+     */
+    private static String intern(StringPool pool, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] padded = new byte[bytes.length + 8];
+        System.arraycopy(bytes, 0, padded, 0, bytes.length);
+        return pool.intern(padded, bytes.length);
+    }
+}
@@ -0,0 +1,180 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link TaskFileParser}, checked against the original line parser that split each trimmed line on " | ".
+ */
+public class TaskFileParserTest {
+    private static final String[] FIELD_PIECES = {
+        "T", "D", "E", "0", "1", "2", "x", "read book", "x|y", "|", " ", "   ", "\t", "2024-12-01",
+        "2024-12-01 1400", "1600", "D T", "b   | 201", "",
+    };
+
+    /**
+     * Checks that a record with a whitespace-only field, as written for "todo one |   | two", is loaded
+     * the way the original parser loaded it, with the text after the first delimiter as extra fields.
+     */
+    @Test
+    public void parse_whitespaceOnlyFieldInDescription_keepsRecord() {
+        Task task = parse("T | 0 | one |   | two");
+
+        assertEquals("[T][ ] one", task.toString());
+    }
+
+    /**
+     * Checks that whitespace-only fields after the ones a task needs are ignored rather than rejected.
+     */
+    @Test
+    public void parse_whitespaceOnlyExtraFields_keepsRecord() {
+        assertEquals(parseLikeOriginal("T | 1 | x|y |  T |   |  | D T"), describe(parse("T | 1 | x|y |  T |   |  | D T")));
+        assertEquals(parseLikeOriginal("T | 0 | D  |   | b   | 201"), describe(parse("T | 0 | D  |   | b   | 201")));
+    }
+
+    /**
+     * Checks that a deadline whose "by" field is only whitespace is rejected instead of failing on a bad range.
+     */
+    @Test
+    public void parse_whitespaceOnlyRequiredField_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> parse("D | 0 | report |    "));
+        assertThrows(IllegalArgumentException.class, () -> parse("E | 0 | talk |   | 1600"));
+    }
+
+    /**
+     * Checks that a blank record parses to null.
+     */
+    @Test
+    public void parse_blankRecord_returnsNull() {
+        assertNull(parse("  \t "));
+    }
+
+    /**
+     * Checks that generated lines with whitespace-only fields, '|' inside text and extra trailing fields are
+     * accepted or rejected exactly as by the original parser.
+     */
+    @Test
+    public void parse_generatedLines_matchesOriginalParser() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            String line = generateLine(random);
+            String expected = parseLikeOriginal(line);
+
+            String actual;
+            try {
+                actual = describe(parse(line));
+            } catch (IllegalArgumentException e) {
+                actual = "rejected";
+            }
+            assertEquals(expected, actual, line);
+        }
+    }
+
+    /**
+     * Builds a random record from a handful of fields chosen to hit the edge cases of the format.
+     * 
+     * @param random the source of randomness
+     * @return the generated record
+     */
+    static String generateLine(Random random) {
+        int fieldCount = 1 + random.nextInt(7);
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fieldCount; i++) {
+            if (i > 0) {
+                line.append(" | ");
+            }
+            if (i < 2 && random.nextInt(4) > 0) {
+                line.append(i == 0 ? "TDE".charAt(random.nextInt(3)) : (char) ('0' + random.nextInt(2)));
+            } else {
+                line.append(FIELD_PIECES[random.nextInt(FIELD_PIECES.length)]);
+                if (random.nextBoolean()) {
+                    line.append(FIELD_PIECES[random.nextInt(FIELD_PIECES.length)]);
+                }
+            }
+        }
+        if (random.nextInt(4) == 0) {
+            line.append("  ");
+        }
+        return line.toString();
+    }
+
+    /**
+     * Parses a record with a fresh parser.
+     * 
+     * @param line the record text
+     * @return the parsed task, or null if the record is blank
+     */
+    private static Task parse(String line) {
+        ByteBuffer buffer = encode(line);
+        return new TaskFileParser().parse(buffer, 0, buffer.limit());
+    }
+
+    /**
+     * Encodes a record as UTF-8 bytes.
+     * 
+     * @param line the record text
+     * @return a buffer holding exactly the encoded record
+     */
+    private static ByteBuffer encode(String line) {
+        return ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Describes a parsed task by its display text and done status, so results can be compared as strings.
+     * 
+     * @param task the parsed task, or null for a blank record
+     * @return the description of the result
+     */
+    static String describe(Task task) {
+        return task == null ? "blank" : task + " done=" + task.isDone();
+    }
+
+    /**
+     * Parses a record the way the original loader did, by splitting the trimmed line on " | ".
+     * 
+     * @param line the record text
+     * @return the description of the parsed task, "blank" for a blank line, or "rejected" if the line is skipped
+     */
+    static String parseLikeOriginal(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty()) {
+            return "blank";
+        }
+        try {
+            String[] parts = trimmed.split(" \\| ");
+            if (parts.length < 3) {
+                return "rejected";
+            }
+            String taskType = parts[0].trim();
+            int isDone = Integer.parseInt(parts[1].trim());
+            String description = parts[2].trim();
+            Task task = switch (taskType) {
+                case "T" -> new ToDo(description);
+                case "D" -> {
+                    if (parts.length < 4) {
+                        throw new IllegalArgumentException("Deadline task missing 'by' parameter");
+                    }
+                    yield new Deadline(description, parts[3].trim());
+                }
+                case "E" -> {
+                    if (parts.length < 5) {
+                        throw new IllegalArgumentException("Event task missing 'from' or 'to' parameter");
+                    }
+                    yield new Event(description, parts[3].trim(), parts[4].trim());
+                }
+                default -> throw new IllegalArgumentException("Unknown task type: " + taskType);
+            };
+            if (isDone == 1) {
+                task.markDone();
+            }
+            return describe(task);
+        } catch (Exception e) {
+            return "rejected";
+        }
+    }
+}
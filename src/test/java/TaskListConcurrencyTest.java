@@ -0,0 +1,217 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link TaskList} shared between threads, for every layout and with the edits persisted to a journal.
+ */
+public class TaskListConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 500;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that threads adding, marking, deleting, searching and listing at once never fail, that every
+     * add and delete is counted, and that the journal reloads to the same tasks as are held in memory.
+     */
+    @Test
+    public void mixedEdits_manyThreads_countsAddsAndDeletesAndReloads() throws Exception {
+        for (TaskLayout layout : TaskLayout.values()) {
+            String file = tempDir.resolve(layout + ".txt").toString();
+            TaskList list = load(layout, file);
+            int seeded = list.getSize();
+            AtomicInteger added = new AtomicInteger();
+            AtomicInteger deleted = new AtomicInteger();
+
+            runConcurrently(thread -> {
+                Random random = new Random(thread);
+                for (int i = 0; i < OPERATIONS; i++) {
+                    try {
+                        switch (random.nextInt(8)) {
+                            case 0, 1 -> {
+                                list.addTask(new ToDo("task " + thread + " " + i));
+                                added.incrementAndGet();
+                            }
+                            case 2 -> {
+                                list.deleteTask(1 + random.nextInt(Math.max(1, list.getSize())));
+                                deleted.incrementAndGet();
+                            }
+                            case 3 -> list.markTaskDone(1 + random.nextInt(Math.max(1, list.getSize())));
+                            case 4 -> list.markTasksNotDone(IndexRanges.parse("1-2", 0));
+                            case 5 -> list.findTasks("task " + thread);
+                            case 6 -> list.findOverdueTasks(LocalDateTime.of(2024, 12, 3, 0, 0));
+                            default -> {
+                                TaskList snapshot = list.snapshot();
+                                for (int k = 0; k < snapshot.getSize(); k++) {
+                                    snapshot.getTask(k);
+                                }
+                            }
+                        }
+                    } catch (MontyException e) {
+                        // Another thread emptied the list or removed the chosen task first.
+                    }
+                }
+            });
+
+            assertEquals(seeded + added.get() - deleted.get(), list.getSize(), layout + " size");
+            assertEquals(describe(list.getAllTasks()), describe(journaling(file).loadTasks()), layout + " reload");
+        }
+    }
+
+    /**
+     * Checks that threads all deleting the first task delete every task exactly once between them,
+     * and that each further delete is rejected.
+     */
+    @Test
+    public void deleteTask_racingThreads_eachTaskDeletedOnce() throws Exception {
+        for (TaskLayout layout : TaskLayout.values()) {
+            String file = tempDir.resolve(layout + ".txt").toString();
+            TaskList list = load(layout, file);
+            for (int i = 0; i < 1000; i++) {
+                list.addTask(new ToDo("task " + i));
+            }
+            int total = list.getSize();
+            Set<String> deleted = new HashSet<>();
+
+            runConcurrently(thread -> {
+                List<String> mine = new ArrayList<>();
+                while (true) {
+                    try {
+                        mine.add(list.deleteTask(1).toString());
+                    } catch (MontyException e) {
+                        break;
+                    }
+                }
+                synchronized (deleted) {
+                    deleted.addAll(mine);
+                }
+            });
+
+            assertEquals(0, list.getSize(), layout + " size");
+            assertEquals(total, deleted.size(), layout + " deleted");
+            assertThrows(MontyException.class, () -> list.deleteTask(1));
+            assertEquals(List.of(), journaling(file).loadTasks(), layout + " reload");
+        }
+    }
+
+    /**
+     * Checks that a snapshot keeps its size and order while other threads keep adding to the original.
+     */
+    @Test
+    public void snapshot_whileOthersAdd_staysFixed() throws Exception {
+        for (TaskLayout layout : TaskLayout.values()) {
+            TaskList list = load(layout, tempDir.resolve(layout + ".txt").toString());
+            TaskList snapshot = list.snapshot();
+            List<String> before = describe(snapshot.getAllTasks());
+
+            runConcurrently(thread -> {
+                for (int i = 0; i < OPERATIONS; i++) {
+                    list.addTask(new ToDo("task " + thread + " " + i));
+                }
+            });
+
+            assertEquals(before, describe(snapshot.getAllTasks()), layout + " snapshot");
+            assertEquals(before.size() + THREADS * OPERATIONS, list.getSize(), layout + " size");
+        }
+    }
+
+    /**
+     * Runs the given work on several threads at once, started together, and waits for all of them.
+     * 
+     * @param work the work to run, given the number of the thread running it
+     * @throws Exception if any thread fails
+     */
+    private static void runConcurrently(ThreadWork work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                Callable<Void> task = () -> {
+                    start.await();
+                    work.run(thread);
+                    return null;
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Work run by one of the threads in {@link #runConcurrently(ThreadWork)}.
+     */
+    private interface ThreadWork {
+        /**
+         * Runs the work.
+         * 
+         * @param thread the number of the thread, from 0
+         * @throws Exception if the work fails
+         */
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Writes a small data file and loads it into a list with the given layout, journaling every edit.
+     * 
+     * @param layout the layout to load the list in
+     * @param file the data file path
+     * @return the loaded list
+     * @throws IOException if the data file cannot be written
+     * @throws MontyException if the data file cannot be loaded
+     */
+    private static TaskList load(TaskLayout layout, String file) throws IOException, MontyException {
+        new Storage(file).saveTasks(List.of(new ToDo("read book"), new Deadline("return book", "2024-12-01"),
+                new Event("talk", "2024-12-02 1400", "1600"), new ToDo("buy milk")));
+        return layout.load(journaling(file));
+    }
+
+    /**
+     * Returns a journaling storage that never compacts on its own.
+     * 
+     * @param file the data file path
+     * @return the storage
+     */
+    private static Storage journaling(String file) {
+        return new Storage(file, true, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the tasks as shown to the user, with their done status.
+     * 
+     * @param tasks the tasks
+     * @return the string form of each task, in order
+     */
+    private static List<String> describe(List<Task> tasks) {
+        List<String> described = new ArrayList<>();
+        for (Task task : tasks) {
+            described.add(task + " done=" + task.isDone());
+        }
+        return described;
+    }
+}
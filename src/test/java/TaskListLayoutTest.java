@@ -0,0 +1,159 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that columnar and lazy task lists behave exactly like a list of task objects under the same edits,
+ * including the search and time indexes they keep up to date.
+ */
+public class TaskListLayoutTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 0, 0);
+    private static final String[] KEYWORDS = {"alpha", "beta 1", "gam", "new"};
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that random adds, marks, deletes, undos and redos leave every layout with the same tasks and
+     * the same query results as the object layout, with the indexes built part way through.
+     */
+    @Test
+    public void edits_randomSequence_everyLayoutMatchesObjects() throws IOException {
+        String file = tempDir.resolve("tasks.txt").toString();
+        new Storage(file).saveTasks(seed());
+        List<TaskList> lists = new ArrayList<>();
+        for (TaskLayout layout : TaskLayout.values()) {
+            lists.add(load(layout, file));
+        }
+
+        Random random = new Random(7);
+        for (int step = 0; step < 1500; step++) {
+            int size = Math.max(1, lists.get(0).getSize());
+            int first = 1 + random.nextInt(size);
+            int last = Math.min(size, first + random.nextInt(3));
+            int kind = random.nextInt(8);
+            boolean isDeadline = random.nextBoolean();
+            for (TaskList tasks : lists) {
+                apply(tasks, kind, first, last, isDeadline, step);
+            }
+            if (step % 50 == 25) {
+                for (int i = 1; i < lists.size(); i++) {
+                    assertSameResults(lists.get(0), lists.get(i), TaskLayout.values()[i] + " at step " + step);
+                }
+            }
+        }
+        for (int i = 1; i < lists.size(); i++) {
+            assertSameResults(lists.get(0), lists.get(i), TaskLayout.values()[i].toString());
+        }
+    }
+
+    /**
+     * Applies one edit to a list, ignoring edits that refer to missing tasks or have nothing to undo or redo.
+     * 
+     * @param tasks the task list
+     * @param kind which edit to make
+     * @param first the 1-based number of the first task to change
+     * @param last the 1-based number of the last task to change
+     * @param isDeadline true to add a deadline rather than a to-do
+     * @param step the number of the edit, used to name added tasks
+     */
+    private static void apply(TaskList tasks, int kind, int first, int last, boolean isDeadline, int step) {
+        try {
+            switch (kind) {
+                case 0, 1 -> tasks.addTask(isDeadline
+                        ? new Deadline("beta new " + step, "2024-0" + (1 + step % 9) + "-11 0900")
+                        : new ToDo("alpha new " + step));
+                case 2 -> tasks.deleteTasks(IndexRanges.parse(first + "-" + last, 0));
+                case 3 -> tasks.markTasksDone(IndexRanges.parse(first + "-" + last, 0));
+                case 4 -> tasks.markTasksNotDone(IndexRanges.parse(String.valueOf(first), 0));
+                case 5 -> tasks.undo();
+                case 6 -> tasks.redo();
+                default -> tasks.markTaskDone(first);
+            }
+        } catch (MontyException e) {
+            // Nothing to change, the same for every layout
+        }
+    }
+
+    /**
+     * Checks that two lists hold the same tasks and answer every query alike.
+     * 
+     * @param expected the list of task objects
+     * @param actual the list in another layout
+     * @param message the message to show on failure
+     */
+    private static void assertSameResults(TaskList expected, TaskList actual, String message) {
+        assertEquals(describe(expected), describe(actual), message);
+        for (String keyword : KEYWORDS) {
+            assertEquals(describe(expected.findTasks(keyword)), describe(actual.findTasks(keyword)), message);
+        }
+        LocalDate date = LocalDate.of(2024, 3, 11);
+        assertEquals(describe(expected.findTasksDue(date)), describe(actual.findTasksDue(date)), message);
+        assertEquals(describe(expected.findOverdueTasks(NOW)), describe(actual.findOverdueTasks(NOW)), message);
+        assertEquals(describe(expected.findTasksBetween(NOW.minusMonths(3), NOW)),
+                describe(actual.findTasksBetween(NOW.minusMonths(3), NOW)), message);
+        assertEquals(expected.findConflicts().toString(), actual.findConflicts().toString(), message);
+    }
+
+    /**
+     * Loads a list in the given layout without saving it after each edit.
+     * 
+     * @param layout the layout
+     * @param file the data file
+     * @return the loaded list
+     */
+    private static TaskList load(TaskLayout layout, String file) {
+        try {
+            TaskList tasks = layout.load(new Storage(file));
+            tasks.setAutoSave(false);
+            return tasks;
+        } catch (MontyException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns a mix of to-dos, deadlines and partly overlapping events.
+     * 
+     * @return the tasks
+     */
+    private static List<Task> seed() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int day = 1 + i % 9;
+            Task task = switch (i % 3) {
+                case 0 -> new ToDo("alpha " + i);
+                case 1 -> new Deadline("beta " + i, "2024-0" + day + "-1" + (i % 9) + " 1200");
+                default -> new Event("gamma " + i, "2024-03-0" + day + " 1000", "2024-03-0" + day + " 1" + (1 + i % 5) + "00");
+            };
+            if (i % 7 == 0) {
+                task.markDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the tasks as shown to the user, for comparing lists of separately built tasks.
+     * 
+     * @param tasks the task list
+     * @return the string form of each task, in order
+     */
+    private static List<String> describe(TaskList tasks) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : tasks.getAllTasks()) {
+            descriptions.add(task.toString());
+        }
+        return descriptions;
+    }
+}
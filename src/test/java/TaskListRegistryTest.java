@@ -0,0 +1,182 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for named lists kept by {@link TaskListRegistry} and switched between by a {@link Workspace}.
+ */
+public class TaskListRegistryTest {
+    private static final long NO_BUDGET = Long.MAX_VALUE;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that a named list is loaded from its own file next to the default one, that edits to it
+     * are saved there, and that the default list is returned for its own name.
+     */
+    @Test
+    public void acquire_namedList_loadedFromSiblingFile() throws IOException, MontyException {
+        new Storage(tempDir.resolve("alice.txt").toString()).saveTasks(List.of(new ToDo("read book")));
+        TaskListRegistry registry = registry(NO_BUDGET);
+
+        TaskList alice = registry.acquire("alice");
+        alice.addTask(new ToDo("buy milk"));
+
+        assertSame(alice, registry.acquire("alice"));
+        assertSame(registry.getDefault(), registry.acquire("tasks"));
+        assertEquals(List.of("[T][ ] read book", "[T][ ] buy milk"), load("alice.txt"));
+        assertEquals(0, registry.getDefault().getSize());
+    }
+
+    /**
+     * Checks that names which are not plain file names are rejected without touching any file.
+     */
+    @Test
+    public void acquire_invalidName_throws() throws IOException {
+        TaskListRegistry registry = registry(NO_BUDGET);
+
+        for (String name : new String[] {"", "../escape", "a b", "x/y", "a".repeat(65), "café"}) {
+            assertThrows(MontyException.class, () -> registry.acquire(name), name);
+        }
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(tempDir.resolve("tasks.txt")), files.toList());
+        }
+    }
+
+    /**
+     * Checks that with no room in the budget, a list is flushed and dropped once released,
+     * but kept while in use, and is reloaded with its edits when used again.
+     */
+    @Test
+    public void release_overBudget_evictsIdleListAndReloadsIt() throws IOException, MontyException {
+        TaskListRegistry registry = registry(0);
+
+        TaskList first = registry.acquire("work");
+        first.addTask(new ToDo("write report"));
+        TaskList second = registry.acquire("work");
+        registry.release("work");
+        assertSame(first, second);
+        assertTrue(registry.toString().startsWith("Lists: 1 resident"), registry.toString());
+
+        registry.release("work");
+        assertTrue(registry.toString().startsWith("Lists: 0 resident"), registry.toString());
+        assertTrue(registry.toString().endsWith("1 evicted"), registry.toString());
+
+        TaskList reloaded = registry.acquire("work");
+        assertNotSame(first, reloaded);
+        assertEquals(List.of("[T][ ] write report"), describe(reloaded.getAllTasks()));
+    }
+
+    /**
+     * Checks that when the budget is exceeded, the least recently used idle list is dropped first.
+     */
+    @Test
+    public void acquire_budgetExceeded_evictsLeastRecentlyUsed() throws IOException, MontyException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+        for (String name : new String[] {"a", "b", "c"}) {
+            new Storage(tempDir.resolve(name + ".txt").toString()).saveTasks(tasks);
+        }
+        long listBytes = TaskLayout.OBJECTS.load(new Storage(tempDir.resolve("a.txt").toString()))
+                .estimateMemoryBytes();
+        TaskListRegistry registry = registry(listBytes * 5 / 2);
+
+        TaskList a = use(registry, "a");
+        TaskList b = use(registry, "b");
+        use(registry, "a");
+        use(registry, "c");
+
+        assertSame(a, use(registry, "a"));
+        assertNotSame(b, use(registry, "b"));
+    }
+
+    /**
+     * Checks that a workspace keeps its current list when switching to an invalid name,
+     * and lets the list it leaves be dropped.
+     */
+    @Test
+    public void use_switchingLists_releasesPreviousList() throws IOException, MontyException {
+        TaskListRegistry registry = registry(0);
+        Workspace workspace = new Workspace(registry);
+
+        workspace.use("work");
+        TaskList work = workspace.getTasks();
+        work.addTask(new ToDo("write report"));
+        assertThrows(MontyException.class, () -> workspace.use("not valid"));
+        assertSame(work, workspace.getTasks());
+        assertEquals("work", workspace.getStorage().getListName());
+
+        workspace.use("tasks");
+        assertSame(registry.getDefault(), workspace.getTasks());
+        assertTrue(registry.toString().startsWith("Lists: 0 resident"), registry.toString());
+        assertEquals(List.of("[T][ ] write report"), load("work.txt"));
+        workspace.close();
+    }
+
+    /**
+     * Creates a registry whose default list is an empty "tasks.txt", holding named lists as objects.
+     * 
+     * @param memoryBudgetBytes the estimated memory the idle named lists may hold
+     * @return the registry
+     * @throws IOException if the default list cannot be written
+     */
+    private TaskListRegistry registry(long memoryBudgetBytes) throws IOException {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        storage.saveTasks(List.of());
+        return new TaskListRegistry(new TaskList(storage.loadTasks(), storage), TaskLayout.OBJECTS,
+                memoryBudgetBytes, 0);
+    }
+
+    /**
+     * Acquires a list and releases it straight away, as a session does when it uses a list for one command.
+     * 
+     * @param registry the registry
+     * @param name the list name
+     * @return the list that was acquired
+     * @throws MontyException if the list cannot be loaded
+     */
+    private static TaskList use(TaskListRegistry registry, String name) throws MontyException {
+        TaskList tasks = registry.acquire(name);
+        registry.release(name);
+        return tasks;
+    }
+
+    /**
+     * Loads a data file in the temporary directory.
+     * 
+     * @param fileName the name of the file
+     * @return the string form of each task, in order
+     */
+    private List<String> load(String fileName) {
+        return describe(new Storage(tempDir.resolve(fileName).toString()).loadTasks());
+    }
+
+    /**
+     * Returns the tasks as shown to the user.
+     * 
+     * @param tasks the tasks
+     * @return the string form of each task, in order
+     */
+    private static List<String> describe(List<Task> tasks) {
+        List<String> described = new ArrayList<>();
+        for (Task task : tasks) {
+            described.add(task.toString());
+        }
+        return described;
+    }
+}
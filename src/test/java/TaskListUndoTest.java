@@ -0,0 +1,147 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for undo and redo in {@link TaskList}, for every layout and with the edits persisted to a journal.
+ */
+public class TaskListUndoTest {
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that undoing a mix of edits one at a time goes back through every earlier state, that redoing
+     * them comes forward through the same states, and that the journal reloads to the final state.
+     */
+    @Test
+    public void undoRedo_mixedEdits_roundTripThroughEveryState() throws IOException, MontyException {
+        for (TaskLayout layout : TaskLayout.values()) {
+            String file = tempDir.resolve(layout + ".txt").toString();
+            TaskList list = load(layout, file);
+            List<List<String>> states = new ArrayList<>();
+            states.add(describe(list));
+
+            list.addTask(new ToDo("write notes"));
+            states.add(describe(list));
+            list.markTasksDone(IndexRanges.parse("1-3,6", 0));
+            states.add(describe(list));
+            list.deleteTasks(IndexRanges.parse("2,4-5", 0));
+            states.add(describe(list));
+            list.markTasksNotDone(IndexRanges.parse("1-2", 0));
+            states.add(describe(list));
+            list.deleteTask(1);
+            states.add(describe(list));
+
+            for (int i = states.size() - 2; i >= 0; i--) {
+                list.undo();
+                assertEquals(states.get(i), describe(list), layout + " undo to state " + i);
+            }
+            for (int i = 1; i < states.size(); i++) {
+                list.redo();
+                assertEquals(states.get(i), describe(list), layout + " redo to state " + i);
+            }
+            list.undo();
+            list.undo();
+
+            Storage reloadedStorage = journaling(file);
+            List<String> reloaded = describe(new TaskList(reloadedStorage.loadTasks(), reloadedStorage));
+            assertEquals(states.get(states.size() - 3), reloaded, layout + " reload");
+        }
+    }
+
+    /**
+     * Checks that undoing a bulk mark only unmarks the tasks it changed, leaving ones that were already done.
+     */
+    @Test
+    public void undo_markOverAlreadyDoneTasks_restoresEarlierFlags() throws IOException, MontyException {
+        TaskList list = load(TaskLayout.OBJECTS, tempDir.resolve("tasks.txt").toString());
+        list.markTaskDone(2);
+        List<String> before = describe(list);
+
+        list.markTasksDone(IndexRanges.parse("1-3", 0));
+        list.undo();
+
+        assertEquals(before, describe(list));
+    }
+
+    /**
+     * Checks that there is nothing to undo on a fresh list, and nothing to redo once a new edit follows an undo.
+     */
+    @Test
+    public void undoRedo_nothingToApply_throws() throws IOException, MontyException {
+        TaskList list = load(TaskLayout.OBJECTS, tempDir.resolve("tasks.txt").toString());
+        assertThrows(MontyException.class, list::undo);
+        assertThrows(MontyException.class, list::redo);
+
+        list.addTask(new ToDo("first"));
+        list.undo();
+        list.addTask(new ToDo("second"));
+
+        assertThrows(MontyException.class, list::redo);
+    }
+
+    /**
+     * Checks that only the most recent hundred edits can be undone.
+     */
+    @Test
+    public void undo_moreEditsThanDepth_oldestDropped() throws IOException, MontyException {
+        TaskList list = load(TaskLayout.OBJECTS, tempDir.resolve("tasks.txt").toString());
+        int seeded = list.getSize();
+        for (int i = 0; i < 101; i++) {
+            list.addTask(new ToDo("task " + i));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            list.undo();
+        }
+
+        assertThrows(MontyException.class, list::undo);
+        assertEquals(seeded + 1, list.getSize());
+    }
+
+    /**
+     * Writes a small data file and loads it into a list with the given layout, journaling every edit.
+     * 
+     * @param layout the layout to load the list in
+     * @param file the data file path
+     * @return the loaded list
+     * @throws IOException if the data file cannot be written
+     * @throws MontyException if the data file cannot be loaded
+     */
+    private static TaskList load(TaskLayout layout, String file) throws IOException, MontyException {
+        new Storage(file).saveTasks(List.of(new ToDo("read book"), new Deadline("return book", "2024-12-01"),
+                new Event("talk", "2024-12-02 1400", "1600"), new ToDo("buy milk"), new ToDo("call home")));
+        return layout.load(journaling(file));
+    }
+
+    /**
+     * Returns a journaling storage that never compacts on its own.
+     * 
+     * @param file the data file path
+     * @return the storage
+     */
+    private static Storage journaling(String file) {
+        return new Storage(file, true, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the tasks of a list as shown to the user.
+     * 
+     * @param list the list
+     * @return the string form of each task, in order
+     */
+    private static List<String> describe(TaskList list) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : list.getAllTasks()) {
+            descriptions.add(task.toString());
+        }
+        return descriptions;
+    }
+}
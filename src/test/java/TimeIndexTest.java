@@ -0,0 +1,86 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link TimeIndex} lookups over the parsed times of deadlines and events.
+ */
+public class TimeIndexTest {
+    /**
+     * Checks that events whose end is just a time, on the day they start, are found as clashing.
+     */
+    @Test
+    public void findConflicts_timeOnlyEnds_resolvedAgainstStartDate() {
+        Event first = new Event("review", "2024-12-01 1400", "1600");
+        Event second = new Event("call", "2024-12-01 1500", "17:00");
+        Event later = new Event("dinner", "2024-12-01 1800", "2000");
+        TimeIndex index = new TimeIndex(List.of(first, second, later));
+
+        assertEquals(LocalDateTime.of(2024, 12, 1, 16, 0), first.getEndDateTime());
+        assertEquals(List.of(List.of(first, second)), index.findConflicts());
+    }
+
+    /**
+     * Checks that a time-only end before the start time leaves the event without a time range,
+     * as for any other event ending before it starts.
+     */
+    @Test
+    public void findBetween_timeOnlyEndBeforeStart_eventLeftOut() {
+        Event overnight = new Event("shift", "2024-12-01 2200", "0600");
+        TimeIndex index = new TimeIndex(List.of(overnight));
+
+        assertNull(overnight.getStartDateTime());
+        assertEquals(List.of(), index.findBetween(LocalDateTime.of(2024, 12, 1, 0, 0),
+                LocalDateTime.of(2024, 12, 2, 23, 59)));
+    }
+
+    /**
+     * Checks that deadlines and events in a range come out in time order, with free-form times left out.
+     */
+    @Test
+    public void findBetween_mixedTasks_inTimeOrder() {
+        Deadline report = new Deadline("report", "2024-12-01 1530");
+        Deadline someday = new Deadline("taxes", "next week");
+        Event meeting = new Event("meeting", "2024-12-01 1400", "1600");
+        Event workshop = new Event("workshop", "2024-12-01", "2024-12-01");
+        TimeIndex index = new TimeIndex(List.of(report, someday, meeting, workshop));
+
+        List<Task> found = index.findBetween(LocalDateTime.of(2024, 12, 1, 15, 0), LocalDateTime.of(2024, 12, 1, 16, 0));
+
+        assertEquals(List.of(workshop, meeting, report), found);
+    }
+
+    /**
+     * Checks that marking and unmarking a deadline moves it out of and back into the overdue results,
+     * in its original place among deadlines due at the same time.
+     */
+    @Test
+    public void findOverdue_markedAndUnmarked_followsDoneFlag() {
+        Deadline first = new Deadline("report", "2024-12-01 1800");
+        Deadline second = new Deadline("slides", "2024-12-01 1800");
+        Deadline earlier = new Deadline("essay", "2024-11-01 1800");
+        Deadline later = new Deadline("taxes", "2025-04-30 2359");
+        earlier.markDone();
+        TimeIndex index = new TimeIndex(List.of(first, second, earlier, later));
+        LocalDateTime now = LocalDateTime.of(2024, 12, 2, 0, 0);
+
+        assertEquals(List.of(first, second), index.findOverdue(now));
+
+        first.markDone();
+        index.updateDone(first);
+        assertEquals(List.of(second), index.findOverdue(now));
+
+        earlier.markNotDone();
+        index.updateDone(earlier);
+        first.markNotDone();
+        index.updateDone(first);
+        assertEquals(List.of(earlier, first, second), index.findOverdue(now));
+
+        index.remove(first);
+        assertEquals(List.of(earlier, second), index.findOverdue(now));
+    }
+}
@@ -0,0 +1,86 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the buffered rendering of {@link UI}.
+ */
+public class UITest {
+    private static final String DIVIDER = "____________________________________________________________";
+
+    /**
+     * Checks that a response is held back until it is flushed, and then written whole.
+     */
+    @Test
+    public void flush_pendingResponse_writtenOnlyThen() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UI ui = new UI(new ByteArrayInputStream(new byte[0]), out);
+
+        ui.showTaskAdded(new ToDo("read book"), 1);
+        assertEquals(0, out.size());
+        ui.flush();
+
+        String separator = System.lineSeparator();
+        assertEquals(DIVIDER + separator + " Got it. I've added this task:" + separator + "   [T][ ] read book"
+                + separator + " Now you have 1 tasks in the list." + separator + DIVIDER + separator, text(out));
+    }
+
+    /**
+     * Checks that reading the next command first writes out the response to the previous one.
+     */
+    @Test
+    public void readCommand_pendingResponse_flushedFirst() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UI ui = new UI(new ByteArrayInputStream("list\n".getBytes(Charset.defaultCharset())), out);
+
+        ui.showMessage("hello");
+
+        assertEquals("list", ui.readCommand());
+        assertTrue(text(out).contains(" hello"));
+    }
+
+    /**
+     * Checks that a listing longer than the threshold is streamed out before the flush,
+     * and that the streamed output is the same as when it is written in one go.
+     */
+    @Test
+    public void showTaskList_longListing_streamedIdenticallyToBuffered() {
+        List<Task> seed = new ArrayList<>();
+        for (int i = 1; i <= 2000; i++) {
+            seed.add(new ToDo("task " + i));
+        }
+        TaskList tasks = new TaskList(seed);
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        UI streaming = new UI(new ByteArrayInputStream(new byte[0]), streamed, 256);
+        streaming.showTaskList(tasks, TaskQuery.ALL);
+        assertTrue(streamed.size() > 0);
+        streaming.flush();
+
+        ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+        UI buffering = new UI(new ByteArrayInputStream(new byte[0]), buffered, 1 << 20);
+        buffering.showTaskList(tasks, TaskQuery.ALL);
+        assertEquals(0, buffered.size());
+        buffering.flush();
+
+        assertEquals(text(buffered), text(streamed));
+        assertTrue(text(streamed).contains(" 2000.[T][ ] task 2000" + System.lineSeparator()));
+    }
+
+    /**
+     * Decodes what was written to a stream.
+     * 
+     * @param out the stream
+     * @return the text written, in the platform's default charset as written by the UI
+     */
+    private static String text(ByteArrayOutputStream out) {
+        return out.toString(Charset.defaultCharset());
+    }
+}
@@ -0,0 +1,104 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link WriteBehindPersister} and the write-behind saves of {@link TaskList}.
+ */
+public class WriteBehindPersisterTest {
+    private static final long NEVER_MILLIS = 60_000;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that many save requests within the delay are written once, as the latest tasks, when flushed.
+     */
+    @Test
+    public void flush_manyRequests_savesLatestTasksOnce() {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        List<Task> tasks = new ArrayList<>();
+        AtomicInteger saves = new AtomicInteger();
+        WriteBehindPersister persister = new WriteBehindPersister(storage, () -> {
+            saves.incrementAndGet();
+            synchronized (tasks) {
+                return new ArrayList<>(tasks);
+            }
+        }, NEVER_MILLIS);
+
+        for (int i = 0; i < 100; i++) {
+            synchronized (tasks) {
+                tasks.add(new ToDo("task " + i));
+            }
+            persister.requestSave();
+        }
+        assertTrue(persister.hasPendingSave());
+        persister.flush();
+        persister.close();
+
+        assertFalse(persister.hasPendingSave());
+        assertEquals(1, saves.get());
+        assertEquals(describe(tasks), describe(storage.loadTasks()));
+    }
+
+    /**
+     * Checks that a change is saved on its own once the delay has passed, without a flush.
+     */
+    @Test
+    public void requestSave_delayPasses_savedWithoutFlush() throws InterruptedException {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        List<Task> tasks = List.of(new ToDo("read book"));
+        WriteBehindPersister persister = new WriteBehindPersister(storage, () -> tasks, 20);
+
+        persister.requestSave();
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (persister.hasPendingSave() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertFalse(persister.hasPendingSave());
+        persister.close();
+
+        assertEquals(describe(tasks), describe(storage.loadTasks()));
+    }
+
+    /**
+     * Checks that closing a write-behind task list saves the changes still waiting for the delay.
+     */
+    @Test
+    public void close_pendingEdits_reloadedAfterwards() throws MontyException {
+        String file = tempDir.resolve("tasks.txt").toString();
+        TaskList list = new TaskList(new Storage(file));
+        list.enableWriteBehind(NEVER_MILLIS);
+
+        for (int i = 0; i < 10; i++) {
+            list.addTask(new ToDo("task " + i));
+        }
+        list.markTaskDone(3);
+        list.deleteTask(1);
+        list.close();
+
+        assertEquals(describe(list.getAllTasks()), describe(new Storage(file).loadTasks()));
+    }
+
+    /**
+     * Returns the tasks as shown to the user, with their done status.
+     * 
+     * @param tasks the tasks
+     * @return the string form of each task, in order
+     */
+    private static List<String> describe(List<Task> tasks) {
+        List<String> described = new ArrayList<>();
+        for (Task task : tasks) {
+            described.add(task + " done=" + task.isDone());
+        }
+        return described;
+    }
+}